@@ -0,0 +1,82 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gevernova.petvacination.controller.ResponseEncodingConfig;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.VaccinationRequestDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// Deterministic fixtures shared by the benchmarks, so runs on different commits measure identical inputs
+final class BenchmarkData {
+
+    private static final String[] VACCINES = {"Rabies", "Parvovirus", "Distemper", "Leptospirosis", "Bordetella"};
+    private static final LocalDate FIRST_DOSE = LocalDate.of(2020, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    // Configured like the application's ObjectMapper: JavaTimeModule registered, ISO dates
+    static ObjectMapper objectMapper() {
+        return builder().build();
+    }
+
+    // The application's CBOR mapper, built from the same settings
+    static ObjectMapper cborMapper() {
+        return new ResponseEncodingConfig().cborHttpMessageConverter(builder()).getObjectMapper();
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    static PetDetails pet(long id, int vaccineCount) {
+        Set<VaccinationDetails> vaccines = LinkedHashSet.newLinkedHashSet(vaccineCount);
+        for (int i = 0; i < vaccineCount; i++) {
+            vaccines.add(new VaccinationDetails(VACCINES[i % VACCINES.length], FIRST_DOSE.plusDays(30L * i)));
+        }
+        return PetDetails.builder()
+                .id(id)
+                .petName("Pet " + id)
+                .species(Species.values()[(int) (id % Species.values().length)])
+                .breed("Mixed")
+                .owner(new Owner(id, "Owner " + id, "9876543210", "owner" + id + "@example.com"))
+                .vaccines(vaccines)
+                .build();
+    }
+
+    static List<PetDetails> pets(int count, int vaccinesPerPet) {
+        List<PetDetails> pets = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            pets.add(pet(i, vaccinesPerPet));
+        }
+        return pets;
+    }
+
+    static PetRequestDTO request(int vaccineCount) {
+        PetRequestDTO request = new PetRequestDTO();
+        request.setName("Buddy");
+        request.setSpecies(Species.DOG);
+        request.setBreed("Beagle");
+        request.setOwnerName("Jane Doe");
+        request.setOwnerContact("9876543210");
+        request.setOwnerEmail("jane@example.com");
+        List<VaccinationRequestDTO> vaccines = new ArrayList<>(vaccineCount);
+        for (int i = 0; i < vaccineCount; i++) {
+            vaccines.add(new VaccinationRequestDTO(VACCINES[i % VACCINES.length], FIRST_DOSE.plusDays(30L * i)));
+        }
+        request.setVaccines(vaccines);
+        return request;
+    }
+}
@@ -0,0 +1,31 @@
+package com.gevernova.petvacination.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Runs the benchmarks matching the optional regex argument (all by default) with the settings declared
+// on each class and the GC profiler, so every result also reports bytes allocated per operation
+// (gc.alloc.rate.norm). JSON results go to benchmarks/results/jmh-result.json. Commit the refreshed file
+// with changes to the mapper, serialization or instrumentation paths so the numbers are diffed in review.
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : ".*Benchmark.*";
+        String resultFile = args.length > 1 ? args[1] : "benchmarks/results/jmh-result.json";
+        Options options = new OptionsBuilder()
+                .include(include)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile)
+                .shouldFailOnError(true)
+                .build();
+        new Runner(options).run();
+    }
+}
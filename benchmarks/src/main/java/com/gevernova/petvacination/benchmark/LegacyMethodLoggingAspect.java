@@ -1,36 +1,30 @@
-package com.gevernova.petvacination.aspect;
+package com.gevernova.petvacination.benchmark;
 
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
-import org.springframework.stereotype.Component;
 
 import java.util.logging.Logger;
 
+// Copy of the MethodLoggingAspect the application used before MethodTimingAspect, kept as the "before" baseline
 @Aspect
-@Component
-public class MethodLoggingAspect {
+public class LegacyMethodLoggingAspect {
 
-    Logger logger = Logger.getLogger(MethodLoggingAspect.class.getName());
+    static final Logger logger = Logger.getLogger(LegacyMethodLoggingAspect.class.getName());
     private final String servicePointcut = "execution(* com.gevernova.petvacination.service..*(..))";
 
     @Before(servicePointcut)
     public void logBefore(JoinPoint joinPoint) {
         String className = joinPoint.getTarget().getClass().getSimpleName();
         String methodName = joinPoint.getSignature().getName();
-        logger.info("Attempting to execute " + className + "." + methodName + "()");;
-
+        logger.info("Attempting to execute " + className + "." + methodName + "()");
     }
 
-    @AfterReturning(value = servicePointcut,returning = "result")
+    @AfterReturning(value = servicePointcut, returning = "result")
     public void logAfter(JoinPoint joinPoint, Object result) {
         String className = joinPoint.getTarget().getClass().getSimpleName();
         String methodName = joinPoint.getSignature().getName();
         logger.info("Successfully executed " + className + "." + methodName + "(). Returned: " + (result != null ? result.getClass().getSimpleName() : "void/null"));
     }
-
-
-
 }
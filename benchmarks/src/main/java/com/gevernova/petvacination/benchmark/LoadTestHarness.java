@@ -0,0 +1,158 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.PetVaccinationApplication;
+import com.gevernova.petvacination.dto.LatencyStatsDTO;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.metrics.LatencyHistogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Closed-loop HTTP load test comparing Tomcat on platform threads with the vthreads profile. Each mode
+// starts the application in this JVM on a random port, seeds it through the bulk endpoint, warms up, then
+// runs `concurrency` clients for `seconds` against a mix of page reads (40%), lookups by id (40%) and
+// registrations (20%), and prints throughput and latency percentiles.
+//
+//   java -cp benchmarks/target/benchmarks.jar com.gevernova.petvacination.benchmark.LoadTestHarness [concurrency] [seconds] [--spring.property=value ...]
+//
+// Further arguments are passed to the application, e.g. --spring.datasource.url=... to run against MySQL
+// instead of the in-memory H2 database of the dev profile, where queries rarely block long enough for the
+// thread model to matter.
+public final class LoadTestHarness {
+
+    private static final int SEED_PETS = 1000;
+
+    private LoadTestHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        List<String> applicationArgs = args.length > 2 ? List.of(args).subList(2, args.length) : List.of();
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %10s %10s %9s %9s %9s %9s %8s",
+                "threads", "requests", "req/s", "mean ms", "p50 ms", "p99 ms", "max ms", "errors"));
+        for (String mode : List.of("platform", "virtual")) {
+            report.add(run(mode, concurrency, seconds, applicationArgs));
+        }
+        System.out.println();
+        System.out.println("Concurrency " + concurrency + ", " + seconds + "s per mode");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, int concurrency, int seconds, List<String> applicationArgs) throws Exception {
+        List<String> springArgs = new ArrayList<>(List.of(
+                "--spring.profiles.active=" + (mode.equals("virtual") ? "dev,vthreads" : "dev"),
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.mail.host=localhost",
+                "--pet.outbox.poll-interval=PT1H",
+                "--pet.ratelimit.enabled=false",
+                "--logging.level.root=warn",
+                "--logging.level.com.gevernova=warn"));
+        springArgs.addAll(applicationArgs);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PetVaccinationApplication.class)
+                .run(springArgs.toArray(String[]::new));
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/pets";
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            ObjectMapper objectMapper = BenchmarkData.objectMapper();
+            long[] ids = seed(http, objectMapper, baseUrl);
+            byte[] registration = objectMapper.writeValueAsBytes(BenchmarkData.request(3));
+
+            drive(http, baseUrl, ids, registration, concurrency, Math.max(seconds / 4, 2), clients, new LatencyHistogram());
+            LatencyHistogram histogram = new LatencyHistogram();
+            drive(http, baseUrl, ids, registration, concurrency, seconds, clients, histogram);
+
+            LatencyStatsDTO stats = histogram.snapshot(mode);
+            return String.format("%-9s %10d %10.0f %9.2f %9.2f %9.2f %9.2f %8d",
+                    mode, stats.getCount(), stats.getCount() / (double) seconds, stats.getMeanMs(),
+                    stats.getP50Ms(), stats.getP99Ms(), stats.getMaxMs(), stats.getErrors());
+        }
+    }
+
+    private static long[] seed(HttpClient http, ObjectMapper objectMapper, String baseUrl) throws Exception {
+        List<PetRequestDTO> pets = new ArrayList<>(SEED_PETS);
+        for (int i = 0; i < SEED_PETS; i++) {
+            pets.add(BenchmarkData.request(3));
+        }
+        HttpResponse<byte[]> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(pets)))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+        }
+        JsonNode results = objectMapper.readTree(response.body()).get("data");
+        long[] ids = new long[results.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = results.get(i).get("id").asLong();
+        }
+        return ids;
+    }
+
+    private static void drive(HttpClient http, String baseUrl, long[] ids, byte[] registration, int concurrency,
+                              int seconds, ExecutorService clients, LatencyHistogram histogram)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<Future<?>> running = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            running.add(clients.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    HttpRequest request = nextRequest(random, baseUrl, ids, registration);
+                    long start = System.nanoTime();
+                    boolean failed;
+                    try {
+                        failed = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                    } catch (Exception e) {
+                        failed = true;
+                    }
+                    histogram.record(System.nanoTime() - start, failed);
+                }
+            }));
+        }
+        for (Future<?> client : running) {
+            try {
+                client.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static HttpRequest nextRequest(ThreadLocalRandom random, String baseUrl, long[] ids, byte[] registration) {
+        int roll = random.nextInt(10);
+        if (roll < 4) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "?limit=50&after=" + ids[random.nextInt(ids.length)])).build();
+        }
+        if (roll < 8) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids[random.nextInt(ids.length)])).build();
+        }
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/create"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(registration))
+                .build();
+    }
+}
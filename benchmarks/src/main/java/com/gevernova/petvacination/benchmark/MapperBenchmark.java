@@ -0,0 +1,51 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.mapper.Mapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Mapper.mapToDTO / mapToEntity for a single pet carrying 0, 10 or 100 vaccinations
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"0", "10", "100"})
+    public int vaccines;
+
+    private PetDetails entity;
+    private PetRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        entity = BenchmarkData.pet(1, vaccines);
+        request = BenchmarkData.request(vaccines);
+    }
+
+    @Benchmark
+    public PetResponseDTO mapToDTO() {
+        return Mapper.mapToDTO(entity);
+    }
+
+    @Benchmark
+    public PetDetails mapToEntity() {
+        return Mapper.mapToEntity(request);
+    }
+}
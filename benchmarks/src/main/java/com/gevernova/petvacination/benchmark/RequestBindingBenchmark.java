@@ -0,0 +1,64 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// JSON body -> PetRequestDTO -> bean validation, the work done before POST /api/pets/create reaches the service
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class RequestBindingBenchmark {
+
+    @Param({"0", "10"})
+    public int vaccines;
+
+    private ObjectReader reader;
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws Exception {
+        reader = BenchmarkData.objectMapper().readerFor(PetRequestDTO.class);
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        body = BenchmarkData.objectMapper().writeValueAsBytes(BenchmarkData.request(vaccines));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public PetRequestDTO deserialize() throws Exception {
+        return reader.readValue(body);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<PetRequestDTO>> deserializeAndValidate() throws Exception {
+        return validator.validate(reader.<PetRequestDTO>readValue(body));
+    }
+}
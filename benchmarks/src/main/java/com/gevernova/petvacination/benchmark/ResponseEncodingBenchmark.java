@@ -0,0 +1,75 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.mapper.Mapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// A page of 1000 pets as GET /api/pets sends it, in each negotiable encoding: JSON or CBOR, with or without
+// the message (Prefer: return=minimal), raw or gzipped as the server compresses it. The score is the
+// serialization cost per page; the bytes on the wire are printed once per trial, as JMH only times operations.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+    private static final int PETS = 1000;
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean minimal;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectWriter writer;
+    private List<PetResponseDTO> pets;
+
+    @Setup
+    public void setUp() throws IOException {
+        writer = (format.equals("cbor") ? BenchmarkData.cborMapper() : BenchmarkData.objectMapper()).writer();
+        pets = new ArrayList<>(PETS);
+        for (PetDetails pet : BenchmarkData.pets(PETS, 5)) {
+            pets.add(Mapper.mapToDTO(pet));
+        }
+        System.out.printf("%n%s minimal=%s gzip=%s: %d bytes per %d pets%n", format, minimal, gzip, encode().length, PETS);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * 1024);
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            writer.writeValue(out, ResponseDTO.builder()
+                    .message(minimal ? null : "Successfully retrieved " + pets.size() + " pets details ")
+                    .data(PetPageDTO.builder().pets(pets).nextCursor((long) PETS).build())
+                    .build());
+        }
+        return bytes.toByteArray();
+    }
+}
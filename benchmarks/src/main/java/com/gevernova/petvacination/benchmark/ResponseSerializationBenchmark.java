@@ -0,0 +1,113 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.mapper.Mapper;
+import com.gevernova.petvacination.mapper.PetJsonWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entity -> DTO -> ResponseDTO -> JSON bytes, as the controller does for GET /api/pets and GET /api/pets/{id},
+// and the NDJSON stream written either through PetResponseDTO or directly with PetJsonWriter.
+// Run through BenchmarkRunner, the GC profiler adds bytes allocated per operation (gc.alloc.rate.norm).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter writer;
+    private PetDetails single;
+
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"50", "500"})
+        public int pageSize;
+
+        private List<PetDetails> pets;
+
+        @Setup
+        public void setUp() {
+            pets = BenchmarkData.pets(pageSize, 5);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        objectMapper = BenchmarkData.objectMapper();
+        writer = objectMapper.writer();
+        single = BenchmarkData.pet(1, 5);
+    }
+
+    @Benchmark
+    public byte[] singlePetResponse() throws Exception {
+        return writer.writeValueAsBytes(ResponseDTO.builder()
+                .message("Fetched Pet details with pet Id: 1")
+                .data(Mapper.mapToDTO(single))
+                .build());
+    }
+
+    @Benchmark
+    public byte[] petPageResponse(Page page) throws Exception {
+        List<PetResponseDTO> pets = new ArrayList<>(page.pets.size());
+        for (PetDetails pet : page.pets) {
+            pets.add(Mapper.mapToDTO(pet));
+        }
+        return writer.writeValueAsBytes(ResponseDTO.builder()
+                .message("Successfully retrieved " + pets.size() + " pets details ")
+                .data(PetPageDTO.builder().pets(pets).nextCursor((long) page.pageSize).build())
+                .build());
+    }
+
+    @Benchmark
+    public void petStreamViaDTO(Page page) throws IOException {
+        ObjectWriter streamWriter = writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = newStreamGenerator()) {
+            for (PetDetails pet : page.pets) {
+                streamWriter.writeValue(generator, Mapper.mapToDTO(pet));
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    @Benchmark
+    public void petStreamDirect(Page page) throws IOException {
+        try (JsonGenerator generator = newStreamGenerator()) {
+            for (PetDetails pet : page.pets) {
+                PetJsonWriter.writePet(generator, pet);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private JsonGenerator newStreamGenerator() throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream());
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+}
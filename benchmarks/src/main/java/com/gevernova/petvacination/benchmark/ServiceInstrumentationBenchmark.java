@@ -0,0 +1,71 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.gevernova.petvacination.aspect.MethodTimingAspect;
+import com.gevernova.petvacination.metrics.MethodMetrics;
+import com.gevernova.petvacination.service.EchoService;
+import com.gevernova.petvacination.service.EchoServiceImplementation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.SimpleFormatter;
+import java.util.logging.StreamHandler;
+
+// Per-call overhead of a service proxy: no advice, the old JUL logging aspect, and MethodTimingAspect.
+// The legacy aspect logs to a discarding handler so the numbers show formatting cost without console I/O.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class ServiceInstrumentationBenchmark {
+
+    private EchoService plainProxy;
+    private EchoService legacyLoggingProxy;
+    private EchoService timingProxy;
+
+    @Setup
+    public void setUp() {
+        LegacyMethodLoggingAspect.logger.setUseParentHandlers(false);
+        LegacyMethodLoggingAspect.logger.addHandler(new StreamHandler(OutputStream.nullOutputStream(), new SimpleFormatter()));
+
+        plainProxy = proxy();
+        legacyLoggingProxy = proxy(new LegacyMethodLoggingAspect());
+        timingProxy = proxy(new MethodTimingAspect(new MethodMetrics(), 100));
+    }
+
+    private static EchoService proxy(Object... aspects) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new EchoServiceImplementation());
+        factory.addInterface(EchoService.class);
+        for (Object aspect : aspects) {
+            factory.addAspect(aspect);
+        }
+        return factory.getProxy();
+    }
+
+    @Benchmark
+    public String noAdvice() {
+        return plainProxy.echo("pet");
+    }
+
+    @Benchmark
+    public String legacyLoggingAspect() {
+        return legacyLoggingProxy.echo("pet");
+    }
+
+    @Benchmark
+    public String timingAspect() {
+        return timingProxy.echo("pet");
+    }
+}
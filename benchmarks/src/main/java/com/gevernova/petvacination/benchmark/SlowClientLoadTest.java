@@ -0,0 +1,213 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.PetVaccinationApplication;
+import com.gevernova.petvacination.dto.LatencyStatsDTO;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.metrics.LatencyHistogram;
+import com.zaxxer.hikari.HikariDataSource;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Many slow readers of the full pet stream, once against the blocking GET /api/pets/stream and once against
+// GET /api/reactive/pets/stream. Each mode starts the application in this JVM on a random port and seeds it, then
+// opens `clients` connections that each read 512 bytes every 100 ms through a small socket buffer, while a few
+// fast clients page through GET /api/pets. It prints how many slow clients were being sent pets, the peak number
+// of busy request threads (Tomcat's and the MVC async executor's) after the first quarter of the run, the peak
+// number of pooled connections in use, and the fast clients' latency.
+//
+//   java -cp benchmarks/target/benchmarks.jar com.gevernova.petvacination.benchmark.SlowClientLoadTest [clients] [seconds] [--spring.property=value ...]
+//
+// A blocking stream keeps a thread and a connection for as long as its client takes to read it, so only as many
+// clients as there are of those get any data. A reactive stream holds them only while it reads a page.
+public final class SlowClientLoadTest {
+
+    // Several megabytes per stream, more than a socket send buffer grows to, so a blocking stream cannot hand
+    // its whole body to the kernel and move on
+    private static final int SEED_PETS = 20000;
+    private static final int FAST_CLIENTS = 8;
+    private static final int READ_BYTES = 512;
+    private static final Duration READ_INTERVAL = Duration.ofMillis(100);
+
+    private SlowClientLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        List<String> applicationArgs = args.length > 2 ? List.of(args).subList(2, args.length) : List.of();
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %9s %9s %9s %12s %10s %9s %9s %8s",
+                "stream", "clients", "streaming", "threads", "connections", "requests", "p50 ms", "p99 ms", "errors"));
+        report.add(run("blocking", "/api/pets/stream", clients, seconds, applicationArgs));
+        report.add(run("reactive", "/api/reactive/pets/stream", clients, seconds, applicationArgs));
+        System.out.println();
+        System.out.println(clients + " slow clients and " + FAST_CLIENTS + " fast clients for " + seconds + "s per stream");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, String streamPath, int clients, int seconds, List<String> applicationArgs) throws Exception {
+        List<String> springArgs = new ArrayList<>(List.of(
+                "--spring.profiles.active=dev",
+                "--server.port=0",
+                "--server.tomcat.max-connections=" + (clients + 1000),
+                "--spring.h2.console.enabled=false",
+                "--spring.mail.host=localhost",
+                "--pet.outbox.poll-interval=PT1H",
+                "--pet.ratelimit.enabled=false",
+                "--logging.level.root=warn",
+                "--logging.level.com.gevernova=error"));
+        springArgs.addAll(applicationArgs);
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(PetVaccinationApplication.class)
+                .run(springArgs.toArray(String[]::new));
+             ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            String baseUrl = "http://localhost:" + port;
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(virtualThreads)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            seed(http, baseUrl);
+            HikariDataSource pool = context.getBean(DataSource.class).unwrap(HikariDataSource.class);
+            TomcatWebServer webServer = (TomcatWebServer) ((ServletWebServerApplicationContext) context).getWebServer();
+            ThreadPoolExecutor tomcatThreads = (ThreadPoolExecutor) webServer.getTomcat().getConnector().getProtocolHandler().getExecutor();
+            ThreadPoolTaskExecutor asyncThreads = context.getBean("applicationTaskExecutor", ThreadPoolTaskExecutor.class);
+
+            long start = System.nanoTime();
+            long deadline = start + Duration.ofSeconds(seconds).toNanos();
+            // Every client connects at once and each request needs a thread until it goes async, so Tomcat's pool
+            // grows to its maximum either way; threads are counted only once that burst is over
+            long warmedUp = start + (deadline - start) / 4;
+            AtomicInteger streaming = new AtomicInteger();
+            AtomicInteger peakThreads = new AtomicInteger();
+            AtomicInteger peakConnections = new AtomicInteger();
+            LatencyHistogram histogram = new LatencyHistogram();
+            AtomicLong slowClientFailures = new AtomicLong();
+
+            for (int c = 0; c < clients; c++) {
+                virtualThreads.submit(() -> readSlowly(port, streamPath, deadline, streaming, slowClientFailures));
+            }
+            for (int c = 0; c < FAST_CLIENTS; c++) {
+                virtualThreads.submit(() -> pageQuickly(http, baseUrl, deadline, histogram));
+            }
+            while (System.nanoTime() < deadline) {
+                if (System.nanoTime() > warmedUp) {
+                    peakThreads.accumulateAndGet(tomcatThreads.getActiveCount() + asyncThreads.getActiveCount(), Math::max);
+                }
+                peakConnections.accumulateAndGet(pool.getHikariPoolMXBean().getActiveConnections(), Math::max);
+                TimeUnit.MILLISECONDS.sleep(100);
+            }
+            virtualThreads.shutdown();
+            virtualThreads.awaitTermination(30, TimeUnit.SECONDS);
+            if (slowClientFailures.get() > 0) {
+                System.out.println(mode + ": " + slowClientFailures.get() + " slow clients could not connect");
+            }
+
+            LatencyStatsDTO stats = histogram.snapshot(mode);
+            return String.format("%-9s %9d %9d %9d %12d %10d %9.2f %9.2f %8d",
+                    mode, clients, streaming.get(), peakThreads.get(), peakConnections.get(),
+                    stats.getCount(), stats.getP50Ms(), stats.getP99Ms(), stats.getErrors());
+        }
+    }
+
+    private static void seed(HttpClient http, String baseUrl) throws Exception {
+        ObjectMapper objectMapper = BenchmarkData.objectMapper();
+        List<PetRequestDTO> pets = new ArrayList<>(SEED_PETS);
+        for (int i = 0; i < SEED_PETS; i++) {
+            PetRequestDTO pet = BenchmarkData.request(3);
+            // One owner per pet: a single owner of every pet would get one registration email too long to queue
+            pet.setOwnerEmail("owner" + i + "@example.com");
+            pets.add(pet);
+        }
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/pets/bulk"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(pets)))
+                .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode());
+        }
+    }
+
+    // A plain socket, so the receive buffer can be kept small and the server sees a slow reader at once
+    private static void readSlowly(int port, String path, long deadline, AtomicInteger streaming, AtomicLong failures) {
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(4096);
+            socket.connect(new InetSocketAddress("localhost", port), 10_000);
+            socket.getOutputStream().write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\nConnection: close\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII));
+            socket.setSoTimeout(100);
+            InputStream in = socket.getInputStream();
+            byte[] buffer = new byte[READ_BYTES];
+            boolean counted = false;
+            while (System.nanoTime() < deadline) {
+                int read;
+                try {
+                    read = in.read(buffer);
+                } catch (SocketTimeoutException e) {
+                    continue;
+                }
+                if (read < 0) {
+                    break;
+                }
+                // Headers and the first pet arrive together; a stream still waiting for a thread sends nothing
+                if (!counted && new String(buffer, 0, read, StandardCharsets.ISO_8859_1).contains("\"id\"")) {
+                    counted = true;
+                    streaming.incrementAndGet();
+                }
+                Thread.sleep(READ_INTERVAL);
+            }
+        } catch (IOException e) {
+            failures.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void pageQuickly(HttpClient http, String baseUrl, long deadline, LatencyHistogram histogram) {
+        while (System.nanoTime() < deadline) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/pets?limit=20&after="
+                            + ThreadLocalRandom.current().nextInt(SEED_PETS)))
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                failed = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            histogram.record(System.nanoTime() - start, failed);
+        }
+    }
+}
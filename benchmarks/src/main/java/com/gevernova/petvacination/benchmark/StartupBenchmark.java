@@ -0,0 +1,154 @@
+package com.gevernova.petvacination.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Cold start of the packaged application, measured from outside: each run launches a fresh JVM, polls until the
+// first request is answered and reads the process's resident set size (Linux /proc) at that moment.
+//
+//   java -cp benchmarks/target/benchmarks.jar com.gevernova.petvacination.benchmark.StartupBenchmark <label> <runs> <java arguments...>
+//
+// e.g. "default 5 -jar target/petvaccination-0.0.1-SNAPSHOT-exec.jar" after a plain build, and after mvn -Paot package
+// "aot-cds 5 -XX:SharedArchiveFile=target/application/application.jsa -Dspring.aot.enabled=true
+// -jar target/application/petvaccination.jar --spring.profiles.active=prod,log,emailconfig,startup".
+// The application gets an in-memory database and a free port on top of the given arguments. Medians are stored
+// under the label in benchmarks/results/startup-result.json; with -Dstartup.max-ms the run fails when the median
+// time to first request exceeds it, so a CI job can catch startup regressions.
+public final class StartupBenchmark {
+
+    private static final Path RESULT_FILE = Path.of("benchmarks/results/startup-result.json");
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(3);
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: StartupBenchmark <label> <runs> <java arguments...>");
+        }
+        String label = args[0];
+        int runs = Integer.parseInt(args[1]);
+        List<String> javaArgs = List.of(args).subList(2, args.length);
+
+        long[] millis = new long[runs];
+        long[] rssKb = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long[] run = run(javaArgs);
+            millis[i] = run[0];
+            rssKb[i] = run[1];
+            System.out.printf("%s run %d: first request after %d ms, RSS %d MB%n", label, i + 1, millis[i], rssKb[i] / 1024);
+        }
+        long medianMillis = median(millis);
+        long medianRssMb = median(rssKb) / 1024;
+        System.out.printf("%s: median time to first request %d ms, median RSS %d MB over %d runs%n", label, medianMillis, medianRssMb, runs);
+        record(label, runs, medianMillis, medianRssMb, javaArgs);
+
+        long maxMillis = Long.getLong("startup.max-ms", Long.MAX_VALUE);
+        if (medianMillis > maxMillis) {
+            System.err.printf("Startup regression: %d ms is over the %d ms budget%n", medianMillis, maxMillis);
+            System.exit(1);
+        }
+    }
+
+    // {milliseconds until the first response, resident set size in KB at that point}
+    private static long[] run(List<String> javaArgs) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(javaArgs);
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:h2:mem:startup",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--GMAIL_USERNAME=benchmark",
+                "--GMAIL_APP_PASSWORD=benchmark",
+                "--spring.mail.host=localhost",
+                "--logging.file.name="));
+
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest firstRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/metrics/cache")).build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                if (System.nanoTime() - start > START_TIMEOUT.toNanos()) {
+                    throw new IllegalStateException("No response within " + START_TIMEOUT);
+                }
+                try {
+                    http.send(firstRequest, HttpResponse.BodyHandlers.discarding());
+                    break;
+                } catch (IOException e) {
+                    Thread.sleep(10);
+                }
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            return new long[]{elapsedMillis, residentSetKb(process.pid())};
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long residentSetKb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    // Replaces the entry with the same label, so the file holds one line per variant to diff in review
+    private static void record(String label, int runs, long medianMillis, long medianRssMb, List<String> javaArgs) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        File file = RESULT_FILE.toFile();
+        ArrayNode results = file.exists() ? (ArrayNode) objectMapper.readTree(file) : objectMapper.createArrayNode();
+        for (int i = results.size() - 1; i >= 0; i--) {
+            if (results.get(i).path("label").asText().equals(label)) {
+                results.remove(i);
+            }
+        }
+        ObjectNode result = results.addObject();
+        result.put("label", label);
+        result.put("runs", runs);
+        result.put("medianTimeToFirstRequestMs", medianMillis);
+        result.put("medianRssMb", medianRssMb);
+        result.put("java", System.getProperty("java.version"));
+        result.put("arguments", String.join(" ", javaArgs));
+        objectMapper.writeValue(file, results);
+    }
+}
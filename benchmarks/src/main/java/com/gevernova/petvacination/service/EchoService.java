@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.service;
+
+// Lives in the service package so the application's service pointcut matches it
+public interface EchoService {
+
+    String echo(String value);
+}
@@ -0,0 +1,9 @@
+package com.gevernova.petvacination.service;
+
+public class EchoServiceImplementation implements EchoService {
+
+    @Override
+    public String echo(String value) {
+        return value;
+    }
+}
@@ -2,8 +2,10 @@ package com.gevernova.petvacination;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class PetVaccinationApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(PetVaccinationApplication.class, args);
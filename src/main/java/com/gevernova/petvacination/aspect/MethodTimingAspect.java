@@ -0,0 +1,51 @@
+package com.gevernova.petvacination.aspect;
+
+import com.gevernova.petvacination.metrics.MethodMetrics;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Times every service call into MethodMetrics. Logging is at DEBUG and only for one call in
+// pet.metrics.log-sample-rate, so the common path does no string building or log I/O. Calls are picked
+// at random rather than by a shared counter, which every thread would otherwise have to update and sum.
+@Aspect
+@Component
+public class MethodTimingAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodTimingAspect.class);
+
+    private final MethodMetrics methodMetrics;
+    private final int logSampleRate;
+
+    public MethodTimingAspect(MethodMetrics methodMetrics,
+                              @Value("${pet.metrics.log-sample-rate:100}") int logSampleRate) {
+        this.methodMetrics = methodMetrics;
+        this.logSampleRate = Math.max(1, logSampleRate);
+    }
+
+    @Around("execution(* com.gevernova.petvacination.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+            methodMetrics.record(method, nanos, failed);
+            if (ThreadLocalRandom.current().nextInt(logSampleRate) == 0 && logger.isDebugEnabled()) {
+                logger.debug("{} {} in {} µs", methodMetrics.nameOf(method), failed ? "failed" : "completed", nanos / 1_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.gevernova.petvacination.cache;
+
+import java.util.function.Consumer;
+
+// Carries pet ids whose cached copies are stale between application nodes.
+// A multi-node deployment plugs in a broker-backed implementation.
+public interface CacheInvalidationBus {
+
+    void publish(Long id);
+
+    void subscribe(Consumer<Long> listener);
+}
@@ -0,0 +1,24 @@
+package com.gevernova.petvacination.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Delivers invalidations synchronously to every subscriber in this JVM. Used for single-node
+// deployments and to stand in for a real broker when testing several caches side by side.
+public class InProcessCacheInvalidationBus implements CacheInvalidationBus {
+
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long id) {
+        for (Consumer<Long> listener : listeners) {
+            listener.accept(id);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+}
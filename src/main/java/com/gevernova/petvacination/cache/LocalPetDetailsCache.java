@@ -0,0 +1,142 @@
+package com.gevernova.petvacination.cache;
+
+import com.gevernova.petvacination.dto.CacheStatsDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Size- and time-bounded LRU cache. Keys are spread over independently locked segments
+// so concurrent readers of different pets rarely contend on the same lock. Every invalidation bumps a counter
+// shared by the ids hashing to the same stripe; put only stores a copy if that counter has not moved since
+// the caller read it, so a load that overlapped a write is not cached. Stripes keep the memory fixed, at the
+// cost of now and then skipping a put for an unrelated id.
+public class LocalPetDetailsCache implements PetDetailsCache {
+
+    private static final int SEGMENTS = 16;
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final long ttlNanos;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder stalePuts = new LongAdder();
+
+    public LocalPetDetailsCache(int maxSize, Duration ttl) {
+        int segmentSize = Math.max(1, maxSize / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public Optional<PetResponseDTO> get(Long id) {
+        Segment segment = segmentFor(id);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(id);
+            if (entry != null && System.nanoTime() - entry.expiresAtNanos > 0) {
+                segment.remove(id);
+                expirations.increment();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(entry.pet);
+    }
+
+    @Override
+    public long generation(Long id) {
+        return generations.get(stripeFor(id));
+    }
+
+    // Checked and stored under the segment lock that invalidate bumps the generation under
+    @Override
+    public void put(Long id, PetResponseDTO pet, long generation) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            if (generations.get(stripeFor(id)) != generation) {
+                stalePuts.increment();
+                return;
+            }
+            segment.put(id, new Entry(pet, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        Segment segment = segmentFor(id);
+        synchronized (segment) {
+            generations.incrementAndGet(stripeFor(id));
+            if (segment.remove(id) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    @Override
+    public CacheStatsDTO getStats() {
+        long size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        return CacheStatsDTO.builder()
+                .size(size)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.sum())
+                .expirations(expirations.sum())
+                .invalidations(invalidations.sum())
+                .stalePuts(stalePuts.sum())
+                .hitRatio(hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount))
+                .build();
+    }
+
+    private Segment segmentFor(Long id) {
+        return segments[(Long.hashCode(id) & 0x7fffffff) % SEGMENTS];
+    }
+
+    private static int stripeFor(Long id) {
+        return (Long.hashCode(id) & 0x7fffffff) % GENERATION_STRIPES;
+    }
+
+    private record Entry(PetResponseDTO pet, long expiresAtNanos) {
+    }
+
+    private final class Segment extends LinkedHashMap<Long, Entry> {
+
+        private final int maxSize;
+
+        Segment(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
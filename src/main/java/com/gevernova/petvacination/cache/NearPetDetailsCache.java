@@ -0,0 +1,45 @@
+package com.gevernova.petvacination.cache;
+
+import com.gevernova.petvacination.dto.CacheStatsDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+
+import java.util.Optional;
+
+// Local cache on each node whose invalidations are broadcast, so a write on one node evicts the entry everywhere.
+public class NearPetDetailsCache implements PetDetailsCache {
+
+    private final LocalPetDetailsCache local;
+    private final CacheInvalidationBus bus;
+
+    public NearPetDetailsCache(LocalPetDetailsCache local, CacheInvalidationBus bus) {
+        this.local = local;
+        this.bus = bus;
+        bus.subscribe(local::invalidate);
+    }
+
+    @Override
+    public Optional<PetResponseDTO> get(Long id) {
+        return local.get(id);
+    }
+
+    @Override
+    public long generation(Long id) {
+        return local.generation(id);
+    }
+
+    @Override
+    public void put(Long id, PetResponseDTO pet, long generation) {
+        local.put(id, pet, generation);
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        // The bus delivers to our own subscription as well as to the other nodes
+        bus.publish(id);
+    }
+
+    @Override
+    public CacheStatsDTO getStats() {
+        return local.getStats();
+    }
+}
@@ -0,0 +1,34 @@
+package com.gevernova.petvacination.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class PetCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "pet.cache.mode", havingValue = "local", matchIfMissing = true)
+    public PetDetailsCache localPetDetailsCache(@Value("${pet.cache.max-size:10000}") int maxSize,
+                                                @Value("${pet.cache.ttl:PT5M}") Duration ttl) {
+        return new LocalPetDetailsCache(maxSize, ttl);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "pet.cache.mode", havingValue = "near")
+    public PetDetailsCache nearPetDetailsCache(CacheInvalidationBus cacheInvalidationBus,
+                                               @Value("${pet.cache.max-size:10000}") int maxSize,
+                                               @Value("${pet.cache.ttl:PT5M}") Duration ttl) {
+        return new NearPetDetailsCache(new LocalPetDetailsCache(maxSize, ttl), cacheInvalidationBus);
+    }
+
+    // Single-JVM stand-in; a multi-node deployment swaps this bean for a broker-backed bus
+    @Bean
+    @ConditionalOnProperty(name = "pet.cache.mode", havingValue = "near")
+    public CacheInvalidationBus cacheInvalidationBus() {
+        return new InProcessCacheInvalidationBus();
+    }
+}
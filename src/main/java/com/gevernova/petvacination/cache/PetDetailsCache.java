@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.cache;
+
+import com.gevernova.petvacination.dto.CacheStatsDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+
+import java.util.Optional;
+
+// Read-through cache of GET /api/pets/{id} responses. Writers must call invalidate once their change is committed.
+public interface PetDetailsCache {
+
+    Optional<PetResponseDTO> get(Long id);
+
+    // Read before loading the pet and handed to put: a copy loaded before an invalidation that came in meanwhile
+    // is dropped instead of being served until it expires
+    long generation(Long id);
+
+    void put(Long id, PetResponseDTO pet, long generation);
+
+    void invalidate(Long id);
+
+    CacheStatsDTO getStats();
+}
@@ -0,0 +1,118 @@
+package com.gevernova.petvacination.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.entity.IdempotencyRecord;
+import com.gevernova.petvacination.exceptionhandling.IdempotencyConflictException;
+import com.gevernova.petvacination.exceptionhandling.IdempotencyKeyMismatchException;
+import com.gevernova.petvacination.exceptionhandling.InvalidRequestException;
+import com.gevernova.petvacination.service.IdempotencyServices;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+// Runs a POST at most once per Idempotency-Key: the first request's status and body are stored, and a retry
+// with the same key gets them back (marked Idempotent-Replayed) without reaching the service layer. A key
+// whose request failed is given up, so the retry runs again. An action that commits in one transaction stores
+// its response through the Completion inside it, so a crash after the commit still leaves the response to
+// replay; otherwise the response is stored after the action returns, and a claim its holder never finished is
+// taken over by a retry once pet.idempotency.claim-timeout has passed.
+@Component
+@RequiredArgsConstructor
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final Logger logger = LoggerFactory.getLogger(IdempotentRequests.class);
+
+    private final IdempotencyServices idempotencyServices;
+    private final ObjectMapper objectMapper;
+
+    @FunctionalInterface
+    public interface Action {
+        ResponseEntity<ResponseDTO> run(Completion completion) throws IOException;
+    }
+
+    // Call from inside the transaction that makes the request's changes, with the response it is going to return
+    @FunctionalInterface
+    public interface Completion {
+        void complete(ResponseEntity<ResponseDTO> response);
+    }
+
+    // request: the parsed body, fingerprinted so a key cannot be reused for a different request;
+    // null for streamed bodies, which are only read by the action itself
+    public ResponseEntity<ResponseDTO> execute(String endpoint, String key, Object request, Action action) throws IOException {
+        if (key == null) {
+            return action.run(response -> { });
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = request == null ? null : hash(request);
+        Optional<IdempotencyRecord> earlier = idempotencyServices.claim(endpoint, key, requestHash);
+        if (earlier.isPresent()) {
+            return replay(earlier.get(), requestHash);
+        }
+
+        boolean[] completed = new boolean[1];
+        ResponseEntity<ResponseDTO> response;
+        try {
+            response = action.run(stored -> {
+                complete(endpoint, key, stored);
+                completed[0] = true;
+            });
+        } catch (IOException | RuntimeException e) {
+            // A response stored with committed changes is kept; release only drops a claim still in progress
+            idempotencyServices.release(endpoint, key);
+            throw e;
+        }
+        if (!completed[0]) {
+            complete(endpoint, key, response);
+        }
+        return response;
+    }
+
+    private void complete(String endpoint, String key, ResponseEntity<ResponseDTO> response) {
+        try {
+            idempotencyServices.complete(endpoint, key, response.getStatusCode().value(), objectMapper.writeValueAsString(response.getBody()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<ResponseDTO> replay(IdempotencyRecord earlier, String requestHash) throws IOException {
+        if (requestHash != null && earlier.getRequestHash() != null && !requestHash.equals(earlier.getRequestHash())) {
+            throw new IdempotencyKeyMismatchException(HEADER + " " + earlier.getIdempotencyKey()
+                    + " was already used for a different request");
+        }
+        if (!earlier.isCompleted()) {
+            throw new IdempotencyConflictException("A request with " + HEADER + " " + earlier.getIdempotencyKey()
+                    + " is still being processed; retry shortly");
+        }
+        logger.info("Replaying response for {} {}", earlier.getEndpoint(), earlier.getIdempotencyKey());
+        return ResponseEntity.status(earlier.getStatusCode())
+                .header(REPLAYED_HEADER, "true")
+                .body(objectMapper.readValue(earlier.getResponseBody(), ResponseDTO.class));
+    }
+
+    private String hash(Object request) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
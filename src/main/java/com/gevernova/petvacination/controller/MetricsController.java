@@ -0,0 +1,129 @@
+package com.gevernova.petvacination.controller;
+
+import com.gevernova.petvacination.cache.PetDetailsCache;
+import com.gevernova.petvacination.datasource.ConnectionGuards;
+import com.gevernova.petvacination.datasource.ReplicaRoutingDataSource;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.metrics.MethodMetrics;
+import com.gevernova.petvacination.metrics.QueryMetrics;
+import com.gevernova.petvacination.ratelimit.RateLimitFilter;
+import com.gevernova.petvacination.service.EmailOutboxDispatcher;
+import com.gevernova.petvacination.service.ReactivePetDetailsServices;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@RestController
+@RequestMapping("/api/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+    private final PetDetailsCache petDetailsCache;
+    private final MethodMetrics methodMetrics;
+    private final ObjectProvider<ConnectionGuards> connectionGuards;
+    private final DataSource dataSource;
+    private final ObjectProvider<RateLimitFilter> rateLimitFilter;
+    private final ObjectProvider<QueryMetrics> queryMetrics;
+    private final ObjectProvider<ReactivePetDetailsServices> reactivePetDetailsServices;
+
+    @GetMapping("/outbox")
+    public ResponseEntity<ResponseDTO> getOutboxMetrics() {
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Email outbox metrics")
+                .data(emailOutboxDispatcher.getStats())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<ResponseDTO> getCacheMetrics() {
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Pet details cache metrics")
+                .data(petDetailsCache.getStats())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/methods")
+    public ResponseEntity<ResponseDTO> getMethodMetrics() {
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Service method latency metrics")
+                .data(methodMetrics.snapshot())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/queries")
+    public ResponseEntity<ResponseDTO> getQueryMetrics() {
+        QueryMetrics metrics = queryMetrics.getIfAvailable();
+        if (metrics == null) {
+            return new ResponseEntity<>(ResponseDTO.builder()
+                    .message("Query metrics are disabled")
+                    .build(), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Database statement metrics")
+                .data(metrics.snapshot())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/datasource")
+    public ResponseEntity<ResponseDTO> getDataSourceMetrics() {
+        ConnectionGuards guards = connectionGuards.getIfAvailable();
+        if (guards == null) {
+            return new ResponseEntity<>(ResponseDTO.builder()
+                    .message("Connection guard is disabled")
+                    .build(), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Database connection guard metrics")
+                .data(guards.getStats())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/replicas")
+    public ResponseEntity<ResponseDTO> getReplicaMetrics() throws SQLException {
+        if (!dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+            return new ResponseEntity<>(ResponseDTO.builder()
+                    .message("No read replicas are configured")
+                    .build(), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Read replica routing metrics")
+                .data(dataSource.unwrap(ReplicaRoutingDataSource.class).getStats())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/ratelimit")
+    public ResponseEntity<ResponseDTO> getRateLimitMetrics() {
+        RateLimitFilter filter = rateLimitFilter.getIfAvailable();
+        if (filter == null) {
+            return new ResponseEntity<>(ResponseDTO.builder()
+                    .message("Rate limiting is disabled")
+                    .build(), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Rate limiting and load shedding metrics")
+                .data(filter.getStats())
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/reactive")
+    public ResponseEntity<ResponseDTO> getReactiveMetrics() {
+        ReactivePetDetailsServices services = reactivePetDetailsServices.getIfAvailable();
+        if (services == null) {
+            return new ResponseEntity<>(ResponseDTO.builder()
+                    .message("The reactive read API is disabled")
+                    .build(), HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Reactive read API metrics")
+                .data(services.getStats())
+                .build(), HttpStatus.OK);
+    }
+}
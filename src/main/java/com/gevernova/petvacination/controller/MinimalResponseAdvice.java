@@ -0,0 +1,48 @@
+package com.gevernova.petvacination.controller;
+
+import com.gevernova.petvacination.dto.ResponseDTO;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Prefer: return=minimal (RFC 7240) drops the human-readable message from the response wrapper, leaving only
+// the data. Programs reading list pages have no use for it.
+@RestControllerAdvice
+public class MinimalResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String PREFER = "Prefer";
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RETURN_MINIMAL = "return=minimal";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(body instanceof ResponseDTO responseDTO) || !prefersMinimal(request)) {
+            return body;
+        }
+        response.getHeaders().add(PREFERENCE_APPLIED, RETURN_MINIMAL);
+        // A copy, so a response held elsewhere (an idempotent replay, a cached page) keeps its message
+        return ResponseDTO.builder().data(responseDTO.getData()).build();
+    }
+
+    private static boolean prefersMinimal(ServerHttpRequest request) {
+        for (String prefer : request.getHeaders().getOrEmpty(PREFER)) {
+            for (String preference : prefer.split(",")) {
+                if (preference.trim().equalsIgnoreCase(RETURN_MINIMAL)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,29 @@
+package com.gevernova.petvacination.controller;
+
+import com.gevernova.petvacination.dto.OwnerPetsDTO;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.service.OwnerServices;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/owners")
+@RequiredArgsConstructor
+public class OwnerController {
+
+    private final OwnerServices ownerServices;
+
+    @GetMapping("/{id}/pets")
+    public ResponseEntity<ResponseDTO> getOwnerPets(@PathVariable Long id) {
+        OwnerPetsDTO owner = ownerServices.getOwnerWithPets(id);
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Fetched " + owner.getPets().size() + " pets of owner with ID: " + id)
+                .data(owner)
+                .build(), HttpStatus.OK);
+    }
+}
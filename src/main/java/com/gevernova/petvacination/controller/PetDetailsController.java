@@ -1,19 +1,38 @@
 package com.gevernova.petvacination.controller;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.dto.BulkItemResultDTO;
+import com.gevernova.petvacination.dto.BulkItemStatus;
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetPatchDTO;
 import com.gevernova.petvacination.dto.PetResponseDTO;
 import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryPageDTO;
 import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.dto.VaccinationRequestDTO;
 import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
 import com.gevernova.petvacination.exceptionhandling.PetNotFoundException;
+import com.gevernova.petvacination.exceptionhandling.PreconditionRequiredException;
 import com.gevernova.petvacination.mapper.Mapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.gevernova.petvacination.service.PetDetailsServices; // Import the interface
 import lombok.RequiredArgsConstructor;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,31 +43,91 @@ public class PetDetailsController {
 
     // Change from PetServiceImplementation to PetDetailsServices (the interface)
     private final PetDetailsServices petDetailsServices; // Use the interface type
+    private final ObjectMapper objectMapper;
+    private final IdempotentRequests idempotentRequests;
     private static final Logger logger = LoggerFactory.getLogger(PetDetailsController.class);
 
+    // When set, PUT, PATCH and DELETE without If-Match are refused with 428 instead of overwriting blindly
+    @Value("${pet.concurrency.require-if-match:false}")
+    private boolean requireIfMatch;
+
 
     @GetMapping({"/","/get",""})
-    public ResponseEntity<ResponseDTO> getAllPets() {
+    public ResponseEntity<ResponseDTO> getAllPets(@RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit) {
 
-        List<PetResponseDTO> petDTOs = petDetailsServices.getAllPetDetails();
+        PetPageDTO page = petDetailsServices.getPetDetailsPage(after, limit);
 
-        logger.info("Fetched {} pets.", petDTOs.size());
+        logger.info("Fetched {} pets.", page.getPets().size());
         return new ResponseEntity<>(
                 ResponseDTO.builder()
-                        .message("Successfully retrieved all "+petDTOs.size()+" pets details ")
-                        .data(petDTOs)
+                        .message("Successfully retrieved "+page.getPets().size()+" pets details ")
+                        .data(page)
                         .build(),
                 HttpStatus.OK
         );
     }
 
+    // Filters combine with AND. Summaries (no vaccination history) unless vaccines=true.
+    @GetMapping("/search")
+    public ResponseEntity<ResponseDTO> searchPets(@RequestParam(required = false) Species species,
+                                                  @RequestParam(required = false) String breed,
+                                                  @RequestParam(required = false) String ownerEmail,
+                                                  @RequestParam(required = false) String ownerContact,
+                                                  @RequestParam(required = false) String vaccine,
+                                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate vaccinatedAfter,
+                                                  @RequestParam(defaultValue = "false") boolean vaccines,
+                                                  @RequestParam(required = false) Long after,
+                                                  @RequestParam(required = false) Integer limit) {
+        PetSearchCriteria criteria = PetSearchCriteria.builder()
+                .species(species)
+                .breedPrefix(breed)
+                .ownerEmail(ownerEmail)
+                .ownerContact(ownerContact)
+                .vaccineName(vaccine)
+                .vaccinatedAfter(vaccinatedAfter)
+                .build();
+
+        if (vaccines) {
+            PetPageDTO page = petDetailsServices.searchPetDetails(criteria, after, limit);
+            return searchResponse(page.getPets().size(), page);
+        }
+        PetSummaryPageDTO page = petDetailsServices.searchPetSummaries(criteria, after, limit);
+        return searchResponse(page.getPets().size(), page);
+    }
+
+    private ResponseEntity<ResponseDTO> searchResponse(int found, Object page) {
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Found " + found + " matching pets")
+                .data(page)
+                .build(), HttpStatus.OK);
+    }
+
+    // Newline-delimited JSON, one pet per line, written while the rows are read
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAllPets() {
+        StreamingResponseBody body = petDetailsServices::streamAllPetDetails;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // Idempotency-Key: a retry with the same key gets the first response back instead of registering the pet again
     @PostMapping("/create")
-    public ResponseEntity<ResponseDTO> registerPet(@Valid @RequestBody PetRequestDTO requestDTO) {
+    public ResponseEntity<ResponseDTO> registerPet(@Valid @RequestBody PetRequestDTO requestDTO,
+                                                   @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) throws IOException {
+        return idempotentRequests.execute("pets/create", idempotencyKey, requestDTO, completion -> {
+            PetDetails petDetailsToSave = Mapper.mapToEntity(requestDTO);
+            // The stored response commits with the pet, so a retry after a lost response is answered rather than refused
+            PetResponseDTO responseData = petDetailsServices.createPetDetails(petDetailsToSave,
+                    created -> completion.complete(registeredResponse(created)));
 
-        PetDetails petDetailsToSave = Mapper.mapToEntity(requestDTO);
-        PetResponseDTO responseData = petDetailsServices.createPetDetails(petDetailsToSave);
+            logger.info("Pet registered successfully with ID: {}", responseData.getId());
+            return registeredResponse(responseData);
+        });
+    }
 
-        logger.info("Pet registered successfully with ID: {}", responseData.getId());
+    private static ResponseEntity<ResponseDTO> registeredResponse(PetResponseDTO responseData) {
         return new ResponseEntity <> (
                 ResponseDTO.builder()
                         .message("Successfully registered new Pet")
@@ -58,17 +137,56 @@ public class PetDetailsController {
         );
     }
 
+    // Items are validated one by one; invalid items are reported and skipped instead of failing the whole request
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ResponseDTO> registerPetsInBulk(@RequestBody List<PetRequestDTO> requestDTOs,
+                                                          @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) throws IOException {
+        return idempotentRequests.execute("pets/bulk", idempotencyKey, requestDTOs,
+                completion -> bulkResponse(petDetailsServices.createPetDetailsInBulk(requestDTOs.iterator())));
+    }
+
+    // NDJSON body, one PetRequestDTO per line, parsed as it arrives
+    @PostMapping(value = "/bulk", consumes = "application/x-ndjson")
+    public ResponseEntity<ResponseDTO> registerPetsInBulkFromStream(HttpServletRequest request,
+                                                                    @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey) throws IOException {
+        return idempotentRequests.execute("pets/bulk", idempotencyKey, null, completion -> {
+            try (MappingIterator<PetRequestDTO> requestDTOs = objectMapper.readerFor(PetRequestDTO.class)
+                    .readValues(request.getInputStream())) {
+                return bulkResponse(petDetailsServices.createPetDetailsInBulk(requestDTOs));
+            }
+        });
+    }
+
+    private ResponseEntity<ResponseDTO> bulkResponse(List<BulkItemResultDTO> results) {
+        long created = results.stream().filter(result -> result.getStatus() == BulkItemStatus.CREATED).count();
+        logger.info("Bulk registration created {} of {} pets", created, results.size());
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Registered " + created + " of " + results.size() + " pets")
+                .data(results)
+                .build(), HttpStatus.OK);
+    }
+
+    // A matching If-None-Match is answered from the version alone, without loading, mapping or serializing the pet
     @GetMapping("/{id}")
-    public ResponseEntity<ResponseDTO> getPetById(@PathVariable Long id){
+    public ResponseEntity<ResponseDTO> getPetById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        if (ifNoneMatch != null) {
+            Optional<Long> version = petDetailsServices.getPetVersion(id);
+            if (version.isPresent() && PetETags.noneMatchHits(ifNoneMatch, version.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(PetETags.of(version.get())).build();
+            }
+        }
+
         Optional<PetResponseDTO> petOptional = petDetailsServices.getPetDetailsById(id);
 
         if(petOptional.isPresent()){
             PetResponseDTO responseData = petOptional.get(); // Get PetDTO directly
-            return new ResponseEntity<>(ResponseDTO.builder()
-                    .message("Fetched Pet details with pet Id: "+id)
-                    .data(responseData)
-                    .build(),
-                    HttpStatus.OK);
+            return ResponseEntity.status(HttpStatus.OK)
+                    .eTag(PetETags.of(responseData.getVersion()))
+                    .body(ResponseDTO.builder()
+                            .message("Fetched Pet details with pet Id: "+id)
+                            .data(responseData)
+                            .build());
         }else{
             logger.warn("Pet with ID {} not found. Throwing PetNotFoundException.", id);
             throw new PetNotFoundException("Pet with ID: " + id + " was not found.");
@@ -76,22 +194,63 @@ public class PetDetailsController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<ResponseDTO> updatePetDetailsById(@PathVariable Long id, @Valid @RequestBody PetRequestDTO requestDTO){
+    public ResponseEntity<ResponseDTO> updatePetDetailsById(@PathVariable Long id, @Valid @RequestBody PetRequestDTO requestDTO,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
 
         PetDetails petDetailsToUpdate = Mapper.mapToEntity(requestDTO);
-        PetResponseDTO responseData = petDetailsServices.updatePetDetails(id, petDetailsToUpdate);
+        PetResponseDTO responseData = petDetailsServices.updatePetDetails(id, petDetailsToUpdate, expectedVersions(ifMatch));
 
-        return new ResponseEntity<>(ResponseDTO.builder()
-                .message("Pet updated successfully")
-                .data(responseData)
-                .build(),
-                HttpStatus.OK);
+        return updatedResponse("Pet updated successfully", responseData);
+
+    }
+
+    // Only the fields present in the body are changed
+    @PatchMapping("/{id}")
+    public ResponseEntity<ResponseDTO> patchPetDetailsById(@PathVariable Long id, @Valid @RequestBody PetPatchDTO patchDTO,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        PetResponseDTO responseData = petDetailsServices.patchPetDetails(id, patchDTO, expectedVersions(ifMatch));
+
+        return updatedResponse("Pet updated successfully", responseData);
+    }
+
+    // Appends one vaccination without resending the pet's history
+    @PostMapping("/{id}/vaccinations")
+    public ResponseEntity<ResponseDTO> addVaccination(@PathVariable Long id, @Valid @RequestBody VaccinationRequestDTO vaccinationDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        PetResponseDTO responseData = petDetailsServices.addVaccination(id, Mapper.mapToEntity(vaccinationDTO), expectedVersions(ifMatch));
 
+        return updatedResponse("Vaccination " + vaccinationDTO.getName() + " recorded for pet with ID: " + id, responseData);
+    }
+
+    // Undoes a delete until the purge has removed the pet
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<ResponseDTO> restorePetDetails(@PathVariable Long id){
+        PetResponseDTO responseData = petDetailsServices.restorePetDetails(id);
+
+        return updatedResponse("Pet restored successfully", responseData);
+    }
+
+    private ResponseEntity<ResponseDTO> updatedResponse(String message, PetResponseDTO responseData) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(PetETags.of(responseData.getVersion()))
+                .body(ResponseDTO.builder()
+                        .message(message)
+                        .data(responseData)
+                        .build());
+    }
+
+    // Versions accepted by the client's If-Match; null means write unconditionally
+    private List<Long> expectedVersions(String ifMatch) {
+        if (ifMatch == null && requireIfMatch) {
+            throw new PreconditionRequiredException("If-Match with the pet's current ETag is required for this request");
+        }
+        return PetETags.ifMatchVersions(ifMatch);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<ResponseDTO> deletePetDetails(@PathVariable Long id){
-        petDetailsServices.deletePetDetails(id);
+    public ResponseEntity<ResponseDTO> deletePetDetails(@PathVariable Long id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        petDetailsServices.deletePetDetails(id, expectedVersions(ifMatch));
 
         logger.info("Pet with ID {} deleted successfully.", id);
         return new ResponseEntity<>(ResponseDTO.builder()
@@ -102,12 +261,14 @@ public class PetDetailsController {
     }
 
     @GetMapping("/vaccinated/{name}")
-    public ResponseEntity<ResponseDTO> getPetsWithSameVaccine(@PathVariable String name) {
-        List<PetResponseDTO> petDTOs = petDetailsServices.getPetsByVaccinationName(name);
+    public ResponseEntity<ResponseDTO> getPetsWithSameVaccine(@PathVariable String name,
+                                                              @RequestParam(required = false) Long after,
+                                                              @RequestParam(required = false) Integer limit) {
+        PetPageDTO page = petDetailsServices.getPetsByVaccinationName(name, after, limit);
 
         return new ResponseEntity<>(ResponseDTO.builder()
-                .message("Fetched all pet details with vaccination: " + name)
-                .data(petDTOs)
+                .message("Fetched " + page.getPets().size() + " pet details with vaccination: " + name)
+                .data(page)
                 .build(), HttpStatus.OK);
     }
 }
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.gevernova.petvacination.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Strong ETags for pet resources, built from PetDetails.version, and parsing of the conditional headers
+final class PetETags {
+
+    private PetETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // If-None-Match uses weak comparison, so W/"3" matches "3"
+    static boolean noneMatchHits(String ifNoneMatch, Long version) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")) {
+                return true;
+            }
+            if (trimmed.startsWith("W/")) {
+                trimmed = trimmed.substring(2);
+            }
+            Long tagged = parse(trimmed);
+            if (tagged != null && tagged.equals(version)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The versions an If-Match header accepts, or null when any version will do (no header, or "*").
+    // If-Match uses strong comparison, so weak and malformed tags never match.
+    static List<Long> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (String tag : ifMatch.split(",")) {
+            String trimmed = tag.trim();
+            if (trimmed.equals("*")) {
+                return null;
+            }
+            Long tagged = parse(trimmed);
+            if (tagged != null) {
+                versions.add(tagged);
+            }
+        }
+        return versions;
+    }
+
+    private static Long parse(String tag) {
+        if (tag.length() < 3 || tag.charAt(0) != '"' || tag.charAt(tag.length() - 1) != '"') {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
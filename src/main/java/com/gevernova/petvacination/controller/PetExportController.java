@@ -0,0 +1,119 @@
+package com.gevernova.petvacination.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.dto.BulkImportSummaryDTO;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.exceptionhandling.InvalidRequestException;
+import com.gevernova.petvacination.export.ExportFormat;
+import com.gevernova.petvacination.export.PetCsvReader;
+import com.gevernova.petvacination.export.PetExporter;
+import com.gevernova.petvacination.service.PetDetailsServices;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/pets")
+@RequiredArgsConstructor
+public class PetExportController {
+
+    private final PetExporter petExporter;
+    private final PetDetailsServices petDetailsServices;
+    private final ObjectMapper objectMapper;
+    private final IdempotentRequests idempotentRequests;
+    private static final Logger logger = LoggerFactory.getLogger(PetExportController.class);
+
+    // The whole registry as a download, written row by row from a database cursor
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportPets(@RequestParam(defaultValue = "csv") String format,
+                                                            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = exportFormat(format);
+        String filename = "pets." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = outputStream -> {
+            long pets;
+            if (gzip) {
+                try (OutputStream compressed = new GZIPOutputStream(outputStream, 64 * 1024)) {
+                    pets = petExporter.export(exportFormat, compressed);
+                }
+            } else {
+                pets = petExporter.export(exportFormat, outputStream);
+            }
+            logger.info("Exported {} pets as {}", pets, filename);
+        };
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    // Takes the CSV or NDJSON produced by /export, optionally gzip-compressed (Content-Encoding: gzip), and
+    // registers the pets in chunks as the body is read. Unlike /bulk the response is a summary rather than one
+    // result per item, and no registration emails are sent.
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ResponseDTO> importPets(HttpServletRequest request,
+                                                  @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+                                                  @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey)
+            throws IOException {
+        return idempotentRequests.execute("pets/import", idempotencyKey, null, completion -> {
+            boolean csv = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(ExportFormat.CSV.getMediaType());
+            BulkImportSummaryDTO summary;
+            try (InputStream body = decoded(request.getInputStream(), contentEncoding)) {
+                if (csv) {
+                    summary = petDetailsServices.importPetDetails(
+                            new PetCsvReader(new InputStreamReader(body, StandardCharsets.UTF_8)));
+                } else {
+                    try (MappingIterator<PetRequestDTO> requestDTOs = objectMapper.readerFor(PetRequestDTO.class).readValues(body)) {
+                        summary = petDetailsServices.importPetDetails(requestDTOs);
+                    }
+                }
+            }
+            return new ResponseEntity<>(ResponseDTO.builder()
+                    .message("Imported " + summary.getCreated() + " pets, " + summary.getInvalid() + " invalid, "
+                            + summary.getFailed() + " failed")
+                    .data(summary)
+                    .build(), HttpStatus.OK);
+        });
+    }
+
+    private static ExportFormat exportFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unsupported export format '" + format + "', expected csv or ndjson");
+        }
+    }
+
+    private static InputStream decoded(InputStream body, String contentEncoding) throws IOException {
+        if (contentEncoding == null || contentEncoding.isBlank() || contentEncoding.equalsIgnoreCase("identity")) {
+            return body;
+        }
+        if (contentEncoding.equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(body, 64 * 1024);
+        }
+        throw new InvalidRequestException("Unsupported Content-Encoding '" + contentEncoding + "', expected gzip");
+    }
+}
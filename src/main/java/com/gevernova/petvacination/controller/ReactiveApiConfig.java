@@ -0,0 +1,85 @@
+package com.gevernova.petvacination.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.service.PetDetailsServices;
+import com.gevernova.petvacination.service.PetRegistrationFeed;
+import com.gevernova.petvacination.service.ReactivePetDetailsServices;
+import com.gevernova.petvacination.service.ReactivePetServiceImplementation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.ServletRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ServletHttpHandlerAdapter;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+// The reactive read API runs in the same Tomcat as Spring MVC, as its own servlet on /api/reactive/*. The adapter
+// uses non-blocking servlet I/O: a client that reads slowly holds a socket and a buffered page, not a thread,
+// and the next page is read only when the socket has taken the last one.
+@Configuration
+@ConditionalOnProperty(name = "pet.reactive.enabled", havingValue = "true", matchIfMissing = true)
+public class ReactiveApiConfig {
+
+    public static final String SERVLET_NAME = "reactivePetApi";
+
+    // JDBC blocks, so reads get their own threads, no more than there are connections to use;
+    // beyond the queue a read is refused with 503 rather than queued without bound
+    @Bean(destroyMethod = "dispose")
+    public Scheduler reactiveJdbcScheduler(@Value("${pet.reactive.jdbc-threads:${spring.datasource.hikari.maximum-pool-size:10}}") int threads,
+                                           @Value("${pet.reactive.jdbc-queue:10000}") int queuedReads) {
+        return Schedulers.newBoundedElastic(threads, queuedReads, "reactive-jdbc");
+    }
+
+    @Bean
+    public PetRegistrationFeed petRegistrationFeed(@Value("${pet.reactive.feed-buffer:256}") int bufferPerSubscriber) {
+        return new PetRegistrationFeed(bufferPerSubscriber);
+    }
+
+    @Bean
+    public ReactivePetDetailsServices reactivePetDetailsServices(PetDetailsServices petDetailsServices,
+                                                                 PetRegistrationFeed petRegistrationFeed,
+                                                                 Scheduler reactiveJdbcScheduler,
+                                                                 @Value("${pet.reactive.page-size:100}") int pageSize) {
+        return new ReactivePetServiceImplementation(petDetailsServices, petRegistrationFeed, reactiveJdbcScheduler, pageSize);
+    }
+
+    @Bean
+    public ReactivePetHandler reactivePetHandler(ReactivePetDetailsServices reactivePetDetailsServices, ObjectMapper objectMapper,
+                                                 @Value("${pet.reactive.page-size:100}") int pageSize,
+                                                 @Value("${pet.reactive.heartbeat-interval:PT15S}") Duration heartbeatInterval) {
+        return new ReactivePetHandler(reactivePetDetailsServices, objectMapper, pageSize, heartbeatInterval);
+    }
+
+    @Bean
+    public ServletRegistrationBean<ServletHttpHandlerAdapter> reactivePetApiServlet(ReactivePetHandler handler, ObjectMapper objectMapper) {
+        // Paths are relative to the servlet mapping
+        RouterFunction<ServerResponse> routes = RouterFunctions.route()
+                .GET("/pets/stream", handler::streamAllPets)
+                .GET("/pets/search", handler::searchPets)
+                .GET("/pets/registrations", handler::registrations)
+                .GET("/pets/{id:[0-9]{1,18}}", handler::getPetById)
+                .onError(Throwable.class, handler::handleError)
+                .build();
+        // Boot's ObjectMapper, so both APIs write the same JSON
+        HandlerStrategies strategies = HandlerStrategies.builder()
+                .codecs(codecs -> codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper)))
+                .build();
+        HttpHandler httpHandler = RouterFunctions.toHttpHandler(routes, strategies);
+
+        ServletRegistrationBean<ServletHttpHandlerAdapter> registration =
+                new ServletRegistrationBean<>(new ServletHttpHandlerAdapter(httpHandler), "/api/reactive/*");
+        registration.setName(SERVLET_NAME);
+        registration.setAsyncSupported(true);
+        registration.setLoadOnStartup(1);
+        return registration;
+    }
+}
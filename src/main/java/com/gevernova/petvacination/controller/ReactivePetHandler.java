@@ -0,0 +1,185 @@
+package com.gevernova.petvacination.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.exceptionhandling.InvalidRequestException;
+import com.gevernova.petvacination.service.ReactivePetDetailsServices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.ReactiveHttpOutputMessage;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+// Handler functions behind /api/reactive, the non-blocking counterparts of PetDetailsController's reads.
+// Streams are newline-delimited JSON, or Server-Sent Events when the client accepts text/event-stream.
+public class ReactivePetHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactivePetHandler.class);
+    private static final ParameterizedTypeReference<ServerSentEvent<PetSummaryDTO>> SUMMARY_EVENTS = new ParameterizedTypeReference<>() {
+    };
+
+    private final ReactivePetDetailsServices reactivePetDetailsServices;
+    private final ObjectMapper objectMapper;
+    private final int writeBatchSize;
+    private final Duration heartbeatInterval;
+
+    public ReactivePetHandler(ReactivePetDetailsServices reactivePetDetailsServices, ObjectMapper objectMapper,
+                              int writeBatchSize, Duration heartbeatInterval) {
+        this.reactivePetDetailsServices = reactivePetDetailsServices;
+        this.objectMapper = objectMapper;
+        this.writeBatchSize = writeBatchSize;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    // A matching If-None-Match is answered from the version alone, as in PetDetailsController
+    public Mono<ServerResponse> getPetById(ServerRequest request) {
+        Long id = Long.valueOf(request.pathVariable("id"));
+        Mono<ServerResponse> fetched = reactivePetDetailsServices.getPetDetailsById(id)
+                .flatMap(pet -> ServerResponse.ok()
+                        .eTag(PetETags.of(pet.getVersion()))
+                        .bodyValue(ResponseDTO.builder()
+                                .message("Fetched Pet details with pet Id: " + id)
+                                .data(pet)
+                                .build()))
+                .switchIfEmpty(Mono.defer(() -> {
+                    logger.warn("Pet with ID {} not found.", id);
+                    return error(HttpStatus.NOT_FOUND, "Pet with ID: " + id + " was not found.");
+                }));
+
+        String ifNoneMatch = request.headers().firstHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null) {
+            return fetched;
+        }
+        return reactivePetDetailsServices.getPetVersion(id)
+                .filter(version -> PetETags.noneMatchHits(ifNoneMatch, version))
+                .flatMap(version -> ServerResponse.status(HttpStatus.NOT_MODIFIED).eTag(PetETags.of(version)).build())
+                .switchIfEmpty(fetched);
+    }
+
+    // Same filters as GET /api/pets/search, combined with AND; every match is streamed instead of one page
+    public Mono<ServerResponse> searchPets(ServerRequest request) {
+        // Parsed inside the Mono, so a bad parameter reaches handleError instead of escaping the route
+        return Mono.fromCallable(() -> PetSearchCriteria.builder()
+                        .species(request.queryParam("species").map(ReactivePetHandler::species).orElse(null))
+                        .breedPrefix(request.queryParam("breed").orElse(null))
+                        .ownerEmail(request.queryParam("ownerEmail").orElse(null))
+                        .ownerContact(request.queryParam("ownerContact").orElse(null))
+                        .vaccineName(request.queryParam("vaccine").orElse(null))
+                        .vaccinatedAfter(request.queryParam("vaccinatedAfter").map(ReactivePetHandler::date).orElse(null))
+                        .build())
+                .flatMap(criteria -> stream(request, reactivePetDetailsServices.searchPetSummaries(criteria), PetSummaryDTO.class));
+    }
+
+    public Mono<ServerResponse> streamAllPets(ServerRequest request) {
+        return stream(request, reactivePetDetailsServices.streamAllPetDetails(), PetResponseDTO.class);
+    }
+
+    // Live feed of registrations; comments are sent between them so proxies keep the connection open
+    // and a client that has gone away is noticed at the next heartbeat
+    public Mono<ServerResponse> registrations(ServerRequest request) {
+        Flux<ServerSentEvent<PetSummaryDTO>> pets = reactivePetDetailsServices.registrations()
+                .map(pet -> ServerSentEvent.builder(pet).id(String.valueOf(pet.getId())).event("registered").build());
+        Flux<ServerSentEvent<PetSummaryDTO>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.<PetSummaryDTO>builder().comment("heartbeat").build());
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromPublisher(Flux.merge(pets, heartbeats), SUMMARY_EVENTS));
+    }
+
+    public Mono<ServerResponse> handleError(Throwable error, ServerRequest request) {
+        if (error instanceof InvalidRequestException || error instanceof NumberFormatException) {
+            logger.warn("Invalid request parameter: {}", error.getMessage());
+            return error(HttpStatus.BAD_REQUEST, error.getMessage());
+        }
+        if (error instanceof RejectedExecutionException) {
+            logger.warn("Reactive read refused, database work queue is full: {}", error.getMessage());
+            return error(HttpStatus.SERVICE_UNAVAILABLE, "Too many reads in progress, retry later");
+        }
+        logger.error("An unexpected error occurred: {}", error.getMessage(), error);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred: " + error.getMessage());
+    }
+
+    private <T> Mono<ServerResponse> stream(ServerRequest request, Flux<T> items, Class<T> type) {
+        boolean events = request.headers().accept().stream()
+                .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+        if (events) {
+            return ServerResponse.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(items, type);
+        }
+        return ServerResponse.ok().contentType(MediaType.APPLICATION_NDJSON).body(ndjson(items));
+    }
+
+    // One write and flush per batch of lines rather than per pet, so a slow reader costs a write callback per
+    // batch instead of one per pet; a batch is requested only once the previous one has been written
+    private <T> BodyInserter<Flux<T>, ReactiveHttpOutputMessage> ndjson(Flux<T> items) {
+        return (message, context) -> message.writeAndFlushWith(items.buffer(writeBatchSize)
+                .map(batch -> Mono.fromCallable(() -> lines(message.bufferFactory(), batch))));
+    }
+
+    private DataBuffer lines(DataBufferFactory bufferFactory, List<?> batch) throws IOException {
+        DataBuffer buffer = bufferFactory.allocateBuffer(batch.size() * 256);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(buffer.asOutputStream())) {
+            generator.setRootValueSeparator(null);
+            for (Object item : batch) {
+                objectMapper.writeValue(generator, item);
+                generator.writeRaw('\n');
+            }
+        } catch (IOException | RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+        return buffer;
+    }
+
+    private static Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(ResponseDTO.builder().message(message).build());
+    }
+
+    // Blank values mean no filter, as they do for the MVC endpoint
+    private static Species species(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return Species.valueOf(value.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown species: " + value);
+        }
+    }
+
+    private static LocalDate date(String value) {
+        if (value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("vaccinatedAfter must be an ISO date (yyyy-MM-dd): " + value);
+        }
+    }
+}
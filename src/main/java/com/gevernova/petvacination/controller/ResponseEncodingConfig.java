@@ -0,0 +1,19 @@
+package com.gevernova.petvacination.controller;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+// Clients sending Accept: application/cbor get the same documents in binary form: no quoting or escaping, and
+// numbers and dates in a few bytes. Built from Boot's Jackson builder so both formats share one configuration;
+// JSON stays first, so clients that accept anything still get JSON.
+@Configuration
+public class ResponseEncodingConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
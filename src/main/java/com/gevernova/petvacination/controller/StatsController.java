@@ -0,0 +1,66 @@
+package com.gevernova.petvacination.controller;
+
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.dto.SpeciesCoverageDTO;
+import com.gevernova.petvacination.dto.VaccinationCountDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.service.VaccinationStatsServices;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+@RequiredArgsConstructor
+public class StatsController {
+
+    private final VaccinationStatsServices vaccinationStatsServices;
+    private static final Logger logger = LoggerFactory.getLogger(StatsController.class);
+
+    // Doses per vaccine, species and month between from and to (yyyy-MM, inclusive); defaults to the last 12 months
+    @GetMapping("/vaccinations")
+    public ResponseEntity<ResponseDTO> getVaccinationCounts(@RequestParam(required = false) Species species,
+                                                            @RequestParam(required = false) String vaccine,
+                                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+                                                            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        YearMonth end = to == null ? YearMonth.now() : to;
+        YearMonth start = from == null ? end.minusMonths(11) : from;
+        List<VaccinationCountDTO> counts = vaccinationStatsServices.getVaccinationCounts(species, vaccine, start, end);
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message(counts.size() + " vaccination counts between " + start + " and " + end)
+                .data(counts)
+                .build(), HttpStatus.OK);
+    }
+
+    // Share of each species' pets vaccinated at all, and with each vaccine
+    @GetMapping("/coverage")
+    public ResponseEntity<ResponseDTO> getCoverage(@RequestParam(required = false) Species species) {
+        List<SpeciesCoverageDTO> coverage = vaccinationStatsServices.getCoverage(species);
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Vaccination coverage for " + coverage.size() + " species")
+                .data(coverage)
+                .build(), HttpStatus.OK);
+    }
+
+    // Recounts the statistics from the pet tables, for repair
+    @PostMapping("/rebuild")
+    public ResponseEntity<ResponseDTO> rebuild() {
+        int groups = vaccinationStatsServices.rebuild();
+        logger.info("Vaccination statistics rebuilt with {} groups", groups);
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("Rebuilt vaccination statistics: " + groups + " groups")
+                .data(groups)
+                .build(), HttpStatus.OK);
+    }
+}
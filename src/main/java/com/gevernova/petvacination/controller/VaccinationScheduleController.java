@@ -0,0 +1,51 @@
+package com.gevernova.petvacination.controller;
+
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.dto.VaccinationDuePageDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.service.VaccinationScheduleServices;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/vaccinations")
+@RequiredArgsConstructor
+public class VaccinationScheduleController {
+
+    private final VaccinationScheduleServices vaccinationScheduleServices;
+
+    // Boosters due between from and to (inclusive); defaults to the coming week
+    @GetMapping("/due")
+    public ResponseEntity<ResponseDTO> getDueVaccinations(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                          @RequestParam(required = false) Species species,
+                                                          @RequestParam(required = false) String after,
+                                                          @RequestParam(required = false) Integer limit) {
+        LocalDate start = from == null ? LocalDate.now() : from;
+        LocalDate end = to == null ? start.plusDays(7) : to;
+        VaccinationDuePageDTO page = vaccinationScheduleServices.getDueBetween(start, end, species, after, limit);
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message(page.getDue().size() + " vaccinations due between " + start + " and " + end)
+                .data(page)
+                .build(), HttpStatus.OK);
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<ResponseDTO> getOverdueVaccinations(@RequestParam(required = false) Species species,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestParam(required = false) Integer limit) {
+        VaccinationDuePageDTO page = vaccinationScheduleServices.getOverdue(species, after, limit);
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message(page.getDue().size() + " overdue vaccinations")
+                .data(page)
+                .build(), HttpStatus.OK);
+    }
+}
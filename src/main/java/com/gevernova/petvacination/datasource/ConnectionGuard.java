@@ -0,0 +1,66 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.dto.ConnectionGuardStatsDTO;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Caps how many threads may hold a database connection at once. With virtual threads the servlet
+// container no longer bounds concurrency, so thousands of requests can reach the pool together; the
+// fair semaphore queues them in arrival order and fails fast once the wait exceeds the timeout.
+public class ConnectionGuard {
+
+    private final String pool;
+    private final int maxConnections;
+    private final long acquireTimeoutNanos;
+    private final Semaphore permits;
+
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+
+    public ConnectionGuard(String pool, int maxConnections, Duration acquireTimeout) {
+        this.pool = pool;
+        this.maxConnections = maxConnections;
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+        this.permits = new Semaphore(maxConnections, true);
+    }
+
+    public void acquire() throws SQLTransientConnectionException {
+        long start = System.nanoTime();
+        boolean granted;
+        try {
+            granted = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+        }
+        waitNanos.add(System.nanoTime() - start);
+        if (!granted) {
+            rejected.increment();
+            throw new SQLTransientConnectionException("No database connection available within "
+                    + TimeUnit.NANOSECONDS.toMillis(acquireTimeoutNanos) + "ms (" + maxConnections + " in use in " + pool + ")");
+        }
+        acquired.increment();
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public ConnectionGuardStatsDTO getStats() {
+        long acquiredCount = acquired.sum();
+        return ConnectionGuardStatsDTO.builder()
+                .pool(pool)
+                .maxConnections(maxConnections)
+                .inUse(maxConnections - permits.availablePermits())
+                .waiting(permits.getQueueLength())
+                .acquired(acquiredCount)
+                .rejected(rejected.sum())
+                .averageWaitMs(acquiredCount == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / acquiredCount)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.gevernova.petvacination.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Guards are attached to the pools where they are built: here for the single pool, in ReplicaRoutingConfig
+// for the primary and each replica
+@Configuration
+@ConditionalOnProperty(name = "pet.datasource.guard.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionGuardConfig {
+
+    @Bean
+    public ConnectionGuards connectionGuards(@Value("${pet.datasource.guard.acquire-timeout:PT5S}") Duration acquireTimeout) {
+        return new ConnectionGuards(acquireTimeout);
+    }
+
+    // Without replicas this replaces Boot's pool, built the same way, so it can be guarded
+    @Configuration
+    @ConditionalOnExpression("'${pet.datasource.replica.urls:}'.isEmpty()")
+    static class SinglePoolConfig {
+
+        @Bean
+        public DataSource dataSource(DataSourceProperties properties, Environment environment, ConnectionGuards connectionGuards) {
+            return connectionGuards.guard(ReplicaRoutingConfig.pool(properties, environment, "primary"));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.dto.ConnectionGuardStatsDTO;
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// One ConnectionGuard per connection pool, each with as many permits as its pool has connections, so
+// callers queued for a busy replica never take the primary's permits, nor the other way round.
+public class ConnectionGuards {
+
+    private final Duration acquireTimeout;
+    private final List<ConnectionGuard> guards = new CopyOnWriteArrayList<>();
+
+    public ConnectionGuards(Duration acquireTimeout) {
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public GuardedDataSource guard(HikariDataSource pool) {
+        ConnectionGuard guard = new ConnectionGuard(pool.getPoolName(), pool.getMaximumPoolSize(), acquireTimeout);
+        guards.add(guard);
+        return new GuardedDataSource(pool, guard);
+    }
+
+    public List<ConnectionGuardStatsDTO> getStats() {
+        return guards.stream().map(ConnectionGuard::getStats).toList();
+    }
+}
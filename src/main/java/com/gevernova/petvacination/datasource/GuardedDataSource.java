@@ -0,0 +1,84 @@
+package com.gevernova.petvacination.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Takes a ConnectionGuard permit before borrowing from the pool and returns it when the connection is closed
+public class GuardedDataSource extends DelegatingDataSource implements Closeable {
+
+    private final ConnectionGuard connectionGuard;
+
+    public GuardedDataSource(DataSource targetDataSource, ConnectionGuard connectionGuard) {
+        super(targetDataSource);
+        this.connectionGuard = connectionGuard;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        connectionGuard.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection());
+        } catch (SQLException | RuntimeException e) {
+            connectionGuard.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        connectionGuard.acquire();
+        try {
+            return guard(obtainTargetDataSource().getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            connectionGuard.release();
+            throw e;
+        }
+    }
+
+    // Lets the context close the pool behind it on shutdown
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable pool) {
+            pool.close();
+        }
+    }
+
+    private Connection guard(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (method.getName().equals("close")) {
+                        try {
+                            connection.close();
+                        } finally {
+                            // close() may be called more than once; only the first call gives the permit back
+                            if (released.compareAndSet(false, true)) {
+                                connectionGuard.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
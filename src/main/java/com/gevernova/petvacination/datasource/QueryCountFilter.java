@@ -0,0 +1,44 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.controller.ReactiveApiConfig;
+import com.gevernova.petvacination.metrics.QueryMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Counts the statements each request runs on its own thread and files them under the handler's pattern, so
+// /api/pets/1 and /api/pets/2 add up as GET /api/pets/{id}. Statements of a streamed response run on another
+// thread and are not counted, and the reactive API's requests, which never run statements on it, are skipped.
+// Requests no handler matched are filed together whatever their method, since a caller can send any method name.
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    static final String UNMAPPED = "(unmapped)";
+
+    private final QueryMetrics queryMetrics;
+
+    public QueryCountFilter(QueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return ReactiveApiConfig.SERVLET_NAME.equals(request.getHttpServletMapping().getServletName());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        queryMetrics.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            queryMetrics.endRequest(pattern != null ? request.getMethod() + " " + pattern : UNMAPPED);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.metrics.QueryMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "pet.query.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryMetricsConfig {
+
+    @Bean
+    public QueryMetrics queryMetrics(@Value("${pet.query.slow-threshold:PT0.5S}") Duration slowThreshold,
+                                     @Value("${pet.query.request-statement-threshold:25}") int requestStatementThreshold) {
+        return new QueryMetrics(slowThreshold, requestStatementThreshold);
+    }
+
+    @Bean
+    public QueryCountFilter queryCountFilter(QueryMetrics queryMetrics) {
+        return new QueryCountFilter(queryMetrics);
+    }
+
+    // Static so it is registered before the DataSource is created. It wraps the whole DataSource, so connection
+    // waits include any time queued at a pool's connection guard; the guards report that queueing themselves
+    @Bean
+    public static QueryMetricsDataSourcePostProcessor queryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+        return new QueryMetricsDataSourcePostProcessor(queryMetrics);
+    }
+
+    static final class QueryMetricsDataSourcePostProcessor implements BeanPostProcessor {
+
+        private final ObjectProvider<QueryMetrics> queryMetrics;
+
+        QueryMetricsDataSourcePostProcessor(ObjectProvider<QueryMetrics> queryMetrics) {
+            this.queryMetrics = queryMetrics;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof QueryMetricsDataSource)) {
+                return new QueryMetricsDataSource(dataSource, queryMetrics.getObject());
+            }
+            return bean;
+        }
+    }
+}
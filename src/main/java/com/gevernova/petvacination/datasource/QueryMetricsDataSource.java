@@ -0,0 +1,171 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.metrics.QueryMetrics;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Times every statement into QueryMetrics, for Hibernate and JdbcTemplate alike, and how long the pool takes to
+// hand out a connection. Connections, statements and result sets are wrapped in JDK proxies that only look at
+// execute*, next and the calls that create them; everything else goes straight to the driver. A query is timed
+// until it returns its result set, so rows streamed afterwards count as rows, not latency.
+public class QueryMetricsDataSource extends DelegatingDataSource implements Closeable {
+
+    private final QueryMetrics queryMetrics;
+
+    public QueryMetricsDataSource(DataSource targetDataSource, QueryMetrics queryMetrics) {
+        super(targetDataSource);
+        this.queryMetrics = queryMetrics;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Connection connection = obtainTargetDataSource().getConnection();
+            failed = false;
+            return connection(connection);
+        } finally {
+            queryMetrics.recordConnectionAcquire(System.nanoTime() - start, failed);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Connection connection = obtainTargetDataSource().getConnection(username, password);
+            failed = false;
+            return connection(connection);
+        } finally {
+            queryMetrics.recordConnectionAcquire(System.nanoTime() - start, failed);
+        }
+    }
+
+    // Lets the context close the pools behind it on shutdown
+    @Override
+    public void close() throws IOException {
+        if (obtainTargetDataSource() instanceof Closeable target) {
+            target.close();
+        }
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, queryMetrics.shapeOf((String) args[0]));
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, queryMetrics.shapeOf((String) args[0]));
+                default -> result;
+            };
+        });
+    }
+
+    // prepared: the shape of a prepared statement's SQL; null for a plain Statement, whose SQL comes with each call
+    private <T extends Statement> T statement(Class<T> type, Statement statement, QueryMetrics.Shape prepared) {
+        // The shape last executed, which the rows of getResultSet belong to
+        QueryMetrics.Shape[] current = {prepared};
+        return proxy(type, statement, (proxy, method, args) -> {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                Object result = invoke(statement, method, args);
+                return name.equals("getResultSet") ? resultSet((ResultSet) result, current[0]) : result;
+            }
+            QueryMetrics.Shape shape = prepared != null || args == null || !(args[0] instanceof String sql)
+                    ? prepared
+                    : queryMetrics.shapeOf(sql);
+            if (shape == null) {
+                // addBatch(sql) on a plain Statement followed by executeBatch: there is no single SQL to file it under
+                return invoke(statement, method, args);
+            }
+            current[0] = shape;
+            long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                Object result = invoke(statement, method, args);
+                failed = false;
+                shape.addRows(updatedRows(result));
+                return result instanceof ResultSet resultSet ? resultSet(resultSet, shape) : result;
+            } finally {
+                queryMetrics.recordExecution(shape, System.nanoTime() - start, failed);
+            }
+        });
+    }
+
+    private ResultSet resultSet(ResultSet resultSet, QueryMetrics.Shape shape) {
+        if (resultSet == null || shape == null) {
+            return resultSet;
+        }
+        return proxy(ResultSet.class, resultSet, (proxy, method, args) -> {
+            Object result = invoke(resultSet, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                shape.addRows(1);
+            }
+            return result;
+        });
+    }
+
+    // executeUpdate returns the rows changed, executeBatch one count per statement; execute and executeQuery none
+    private static long updatedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+        long total = 0;
+        if (result instanceof int[] counts) {
+            for (int count : counts) {
+                total += Math.max(count, 0);
+            }
+        } else if (result instanceof long[] counts) {
+            for (long count : counts) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object proxy, Method method, Object[] args) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    return handler.handle(proxy, method, args);
+            }
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gevernova.petvacination.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+
+// Keeps a caller on the primary for a short window after it writes, so it reads its own writes however far
+// the replicas lag behind. Within a request the pin is kept per thread; between requests it travels in a
+// cookie holding the time it expires. Threads outside a request (scheduled jobs) are never pinned.
+public class ReadYourWrites {
+
+    static final String COOKIE = "pet-primary-until";
+
+    private final Duration window;
+    private final ThreadLocal<Caller> current = new ThreadLocal<>();
+
+    public ReadYourWrites(Duration window) {
+        this.window = window;
+    }
+
+    // pinnedUntil: epoch millis from the caller's cookie, or 0; response: where to set the cookie, if anywhere
+    public void begin(long pinnedUntil, HttpServletResponse response) {
+        current.set(new Caller(pinnedUntil, response));
+    }
+
+    public void end() {
+        current.remove();
+    }
+
+    public boolean pinnedToPrimary() {
+        Caller caller = current.get();
+        return caller != null && caller.pinnedUntil > System.currentTimeMillis();
+    }
+
+    // Called once a write on the primary has committed
+    public void recordWrite() {
+        Caller caller = current.get();
+        if (caller == null) {
+            return;
+        }
+        caller.pinnedUntil = System.currentTimeMillis() + window.toMillis();
+        if (caller.response != null && !caller.response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, Long.toString(caller.pinnedUntil));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            caller.response.addCookie(cookie);
+        }
+    }
+
+    private static final class Caller {
+        private long pinnedUntil;
+        private final HttpServletResponse response;
+
+        private Caller(long pinnedUntil, HttpServletResponse response) {
+            this.pinnedUntil = pinnedUntil;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.gevernova.petvacination.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Restores the caller's primary pin from its cookie for the length of the request
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final ReadYourWrites readYourWrites;
+
+    public ReadYourWritesFilter(ReadYourWrites readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        readYourWrites.begin(pinnedUntil(request), response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWrites.end();
+        }
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (cookie.getName().equals(ReadYourWrites.COOKIE)) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
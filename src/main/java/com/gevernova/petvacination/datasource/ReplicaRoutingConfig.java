@@ -0,0 +1,87 @@
+package com.gevernova.petvacination.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Active once pet.datasource.replica.urls is set. Replaces Boot's single pool: the primary is built from
+// spring.datasource.*, each replica from the same settings with its own URL, and every pool takes
+// spring.datasource.hikari.*. Replicas give up on a connection after pet.datasource.replica.connection-timeout,
+// so a dead replica costs a read that long once before it is skipped. With the connection guard on, each pool
+// gets its own guard.
+@Configuration
+@ConditionalOnProperty(name = "pet.datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public ReadYourWrites readYourWrites(@Value("${pet.datasource.replica.sticky-window:PT5S}") Duration stickyWindow) {
+        return new ReadYourWrites(stickyWindow);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWrites readYourWrites) {
+        return new ReadYourWritesFilter(readYourWrites);
+    }
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment, ReadYourWrites readYourWrites,
+                                 ObjectProvider<ConnectionGuards> connectionGuards,
+                                 @Value("${pet.datasource.replica.urls}") List<String> replicaUrls,
+                                 @Value("${pet.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${pet.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                 @Value("${pet.datasource.replica.connection-timeout:PT1S}") Duration connectionTimeout) {
+        ConnectionGuards guards = connectionGuards.getIfAvailable();
+        HikariDataSource primary = pool(properties, environment, "primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = pool(properties, environment, "replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(connectionTimeout.toMillis());
+            replicas.add(guards == null ? replica : guards.guard(replica));
+        }
+        return new ReplicaRoutingDataSource(guards == null ? primary : guards.guard(primary), replicas, readYourWrites);
+    }
+
+    static HikariDataSource pool(DataSourceProperties properties, Environment environment, String name) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+
+    @Bean
+    public ReplicaHealthCheck replicaHealthCheck(DataSource dataSource) throws SQLException {
+        return new ReplicaHealthCheck(dataSource.unwrap(ReplicaRoutingDataSource.class));
+    }
+
+    public static class ReplicaHealthCheck {
+
+        private final ReplicaRoutingDataSource dataSource;
+
+        ReplicaHealthCheck(ReplicaRoutingDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        @Scheduled(fixedDelayString = "${pet.datasource.replica.health-check-interval:PT5S}")
+        public void check() {
+            dataSource.checkReplicas();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.dto.ReplicaRoutingStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Sends read-only transactions to the replicas in turn and everything else to the primary. Connections are
+// handed out lazily and fetched at the first statement, once the transaction's read-only flag is known.
+// A replica that fails a health check or a connection attempt is skipped until a later check finds it
+// valid again; with no replica left, reads go to the primary.
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    // Bound to a transaction once it has been given a replica connection
+    private static final Object REPLICA_READ = new Object();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWrites readYourWrites;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final LongAdder primaryConnections = new LongAdder();
+    private final LongAdder replicaConnections = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas, ReadYourWrites readYourWrites) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.readYourWrites = readYourWrites;
+        setTargetDataSource(new Router());
+        afterPropertiesSet();
+    }
+
+    // Marks each replica up or down by whether it hands out a valid connection
+    public void checkReplicas() {
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            boolean valid;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                valid = connection.isValid(1);
+            } catch (SQLException e) {
+                valid = false;
+            }
+            if (valid != replica.healthy) {
+                logger.warn("Replica {} is {}", i, valid ? "back up" : "down");
+                replica.healthy = valid;
+            }
+        }
+    }
+
+    // True inside a transaction reading from a replica, which may not have the latest writes yet
+    public static boolean readingFromReplica() {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ);
+    }
+
+    public ReplicaRoutingStatsDTO getStats() {
+        return ReplicaRoutingStatsDTO.builder()
+                .replicas(replicas.size())
+                .healthyReplicas((int) replicas.stream().filter(replica -> replica.healthy).count())
+                .primaryConnections(primaryConnections.sum())
+                .replicaConnections(replicaConnections.sum())
+                .stickyReads(stickyReads.sum())
+                .failovers(failovers.sum())
+                .build();
+    }
+
+    @Override
+    public void close() {
+        close(primary);
+        replicas.forEach(replica -> close(replica.dataSource));
+    }
+
+    private static void close(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                logger.warn("Failed to close data source: {}", e.getMessage());
+            }
+        }
+    }
+
+    private Connection primaryConnection() throws SQLException {
+        primaryConnections.increment();
+        return primary.getConnection();
+    }
+
+    private final class Router extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            readYourWrites.recordWrite();
+                        }
+                    });
+                }
+                return primaryConnection();
+            }
+            if (readYourWrites.pinnedToPrimary()) {
+                stickyReads.increment();
+                return primaryConnection();
+            }
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    Connection connection = replica.dataSource.getConnection();
+                    replicaConnections.increment();
+                    markReplicaRead();
+                    return connection;
+                } catch (SQLException e) {
+                    ReplicaRoutingDataSource.logger.warn("Replica {} is down: {}", replicas.indexOf(replica), e.getMessage());
+                    replica.healthy = false;
+                }
+            }
+            failovers.increment();
+            return primaryConnection();
+        }
+
+        private void markReplicaRead() {
+            if (!TransactionSynchronizationManager.isSynchronizationActive() || readingFromReplica()) {
+                return;
+            }
+            TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+                }
+            });
+        }
+
+        // Hikari does not support per-call credentials either
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLFeatureNotSupportedException("Routed connections use the configured credentials");
+        }
+    }
+
+    private static final class Replica {
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
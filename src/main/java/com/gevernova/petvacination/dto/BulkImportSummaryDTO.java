@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportSummaryDTO {
+    private long created;
+    private long invalid;
+    private long failed;
+    // The first invalid or failed items, in the order they were found; the counts cover the rest
+    private List<BulkItemResultDTO> problems;
+}
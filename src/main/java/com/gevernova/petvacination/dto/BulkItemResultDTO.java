@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkItemResultDTO {
+    // Position of the item in the submitted list or stream, starting at 0
+    private int index;
+    private BulkItemStatus status;
+    private Long id;
+    private Map<String, String> errors;
+}
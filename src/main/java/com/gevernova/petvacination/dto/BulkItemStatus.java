@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.dto;
+
+public enum BulkItemStatus {
+    CREATED,
+    INVALID,
+    FAILED
+}
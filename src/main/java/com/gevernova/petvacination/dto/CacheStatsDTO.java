@@ -0,0 +1,24 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+    // Loads not cached because the pet was invalidated while they ran
+    private long stalePuts;
+    private double hitRatio;
+}
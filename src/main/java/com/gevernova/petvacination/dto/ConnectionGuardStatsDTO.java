@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ConnectionGuardStatsDTO {
+    private String pool;
+    private int maxConnections;
+    private int inUse;
+    private int waiting;
+    private long acquired;
+    private long rejected;
+    private double averageWaitMs;
+}
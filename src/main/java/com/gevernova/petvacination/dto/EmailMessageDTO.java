@@ -0,0 +1,18 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailMessageDTO {
+    private String to;
+    private String subject;
+    private String text;
+}
@@ -0,0 +1,27 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EndpointLimitStatsDTO {
+    private String name;
+    private int maxConcurrency;
+    // Lowered below maxConcurrency while latency is above the target
+    private int currentLimit;
+    private int inFlight;
+    private double latencyMs;
+    private double targetLatencyMs;
+    private long accepted;
+    // Requests refused with 503 at maxConcurrency
+    private long rejected;
+    // Requests refused with 503 because the limit had been lowered
+    private long shed;
+}
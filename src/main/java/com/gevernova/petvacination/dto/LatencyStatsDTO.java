@@ -0,0 +1,24 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Percentiles are bucket upper bounds, so they may overstate the true value by up to 2x
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LatencyStatsDTO {
+    private String name;
+    private long count;
+    private long errors;
+    private double meanMs;
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+}
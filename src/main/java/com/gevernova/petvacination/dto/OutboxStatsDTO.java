@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxStatsDTO {
+    private long queueDepth;
+    private long sent;
+    private long retried;
+    private long failed;
+    private long batches;
+    private double averageBatchLatencyMs;
+    private double maxBatchLatencyMs;
+}
@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OwnerPetsDTO {
+    private Long id;
+    private String name;
+    private String contact;
+    private String email;
+    private List<PetResponseDTO> pets;
+}
@@ -0,0 +1,34 @@
+package com.gevernova.petvacination.dto;
+
+import com.gevernova.petvacination.entity.Species;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+// PATCH body: only the fields present are changed. A present vaccines list replaces the pet's
+// vaccinations; use POST /api/pets/{id}/vaccinations to add one without resending the rest.
+@Data
+public class PetPatchDTO {
+
+    @Size(min = 1, max = 50, message = "First name must be between 1 and 50 characters in length")
+    private String name;
+
+    private Species species;
+
+    private String breed;
+
+    @Size(min = 1, max = 50, message = " name of owner must be between 1 and 50 characters in length")
+    private String ownerName;
+
+    @Pattern(regexp = "^[0-9]{10}$", message = "Contact number must be 10 digits long")
+    private String ownerContact;
+
+    @Email
+    @Size(min = 1, message = "Email should not be empty")
+    private String ownerEmail;
+
+    @Valid
+    private java.util.List<VaccinationRequestDTO> vaccines;
+}
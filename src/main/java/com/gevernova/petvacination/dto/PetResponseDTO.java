@@ -14,8 +14,10 @@ public class PetResponseDTO {
     private String name;
     private Species species;
     private String breed;
+    private Long ownerId;
     private String ownerName;
     private String ownerContact;
     private String ownerEmail;
     private java.util.List<VaccinationDTO> vaccines;
+    private Long version;
 }
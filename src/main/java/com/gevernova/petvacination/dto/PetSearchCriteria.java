@@ -0,0 +1,26 @@
+package com.gevernova.petvacination.dto;
+
+import com.gevernova.petvacination.entity.Species;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+// Filters of GET /api/pets/search; null fields are not filtered on, the rest are combined with AND
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PetSearchCriteria {
+    private Species species;
+    private String breedPrefix;
+    private String ownerEmail;
+    private String ownerContact;
+    private String vaccineName;
+    // Only pets with a dose given on or after this date; with vaccineName, a dose of that vaccine
+    private LocalDate vaccinatedAfter;
+}
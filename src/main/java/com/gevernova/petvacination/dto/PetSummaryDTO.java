@@ -0,0 +1,23 @@
+package com.gevernova.petvacination.dto;
+
+import com.gevernova.petvacination.entity.Species;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Search result without the vaccination history; selected column by column, so no pet_vaccine rows are read
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PetSummaryDTO {
+    private Long id;
+    private String name;
+    private Species species;
+    private String breed;
+    private String ownerName;
+    private String ownerEmail;
+}
@@ -0,0 +1,20 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PetSummaryPageDTO {
+    private List<PetSummaryDTO> pets;
+    // Pass back as ?after= to fetch the next page; null when this is the last page
+    private Long nextCursor;
+}
@@ -0,0 +1,26 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One statement shape: its SQL with literals replaced by ? and IN lists folded
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryShapeStatsDTO {
+    private String sql;
+    private long count;
+    private long errors;
+    // Rows read from result sets, plus rows changed by updates
+    private long rows;
+    private double totalMs;
+    private double meanMs;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+}
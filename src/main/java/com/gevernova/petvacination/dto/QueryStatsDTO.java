@@ -0,0 +1,26 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryStatsDTO {
+    private long statements;
+    private long slowQueries;
+    private double slowThresholdMs;
+    private int requestStatementThreshold;
+    // Time spent waiting for the pool to hand out a connection
+    private LatencyStatsDTO connectionAcquire;
+    // Most total time first
+    private List<QueryShapeStatsDTO> queries;
+    private List<RequestQueryStatsDTO> requests;
+}
@@ -0,0 +1,23 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RateLimitStatsDTO {
+    private int trackedClients;
+    private int trackedAddresses;
+    private long allowed;
+    // Requests refused with 429 because the address or the client key had used up its rate
+    private long rateLimited;
+    private List<EndpointLimitStatsDTO> endpoints;
+}
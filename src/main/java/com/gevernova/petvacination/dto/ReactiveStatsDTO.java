@@ -0,0 +1,21 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReactiveStatsDTO {
+    private int openStreams;
+    private long pagesRead;
+    private int feedSubscribers;
+    private long registrationsPublished;
+    // Registrations a slow feed subscriber missed because its buffer was full
+    private long registrationsDropped;
+}
@@ -0,0 +1,23 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReplicaRoutingStatsDTO {
+    private int replicas;
+    private int healthyReplicas;
+    private long primaryConnections;
+    private long replicaConnections;
+    // Read-only connections sent to the primary because the caller had just written
+    private long stickyReads;
+    // Read-only connections sent to the primary because no replica was available
+    private long failovers;
+}
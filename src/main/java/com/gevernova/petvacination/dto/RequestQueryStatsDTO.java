@@ -0,0 +1,23 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Statements run per HTTP request on the request thread, by handler pattern
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestQueryStatsDTO {
+    private String endpoint;
+    private long requests;
+    private long statements;
+    private double meanStatements;
+    private long maxStatements;
+    // Requests that ran more statements than pet.query.request-statement-threshold
+    private long overThreshold;
+}
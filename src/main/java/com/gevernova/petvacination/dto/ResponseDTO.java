@@ -1,5 +1,6 @@
 package com.gevernova.petvacination.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,8 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class ResponseDTO {
+    // Left out under Prefer: return=minimal
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String message;
     private Object data;
 }
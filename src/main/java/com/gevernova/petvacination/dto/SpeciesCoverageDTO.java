@@ -0,0 +1,24 @@
+package com.gevernova.petvacination.dto;
+
+import com.gevernova.petvacination.entity.Species;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SpeciesCoverageDTO {
+    private Species species;
+    private long pets;
+    private long vaccinatedPets;
+    // Share of the species' pets with at least one vaccination, 0 to 1
+    private double coverage;
+    private List<VaccineCoverageDTO> vaccines;
+}
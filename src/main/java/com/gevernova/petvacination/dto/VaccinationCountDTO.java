@@ -0,0 +1,22 @@
+package com.gevernova.petvacination.dto;
+
+import com.gevernova.petvacination.entity.Species;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.YearMonth;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VaccinationCountDTO {
+    private String vaccineName;
+    private Species species;
+    private YearMonth month;
+    private long doses;
+}
@@ -0,0 +1,27 @@
+package com.gevernova.petvacination.dto;
+
+import com.gevernova.petvacination.entity.Species;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VaccinationDueDTO {
+    private Long id;
+    private Long petId;
+    private String petName;
+    private Species species;
+    private String ownerName;
+    private String ownerEmail;
+    private String vaccineName;
+    private LocalDate lastGiven;
+    private LocalDate nextDueDate;
+}
@@ -0,0 +1,19 @@
+package com.gevernova.petvacination.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VaccineCoverageDTO {
+    private String vaccineName;
+    private long pets;
+    // Share of the species' pets with at least one dose, 0 to 1
+    private double coverage;
+}
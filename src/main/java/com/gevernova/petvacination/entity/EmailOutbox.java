@@ -0,0 +1,53 @@
+package com.gevernova.petvacination.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Emails are written here in the same transaction as the data that triggers them
+// and delivered later by EmailOutboxDispatcher.
+@Entity
+@Table(name = "email_outbox",
+        indexes = @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class EmailOutbox {
+
+    public static final int MAX_BODY_LENGTH = 2000;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = MAX_BODY_LENGTH)
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant sentAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,55 @@
+package com.gevernova.petvacination.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// One row per Idempotency-Key sent to an endpoint. The unique key picks which of several concurrent requests
+// with the same key runs: the others fail to insert and read this row instead. statusCode and responseBody
+// stay null while the request runs; afterwards they are replayed to every retry until the row expires.
+@Entity
+@Table(name = "idempotency_record",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_record_key", columnNames = {"endpoint", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_record_expires_at", columnList = "expires_at"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class IdempotencyRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_record_seq")
+    @SequenceGenerator(name = "idempotency_record_seq", sequenceName = "idempotency_record_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String endpoint;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, when the body is read up front; a retry with a different body is refused
+    @Column(length = 64)
+    private String requestHash;
+
+    private Integer statusCode;
+
+    @Lob
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    // While the request runs: after this a retry may take the claim over, as its holder is presumed dead
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,47 @@
+package com.gevernova.petvacination.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.util.Locale;
+
+// One row per owner, shared by all of their pets. The email identifies the owner: registering a pet
+// with a known email attaches it to the existing owner. Contacts are indexed but not unique, since a
+// household can share one number across owners.
+@Entity
+@Table(name = "pet_owner", indexes = {
+        @Index(name = "uk_pet_owner_email", columnList = "email", unique = true),
+        @Index(name = "idx_pet_owner_contact", columnList = "contact, id")
+})
+@DynamicUpdate
+// Owner proxies left uninitialized are loaded 100 at a time instead of one query per pet
+@BatchSize(size = 100)
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@ToString
+@Builder
+public class Owner {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pet_owner_seq")
+    @SequenceGenerator(name = "pet_owner_seq", sequenceName = "pet_owner_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private String contact;
+
+    // Always stored normalized so the unique index also catches differently cased duplicates
+    @Column(nullable = false)
+    private String email;
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
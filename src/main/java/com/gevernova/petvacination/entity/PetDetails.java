@@ -2,9 +2,25 @@ package com.gevernova.petvacination.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 
 @Entity
-@Table(name = "pet_details")
+// Each index ends in id so a search filtered on its leading columns reads rows already in keyset order
+@Table(name = "pet_details", indexes = {
+        @Index(name = "idx_pet_details_owner", columnList = "owner_id, id"),
+        @Index(name = "idx_pet_details_species_breed", columnList = "species, breed, id"),
+        @Index(name = "idx_pet_details_breed", columnList = "breed, id"),
+        @Index(name = "idx_pet_details_deleted_at", columnList = "deleted_at, id")
+})
+// UPDATE statements name only the columns that changed
+@DynamicUpdate
+// Deleted pets keep their row until PetPurgeJob removes it; every entity query, join and load skips them.
+// Native SQL does not, and has to filter on deleted_at itself.
+@SQLRestriction("deleted_at IS NULL")
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -14,10 +30,18 @@ import lombok.*;
 @Builder
 public class PetDetails {
 
+    // Pooled sequence ids let Hibernate batch inserts; IDENTITY would force one round trip per row
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pet_details_seq")
+    @SequenceGenerator(name = "pet_details_seq", sequenceName = "pet_details_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock: every write checks and bumps it, and it is the pet's ETag. Non-null, so adding
+    // the column to a populated MySQL table gives existing rows 0 rather than NULL.
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false)
     private String petName;
 
@@ -26,17 +50,25 @@ public class PetDetails {
 
     private String breed;
 
-    @Column(nullable = false)
-    private String ownerName;
-
-    @Column(nullable = false)
-    private String ownerContact;
-
-    @Column(nullable = false)
-    private String ownerEmail;
+    // Required, but the column stays nullable so ddl-auto can add it to a populated table;
+    // OwnerBackfill then fills it from the owner columns pets used to carry themselves
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Owner owner;
 
+    // A set rather than a bag: Hibernate can then insert or delete single rows instead of
+    // deleting and re-inserting the pet's whole vaccination history on every change.
     @ElementCollection
-    @CollectionTable(name="pet_vaccine" ,joinColumns=@JoinColumn(name="pet_id"))
-    private java.util.List<VaccinationDetails> vaccines;
+    @BatchSize(size = 100)
+    @OrderBy("dateGiven")
+    @CollectionTable(name="pet_vaccine" ,joinColumns=@JoinColumn(name="pet_id"),
+            indexes={@Index(name="idx_pet_vaccine_name_key", columnList="name_key, pet_id"),
+                    @Index(name="idx_pet_vaccine_date_given", columnList="date_given, pet_id")})
+    private java.util.Set<VaccinationDetails> vaccines;
 
+    // Tombstone: when the pet was deleted, null while it is live. Only written by the repository's native updates.
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
 }
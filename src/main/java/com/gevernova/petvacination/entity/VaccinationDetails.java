@@ -5,20 +5,42 @@ import jakarta.persistence.Embeddable;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Embeddable
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
-@Builder
+// Two doses are the same row when name and date match; pet_vaccine rows are deleted by these values
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class VaccinationDetails {
 
+    @EqualsAndHashCode.Include
     @Column(nullable = false)
     private String name;
 
+    // Case-folded copy of name used for indexed lookups; always derived from name, never set directly
+    @Setter(AccessLevel.NONE)
+    @Column(name = "name_key", nullable = false)
+    private String nameKey;
+
+    @EqualsAndHashCode.Include
     @Column(nullable = false)
     private LocalDate dateGiven;
 
+    @Builder
+    public VaccinationDetails(String name, LocalDate dateGiven) {
+        setName(name);
+        this.dateGiven = dateGiven;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+        this.nameKey = normalizeName(name);
+    }
+
+    public static String normalizeName(String name) {
+        return name == null ? null : name.trim().toLowerCase(Locale.ROOT);
+    }
 
 }
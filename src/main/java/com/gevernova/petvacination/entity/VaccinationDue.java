@@ -0,0 +1,65 @@
+package com.gevernova.petvacination.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// When each pet's next booster of each vaccine is due: one row per pet and vaccine, computed from the
+// latest dose and the BoosterCatalog interval. Due-date queries read only this table, so their cost does
+// not grow with the vaccination history held in pet_vaccine.
+@Entity
+@Table(name = "vaccination_due",
+        uniqueConstraints = @UniqueConstraint(name = "uk_vaccination_due_pet_vaccine", columnNames = {"pet_id", "vaccine_key"}),
+        indexes = {
+                @Index(name = "idx_vaccination_due_next_due", columnList = "next_due_date, id"),
+                @Index(name = "idx_vaccination_due_species_next_due", columnList = "species, next_due_date, id"),
+                @Index(name = "idx_vaccination_due_remind_on", columnList = "remind_on, id")
+        })
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class VaccinationDue {
+
+    // Lowest date MySQL's DATE type holds; open lower bound for overdue and reminder scans
+    public static final LocalDate EARLIEST_DUE_DATE = LocalDate.of(1000, 1, 1);
+
+    // Highest date MySQL's DATE type holds; remindOn of a row whose reminder has been queued
+    public static final LocalDate REMINDED = LocalDate.of(9999, 12, 31);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccination_due_seq")
+    @SequenceGenerator(name = "vaccination_due_seq", sequenceName = "vaccination_due_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "pet_id", nullable = false)
+    private Long petId;
+
+    @Column(name = "vaccine_key", nullable = false)
+    private String vaccineKey;
+
+    @Column(nullable = false)
+    private String vaccineName;
+
+    // Copied from the pet so species filters are served by the index without a join
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Species species;
+
+    @Column(nullable = false)
+    private LocalDate lastGiven;
+
+    @Column(nullable = false)
+    private LocalDate nextDueDate;
+
+    // The due date a reminder was last sent for
+    private LocalDate remindedFor;
+
+    // When the reminder scan should pick the row up: nextDueDate while a reminder is owed, REMINDED once it
+    // has been queued, so the scan's range seek never walks reminded history. A new dose moves nextDueDate
+    // and re-arms it. NULL only on rows written before the column existed, until RemindOnBackfill fills them.
+    @Column(name = "remind_on")
+    private LocalDate remindOn;
+}
@@ -0,0 +1,74 @@
+package com.gevernova.petvacination.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Precomputed vaccination counts, one row per group, so dashboard queries read O(groups) rows instead of
+// scanning pet_vaccine. Three kinds of row share the table:
+//   (species, ALL_VACCINES, ALL_MONTHS)  pets of the species, and how many have any vaccination
+//   (species, vaccine,      ALL_MONTHS)  pets of the species with at least one dose of the vaccine
+//   (species, vaccine,      month)       doses of the vaccine given in that month
+// Writers never touch these rows directly; they append to vaccination_stats_delta, which is folded in here.
+@Entity
+@Table(name = "vaccination_stats",
+        uniqueConstraints = @UniqueConstraint(name = "uk_vaccination_stats_group", columnNames = {"species", "vaccine_key", "stats_month"}),
+        indexes = @Index(name = "idx_vaccination_stats_month", columnList = "stats_month, species"))
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class VaccinationStats {
+
+    // Sentinels rather than NULL so the unique constraint holds on every database
+    public static final String ALL_VACCINES = "";
+    public static final LocalDate ALL_MONTHS = LocalDate.of(1000, 1, 1);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccination_stats_seq")
+    @SequenceGenerator(name = "vaccination_stats_seq", sequenceName = "vaccination_stats_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Species species;
+
+    @Column(name = "vaccine_key", nullable = false)
+    private String vaccineKey;
+
+    @Column(nullable = false)
+    private String vaccineName;
+
+    // First day of the month
+    // MONTH is a reserved word in H2
+    @Column(name = "stats_month", nullable = false)
+    private LocalDate month;
+
+    private long pets;
+
+    private long vaccinatedPets;
+
+    private long doses;
+
+    // Used by the JPQL projections that sum pending deltas
+    public VaccinationStats(Species species, String vaccineKey, String vaccineName, LocalDate month,
+                            Long pets, Long vaccinatedPets, Long doses) {
+        this(null, species, vaccineKey, vaccineName, month, pets, vaccinatedPets, doses);
+    }
+
+    public void add(VaccinationStats other) {
+        add(other.getPets(), other.getVaccinatedPets(), other.getDoses());
+    }
+
+    public void add(long pets, long vaccinatedPets, long doses) {
+        this.pets += pets;
+        this.vaccinatedPets += vaccinatedPets;
+        this.doses += doses;
+    }
+
+    public boolean isZero() {
+        return pets == 0 && vaccinatedPets == 0 && doses == 0;
+    }
+}
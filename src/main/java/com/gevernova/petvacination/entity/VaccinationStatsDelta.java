@@ -0,0 +1,43 @@
+package com.gevernova.petvacination.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// A change to one vaccination_stats group, appended in the transaction that made it. Inserts never
+// conflict, unlike incrementing a shared counter row; VaccinationStatsJob folds them into the summary.
+@Entity
+@Table(name = "vaccination_stats_delta")
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Builder
+public class VaccinationStatsDelta {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vaccination_stats_delta_seq")
+    @SequenceGenerator(name = "vaccination_stats_delta_seq", sequenceName = "vaccination_stats_delta_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Species species;
+
+    @Column(name = "vaccine_key", nullable = false)
+    private String vaccineKey;
+
+    @Column(nullable = false)
+    private String vaccineName;
+
+    // MONTH is a reserved word in H2
+    @Column(name = "stats_month", nullable = false)
+    private LocalDate month;
+
+    private int pets;
+
+    private int vaccinatedPets;
+
+    private int doses;
+}
@@ -3,12 +3,15 @@ package com.gevernova.petvacination.exceptionhandling;
 import com.gevernova.petvacination.dto.ResponseDTO; // Make sure this import is correct
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -30,6 +33,18 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(OwnerNotFoundException.class)
+    public ResponseEntity<ResponseDTO> handleOwnerNotFoundException(OwnerNotFoundException ownerNotFoundException) {
+        logger.warn("OwnerNotFoundException: {}", ownerNotFoundException.getMessage());
+        return new ResponseEntity<>(
+                ResponseDTO.builder()
+                        .message(ownerNotFoundException.getMessage())
+                        .data(null)
+                        .build(),
+                HttpStatus.NOT_FOUND // 404
+        );
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ResponseDTO> handleValidationExceptions(MethodArgumentNotValidException methodArgumentNotValidException) {
         Map<String, String> errors = new HashMap<>();
@@ -63,6 +78,69 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // A stale If-Match, or a concurrent write that bumped the version between our read and our UPDATE
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<ResponseDTO> handlePreconditionFailed(RuntimeException exception) {
+        logger.warn("Precondition failed: {}", exception.getMessage());
+        return new ResponseEntity<>(
+                ResponseDTO.builder()
+                        .message(exception instanceof PreconditionFailedException
+                                ? exception.getMessage()
+                                : "The pet was changed by another request; fetch it again and retry")
+                        .data(null)
+                        .build(),
+                HttpStatus.PRECONDITION_FAILED // 412
+        );
+    }
+
+    @ExceptionHandler(PreconditionRequiredException.class)
+    public ResponseEntity<ResponseDTO> handlePreconditionRequired(PreconditionRequiredException exception) {
+        logger.warn("Precondition required: {}", exception.getMessage());
+        return new ResponseEntity<>(
+                ResponseDTO.builder()
+                        .message(exception.getMessage())
+                        .data(null)
+                        .build(),
+                HttpStatus.PRECONDITION_REQUIRED // 428
+        );
+    }
+
+    // A retry arrived while the first request with its Idempotency-Key is still running
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ResponseDTO> handleIdempotencyConflict(IdempotencyConflictException exception) {
+        logger.warn("Idempotency conflict: {}", exception.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT) // 409
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ResponseDTO.builder()
+                        .message(exception.getMessage())
+                        .data(null)
+                        .build());
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ResponseDTO> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException exception) {
+        logger.warn("Idempotency key reused: {}", exception.getMessage());
+        return new ResponseEntity<>(
+                ResponseDTO.builder()
+                        .message(exception.getMessage())
+                        .data(null)
+                        .build(),
+                HttpStatus.UNPROCESSABLE_ENTITY // 422
+        );
+    }
+
+    @ExceptionHandler({InvalidRequestException.class, MethodArgumentTypeMismatchException.class})
+    public ResponseEntity<ResponseDTO> handleBadRequestParameter(Exception exception) {
+        logger.warn("Invalid request parameter: {}", exception.getMessage());
+        return new ResponseEntity<>(
+                ResponseDTO.builder()
+                        .message(exception.getMessage())
+                        .data(null)
+                        .build(),
+                HttpStatus.BAD_REQUEST // 400
+        );
+    }
+
 
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResponseDTO> handleGlobalException(Exception exception) {
@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.exceptionhandling;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
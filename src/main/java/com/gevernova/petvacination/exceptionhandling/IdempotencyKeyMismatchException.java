@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.exceptionhandling;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.exceptionhandling;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
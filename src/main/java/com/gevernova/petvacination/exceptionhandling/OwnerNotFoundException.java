@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.exceptionhandling;
+
+public class OwnerNotFoundException extends RuntimeException {
+    public OwnerNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.gevernova.petvacination.exceptionhandling;
+
+public class PreconditionRequiredException extends RuntimeException {
+    public PreconditionRequiredException(String message) {
+        super(message);
+    }
+}
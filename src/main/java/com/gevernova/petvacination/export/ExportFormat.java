@@ -0,0 +1,26 @@
+package com.gevernova.petvacination.export;
+
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+    // One line per vaccination (or one per pet without any), pet and owner columns repeated
+    CSV(MediaType.parseMediaType("text/csv"), "csv"),
+    // One pet per line with its vaccinations nested, the shape POST /api/pets/bulk accepts
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    ExportFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,178 @@
+package com.gevernova.petvacination.export;
+
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.VaccinationRequestDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.exceptionhandling.InvalidRequestException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+// Reads the CSV layout written by PetExporter one record at a time, folding consecutive lines with the same
+// pet_id into one PetRequestDTO. Only the current pet and one line of look-ahead are held in memory. The pet_id
+// column only groups lines; imported pets get new ids. Empty fields read as null.
+public class PetCsvReader implements Iterator<PetRequestDTO> {
+
+    private static final int COLUMNS = 9;
+
+    private final Reader reader;
+    private List<String> pending;
+    private long line;
+    private boolean finished;
+
+    public PetCsvReader(Reader reader) {
+        this.reader = reader.markSupported() ? reader : new BufferedReader(reader, 64 * 1024);
+        List<String> header = readRecord();
+        if (header == null || !String.join(",", header).equals(PetExporter.CSV_HEADER)) {
+            throw new InvalidRequestException("CSV header must be: " + PetExporter.CSV_HEADER);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && !finished) {
+            pending = readRecord();
+            finished = pending == null;
+        }
+        return pending != null;
+    }
+
+    @Override
+    public PetRequestDTO next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<String> first = pending;
+        pending = null;
+        String petId = first.get(0);
+
+        PetRequestDTO request = new PetRequestDTO();
+        request.setName(first.get(1));
+        request.setSpecies(species(first.get(2)));
+        request.setBreed(first.get(3));
+        request.setOwnerName(first.get(4));
+        request.setOwnerContact(first.get(5));
+        request.setOwnerEmail(first.get(6));
+        List<VaccinationRequestDTO> vaccines = new ArrayList<>();
+        addVaccine(vaccines, first);
+        while (hasNext() && Objects.equals(pending.get(0), petId)) {
+            addVaccine(vaccines, pending);
+            pending = null;
+        }
+        request.setVaccines(vaccines);
+        return request;
+    }
+
+    private void addVaccine(List<VaccinationRequestDTO> vaccines, List<String> record) {
+        String name = record.get(7);
+        String dateGiven = record.get(8);
+        if (name != null || dateGiven != null) {
+            vaccines.add(new VaccinationRequestDTO(name, date(dateGiven)));
+        }
+    }
+
+    private Species species(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Species.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Unknown species '" + value + "' on line " + line);
+        }
+    }
+
+    private LocalDate date(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Invalid date '" + value + "' on line " + line);
+        }
+    }
+
+    // RFC 4180 record: quoted fields may hold commas, doubled quotes and line breaks. Returns null at end of
+    // input; blank lines are skipped.
+    private List<String> readRecord() {
+        try {
+            List<String> fields = new ArrayList<>(COLUMNS);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean wasQuoted = false;
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new InvalidRequestException("Unterminated quoted field on line " + line);
+                    }
+                    if (c == '"') {
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty() && !wasQuoted) {
+                    quoted = true;
+                    wasQuoted = true;
+                } else if (c == ',') {
+                    fields.add(value(field, wasQuoted));
+                    field.setLength(0);
+                    wasQuoted = false;
+                } else if (c == '\r' || c == '\n' || c == -1) {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    if (fields.isEmpty() && field.isEmpty() && !wasQuoted) {
+                        if (c == -1) {
+                            return null;
+                        }
+                        c = reader.read();
+                        if (c == -1) {
+                            return null;
+                        }
+                        line++;
+                        continue;
+                    }
+                    fields.add(value(field, wasQuoted));
+                    if (fields.size() != COLUMNS) {
+                        throw new InvalidRequestException("Expected " + COLUMNS + " fields on line " + line + " but found " + fields.size());
+                    }
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String value(StringBuilder field, boolean wasQuoted) {
+        return field.isEmpty() && !wasQuoted ? null : field.toString();
+    }
+}
@@ -0,0 +1,218 @@
+package com.gevernova.petvacination.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.entity.Species;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+// Streams the whole registry from a forward-only, read-only JDBC cursor straight to an output stream:
+// each joined row of pet_details, pet_owner and pet_vaccine is written as soon as it is read, and nothing
+// is kept but the current pet's id, so memory stays flat however large the table. Rows come ordered by
+// pet id, which keeps each pet's vaccinations together.
+@Component
+public class PetExporter {
+
+    static final String CSV_HEADER = "pet_id,name,species,breed,owner_name,owner_contact,owner_email,vaccine_name,date_given";
+
+    private static final String EXPORT_QUERY = "SELECT p.id, p.pet_name, p.species, p.breed, o.name, o.contact, o.email,"
+            + " v.name, v.date_given"
+            + " FROM pet_details p LEFT JOIN pet_owner o ON o.id = p.owner_id LEFT JOIN pet_vaccine v ON v.pet_id = p.id"
+            + " WHERE p.deleted_at IS NULL ORDER BY p.id";
+    private static final Species[] SPECIES = Species.values();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public PetExporter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                       @Value("${pet.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    // Returns the number of pets written. The caller owns and closes the stream.
+    @Transactional(readOnly = true)
+    public long export(ExportFormat format, OutputStream outputStream) throws IOException {
+        try (RowWriter writer = format == ExportFormat.CSV
+                ? new CsvRowWriter(outputStream)
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(outputStream))) {
+            ExportRow row = new ExportRow();
+            long[] pets = {0};
+            jdbcTemplate.query(this::exportStatement, resultSet -> {
+                row.read(resultSet);
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (row.newPet) {
+                    pets[0]++;
+                }
+            });
+            return pets[0];
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private PreparedStatement exportStatement(Connection connection) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(EXPORT_QUERY, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // Connector/J reads the whole result into memory for any other fetch size unless useCursorFetch is set;
+        // MIN_VALUE makes it stream row by row
+        statement.setFetchSize(isMySql(connection) ? Integer.MIN_VALUE : fetchSize);
+        return statement;
+    }
+
+    private static boolean isMySql(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        return product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+    }
+
+    // One instance reused for every row
+    private static final class ExportRow {
+        private long lastPetId = -1;
+        private boolean newPet;
+        private long petId;
+        private String petName;
+        private Species species;
+        private String breed;
+        private String ownerName;
+        private String ownerContact;
+        private String ownerEmail;
+        private String vaccineName;
+        private LocalDate dateGiven;
+
+        void read(ResultSet resultSet) throws SQLException {
+            petId = resultSet.getLong(1);
+            newPet = petId != lastPetId;
+            lastPetId = petId;
+            petName = resultSet.getString(2);
+            int species = resultSet.getInt(3);
+            this.species = resultSet.wasNull() ? null : SPECIES[species];
+            breed = resultSet.getString(4);
+            ownerName = resultSet.getString(5);
+            ownerContact = resultSet.getString(6);
+            ownerEmail = resultSet.getString(7);
+            vaccineName = resultSet.getString(8);
+            dateGiven = resultSet.getObject(9, LocalDate.class);
+        }
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void write(ExportRow row) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream outputStream) throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+            writer.write(CSV_HEADER);
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            writer.write(Long.toString(row.petId));
+            field(row.petName);
+            field(row.species != null ? row.species.name() : null);
+            field(row.breed);
+            field(row.ownerName);
+            field(row.ownerContact);
+            field(row.ownerEmail);
+            field(row.vaccineName);
+            field(row.dateGiven != null ? row.dateGiven.toString() : null);
+            writer.write("\r\n");
+        }
+
+        // RFC 4180: values holding a comma, quote or line break are quoted, with quotes doubled. Null is an
+        // empty field.
+        private void field(String value) throws IOException {
+            writer.write(',');
+            if (value != null) {
+                if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                    writer.write('"');
+                    writer.write(value.replace("\"", "\"\""));
+                    writer.write('"');
+                } else {
+                    writer.write(value);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private static final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean open;
+
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ExportRow row) throws IOException {
+            if (row.newPet) {
+                endPet();
+                generator.writeStartObject();
+                generator.writeNumberField("id", row.petId);
+                generator.writeStringField("name", row.petName);
+                generator.writeStringField("species", row.species != null ? row.species.name() : null);
+                generator.writeStringField("breed", row.breed);
+                generator.writeStringField("ownerName", row.ownerName);
+                generator.writeStringField("ownerContact", row.ownerContact);
+                generator.writeStringField("ownerEmail", row.ownerEmail);
+                generator.writeArrayFieldStart("vaccines");
+                open = true;
+            }
+            // A pet without vaccinations comes as one row with null vaccine columns
+            if (row.vaccineName != null) {
+                generator.writeStartObject();
+                generator.writeStringField("name", row.vaccineName);
+                generator.writeStringField("dateGiven", row.dateGiven != null ? row.dateGiven.toString() : null);
+                generator.writeEndObject();
+            }
+        }
+
+        private void endPet() throws IOException {
+            if (open) {
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                open = false;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            endPet();
+            generator.close();
+        }
+    }
+}
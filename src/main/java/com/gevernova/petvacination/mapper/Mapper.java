@@ -2,7 +2,10 @@ package com.gevernova.petvacination.mapper;
 
 import com.gevernova.petvacination.dto.PetResponseDTO;
 import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
 import com.gevernova.petvacination.dto.VaccinationDTO;
+import com.gevernova.petvacination.dto.VaccinationRequestDTO;
+import com.gevernova.petvacination.entity.Owner;
 import com.gevernova.petvacination.entity.PetDetails;
 import com.gevernova.petvacination.entity.VaccinationDetails;
 import lombok.RequiredArgsConstructor;
@@ -10,9 +13,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+// Runs for every pet on every request, so it sticks to plain loops, pre-sized lists and constructors
+// instead of stream pipelines and builders (see MapperBenchmark in the benchmarks module).
 @Component
 @RequiredArgsConstructor
 public class Mapper {
@@ -20,54 +27,67 @@ public class Mapper {
     private static final Logger logger = LoggerFactory.getLogger(Mapper.class);
 
     public static PetDetails mapToEntity(PetRequestDTO requestDTO) {
-        List<VaccinationDetails> vaccinationDetailsList = null;
-        if (requestDTO.getVaccines() != null) {
-            vaccinationDetailsList = requestDTO.getVaccines().stream()
-                    .map(vaccineDTO -> VaccinationDetails.builder() // Use builder for VaccinationDetails
-                            .name(vaccineDTO.getName())
-                            .dateGiven(vaccineDTO.getDateGiven())
-                            .build())
-                    .collect(Collectors.toList());
-        }
+        PetDetails petDetails = new PetDetails();
+        petDetails.setPetName(requestDTO.getName()); // Mapping DTO 'name' to entity 'petName'
+        petDetails.setSpecies(requestDTO.getSpecies());
+        petDetails.setBreed(requestDTO.getBreed());
+        // Unsaved owner carrying the request's details; the service swaps in the stored owner with this email
+        petDetails.setOwner(new Owner(null, requestDTO.getOwnerName(), requestDTO.getOwnerContact(), requestDTO.getOwnerEmail()));
+        petDetails.setVaccines(mapToEntities(requestDTO.getVaccines()));
+        return petDetails;
+    }
 
-        return PetDetails.builder() // Use builder for PetDetails
-                .petName(requestDTO.getName()) // Mapping DTO 'name' to entity 'petName'
-                .species(requestDTO.getSpecies())
-                .breed(requestDTO.getBreed())
-                .ownerName(requestDTO.getOwnerName())
-                .ownerContact(requestDTO.getOwnerContact())
-                .ownerEmail(requestDTO.getOwnerEmail())
-                .vaccines(vaccinationDetailsList != null ? vaccinationDetailsList : List.of()) // Handle null list
-                .build();
+    public static Set<VaccinationDetails> mapToEntities(List<VaccinationRequestDTO> requestedVaccines) {
+        int vaccineCount = requestedVaccines != null ? requestedVaccines.size() : 0; // Handle null list
+        Set<VaccinationDetails> vaccinationDetailsSet = LinkedHashSet.newLinkedHashSet(vaccineCount);
+        for (int i = 0; i < vaccineCount; i++) {
+            vaccinationDetailsSet.add(mapToEntity(requestedVaccines.get(i)));
+        }
+        return vaccinationDetailsSet;
+    }
 
+    public static VaccinationDetails mapToEntity(VaccinationRequestDTO vaccineDTO) {
+        return new VaccinationDetails(vaccineDTO.getName(), vaccineDTO.getDateGiven());
     }
 
-    // Business logic for mapping Entity to Response DTO using Builder
+    // Business logic for mapping Entity to Response DTO
     public static PetResponseDTO mapToDTO(PetDetails petDetails) {
         if (petDetails == null) {
             return null;
         }
 
-        List<VaccinationDTO> vaccinationDataDTOList = null;
-        if (petDetails.getVaccines() != null) {
-            vaccinationDataDTOList = petDetails.getVaccines().stream()
-                    .map(vaccineDetail -> VaccinationDTO.builder() // Use builder for VaccinationDataDTO
-                            .name(vaccineDetail.getName())
-                            .dateGiven(vaccineDetail.getDateGiven())
-                            .build())
-                    .collect(Collectors.toList());
+        Set<VaccinationDetails> vaccines = petDetails.getVaccines();
+        int vaccineCount = vaccines != null ? vaccines.size() : 0; // Handle null list
+        List<VaccinationDTO> vaccinationDataDTOList = new ArrayList<>(vaccineCount);
+        if (vaccineCount > 0) {
+            for (VaccinationDetails vaccineDetail : vaccines) {
+                vaccinationDataDTOList.add(new VaccinationDTO(vaccineDetail.getName(), vaccineDetail.getDateGiven()));
+            }
         }
 
-        return PetResponseDTO.builder() // Use builder for PetDataDTO
-                .id(petDetails.getId())
-                .name(petDetails.getPetName()) // Mapping entity 'petName' to DTO 'name'
-                .species(petDetails.getSpecies())
-                .breed(petDetails.getBreed())
-                .ownerName(petDetails.getOwnerName())
-                .ownerContact(petDetails.getOwnerContact())
-                .ownerEmail(petDetails.getOwnerEmail())
-                .vaccines(vaccinationDataDTOList != null ? vaccinationDataDTOList : List.of()) // Handle null list
-                .build();
+        Owner owner = petDetails.getOwner();
+        return new PetResponseDTO(
+                petDetails.getId(),
+                petDetails.getPetName(), // Mapping entity 'petName' to DTO 'name'
+                petDetails.getSpecies(),
+                petDetails.getBreed(),
+                owner != null ? owner.getId() : null,
+                owner != null ? owner.getName() : null,
+                owner != null ? owner.getContact() : null,
+                owner != null ? owner.getEmail() : null,
+                vaccinationDataDTOList,
+                petDetails.getVersion());
+    }
+
+    public static PetSummaryDTO mapToSummary(PetDetails petDetails) {
+        Owner owner = petDetails.getOwner();
+        return new PetSummaryDTO(
+                petDetails.getId(),
+                petDetails.getPetName(),
+                petDetails.getSpecies(),
+                petDetails.getBreed(),
+                owner != null ? owner.getName() : null,
+                owner != null ? owner.getEmail() : null);
     }
 
 }
@@ -0,0 +1,62 @@
+package com.gevernova.petvacination.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Set;
+
+// Writes a PetDetails straight to a JsonGenerator in exactly the shape Jackson gives PetResponseDTO,
+// skipping the intermediate DTOs. Used where many pets are written in a row, such as the NDJSON stream.
+public final class PetJsonWriter {
+
+    private PetJsonWriter() {
+    }
+
+    public static void writePet(JsonGenerator generator, PetDetails petDetails) throws IOException {
+        generator.writeStartObject();
+        writeNumberOrNull(generator, "id", petDetails.getId());
+        generator.writeStringField("name", petDetails.getPetName());
+        generator.writeStringField("species", petDetails.getSpecies() != null ? petDetails.getSpecies().name() : null);
+        generator.writeStringField("breed", petDetails.getBreed());
+        Owner owner = petDetails.getOwner();
+        writeNumberOrNull(generator, "ownerId", owner != null ? owner.getId() : null);
+        generator.writeStringField("ownerName", owner != null ? owner.getName() : null);
+        generator.writeStringField("ownerContact", owner != null ? owner.getContact() : null);
+        generator.writeStringField("ownerEmail", owner != null ? owner.getEmail() : null);
+
+        generator.writeArrayFieldStart("vaccines");
+        Set<VaccinationDetails> vaccines = petDetails.getVaccines();
+        if (vaccines != null) {
+            for (VaccinationDetails vaccine : vaccines) {
+                generator.writeStartObject();
+                generator.writeStringField("name", vaccine.getName());
+                writeDateOrNull(generator, "dateGiven", vaccine.getDateGiven());
+                generator.writeEndObject();
+            }
+        }
+        generator.writeEndArray();
+        writeNumberOrNull(generator, "version", petDetails.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeNumberOrNull(JsonGenerator generator, String field, Long value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(field, value);
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    // LocalDate.toString() is ISO-8601, the same text the application's ObjectMapper produces
+    private static void writeDateOrNull(JsonGenerator generator, String field, LocalDate value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value.toString());
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.gevernova.petvacination.metrics;
+
+import com.gevernova.petvacination.dto.LatencyStatsDTO;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Lock-free latency histogram with power-of-two nanosecond buckets (1ns up to ~69s).
+// Recording is a couple of LongAdder increments and never allocates.
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 37;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos, boolean failed) {
+        long value = Math.max(nanos, 1);
+        buckets[Math.min(63 - Long.numberOfLeadingZeros(value), BUCKETS - 1)].increment();
+        count.increment();
+        totalNanos.add(value);
+        if (failed) {
+            errors.increment();
+        }
+        if (value > maxNanos.get()) {
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public LatencyStatsDTO snapshot(String name) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        double maxMs = maxNanos.get() / 1_000_000.0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        return LatencyStatsDTO.builder()
+                .name(name)
+                .count(count.sum())
+                .errors(errors.sum())
+                .meanMs(total == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / total)
+                .p50Ms(Math.min(percentile(counts, total, 0.50), maxMs))
+                .p95Ms(Math.min(percentile(counts, total, 0.95), maxMs))
+                .p99Ms(Math.min(percentile(counts, total, 0.99), maxMs))
+                .maxMs(maxMs)
+                .build();
+    }
+
+    // Upper bound of the bucket holding the quantile; the caller caps it at the observed maximum
+    private static double percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (1L << (i + 1)) / 1_000_000.0;
+            }
+        }
+        return (1L << BUCKETS) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,52 @@
+package com.gevernova.petvacination.metrics;
+
+import com.gevernova.petvacination.dto.LatencyStatsDTO;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-method call counts, error counts and latency histograms for the service layer
+@Component
+public class MethodMetrics {
+
+    private final ConcurrentHashMap<Method, Entry> entries = new ConcurrentHashMap<>();
+
+    public void record(Method method, long nanos, boolean failed) {
+        Entry entry = entries.get(method);
+        if (entry == null) {
+            entry = entries.computeIfAbsent(method, Entry::new);
+        }
+        entry.histogram.record(nanos, failed);
+    }
+
+    public String nameOf(Method method) {
+        Entry entry = entries.get(method);
+        return entry != null ? entry.name : Entry.name(method);
+    }
+
+    public List<LatencyStatsDTO> snapshot() {
+        List<LatencyStatsDTO> stats = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            stats.add(entry.histogram.snapshot(entry.name));
+        }
+        stats.sort(Comparator.comparing(LatencyStatsDTO::getName));
+        return stats;
+    }
+
+    private static final class Entry {
+        private final String name;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        Entry(Method method) {
+            this.name = name(method);
+        }
+
+        static String name(Method method) {
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.gevernova.petvacination.metrics;
+
+import com.gevernova.petvacination.dto.LatencyStatsDTO;
+import com.gevernova.petvacination.dto.QueryShapeStatsDTO;
+import com.gevernova.petvacination.dto.QueryStatsDTO;
+import com.gevernova.petvacination.dto.RequestQueryStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+// Statement latency and rows per query shape (the SQL with literals and IN lists folded), time spent waiting for
+// a pooled connection, and statements per HTTP request. A request running far more statements than usual
+// is the mark of an N+1 load, so those are counted and logged. Slow statements are logged as their shape,
+// which never contains bind values or literals.
+public class QueryMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryMetrics.class);
+
+    // Bounds memory if an application bug produces endlessly distinct SQL; the excess is counted under OTHER
+    private static final int MAX_SHAPES = 500;
+    private static final int MAX_SQL_KEYS = 5000;
+    private static final int MAX_SHAPE_LENGTH = 1000;
+    // Endpoints come from handler patterns, so there are few; the cap only matters if a caller can mint new keys
+    private static final int MAX_ENDPOINTS = 200;
+    static final String OTHER = "(other statements)";
+    static final String OTHER_ENDPOINTS = "(other endpoints)";
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w$])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final long slowThresholdNanos;
+    private final int requestStatementThreshold;
+
+    private final ConcurrentHashMap<String, Shape> bySql = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Shape> shapes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, RequestEntry> requests = new ConcurrentHashMap<>();
+    private final LatencyHistogram connectionAcquire = new LatencyHistogram();
+    private final LongAdder slowQueries = new LongAdder();
+    // Statements run so far by the request on this thread; null outside requests
+    private final ThreadLocal<long[]> requestStatements = new ThreadLocal<>();
+
+    public QueryMetrics(Duration slowThreshold, int requestStatementThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.requestStatementThreshold = requestStatementThreshold;
+    }
+
+    public static final class Shape {
+        private final String sql;
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder rows = new LongAdder();
+
+        private Shape(String sql) {
+            this.sql = sql;
+        }
+
+        public void addRows(long count) {
+            rows.add(count);
+        }
+    }
+
+    private static final class RequestEntry {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final LongAdder overThreshold = new LongAdder();
+    }
+
+    // Statements prepared once and run many times look up their shape once, here
+    public Shape shapeOf(String sql) {
+        Shape shape = bySql.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        String normalized = normalize(sql);
+        shape = shapes.get(normalized);
+        if (shape == null) {
+            shape = shapes.size() < MAX_SHAPES
+                    ? shapes.computeIfAbsent(normalized, Shape::new)
+                    : shapes.computeIfAbsent(OTHER, Shape::new);
+        }
+        if (bySql.size() < MAX_SQL_KEYS) {
+            bySql.putIfAbsent(sql, shape);
+        }
+        return shape;
+    }
+
+    public void recordExecution(Shape shape, long nanos, boolean failed) {
+        shape.histogram.record(nanos, failed);
+        long[] statements = requestStatements.get();
+        if (statements != null) {
+            statements[0]++;
+        }
+        if (nanos >= slowThresholdNanos) {
+            slowQueries.increment();
+            logger.warn("Slow query took {} ms{}: {}", nanos / 1_000_000, failed ? " and failed" : "", shape.sql);
+        }
+    }
+
+    public void recordConnectionAcquire(long nanos, boolean failed) {
+        connectionAcquire.record(nanos, failed);
+    }
+
+    public void beginRequest() {
+        requestStatements.set(new long[1]);
+    }
+
+    // endpoint: the method and handler pattern, e.g. "GET /api/pets/{id}"
+    public void endRequest(String endpoint) {
+        long[] statements = requestStatements.get();
+        requestStatements.remove();
+        if (statements == null) {
+            return;
+        }
+        RequestEntry entry = requests.get(endpoint);
+        if (entry == null) {
+            entry = requests.size() < MAX_ENDPOINTS
+                    ? requests.computeIfAbsent(endpoint, e -> new RequestEntry())
+                    : requests.computeIfAbsent(OTHER_ENDPOINTS, e -> new RequestEntry());
+        }
+        entry.requests.increment();
+        entry.statements.add(statements[0]);
+        entry.maxStatements.accumulateAndGet(statements[0], Math::max);
+        if (statements[0] > requestStatementThreshold) {
+            entry.overThreshold.increment();
+            logger.warn("{} ran {} statements (threshold {}); look for lazy loads in a loop", endpoint, statements[0], requestStatementThreshold);
+        }
+    }
+
+    static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        shape = IN_LIST.matcher(shape).replaceAll("IN (?, ...)");
+        return shape.length() > MAX_SHAPE_LENGTH ? shape.substring(0, MAX_SHAPE_LENGTH) + "..." : shape;
+    }
+
+    public QueryStatsDTO snapshot() {
+        List<QueryShapeStatsDTO> queries = new ArrayList<>(shapes.size());
+        long statements = 0;
+        for (Shape shape : shapes.values()) {
+            LatencyStatsDTO latency = shape.histogram.snapshot(shape.sql);
+            statements += latency.getCount();
+            queries.add(QueryShapeStatsDTO.builder()
+                    .sql(shape.sql)
+                    .count(latency.getCount())
+                    .errors(latency.getErrors())
+                    .rows(shape.rows.sum())
+                    .totalMs(latency.getMeanMs() * latency.getCount())
+                    .meanMs(latency.getMeanMs())
+                    .p95Ms(latency.getP95Ms())
+                    .p99Ms(latency.getP99Ms())
+                    .maxMs(latency.getMaxMs())
+                    .build());
+        }
+        // Most expensive first: where time goes matters more than which statement is slowest once
+        queries.sort(Comparator.comparingDouble(QueryShapeStatsDTO::getTotalMs).reversed());
+
+        List<RequestQueryStatsDTO> perRequest = new ArrayList<>(requests.size());
+        requests.forEach((endpoint, entry) -> {
+            long count = entry.requests.sum();
+            long total = entry.statements.sum();
+            perRequest.add(RequestQueryStatsDTO.builder()
+                    .endpoint(endpoint)
+                    .requests(count)
+                    .statements(total)
+                    .meanStatements(count == 0 ? 0 : (double) total / count)
+                    .maxStatements(entry.maxStatements.get())
+                    .overThreshold(entry.overThreshold.sum())
+                    .build());
+        });
+        perRequest.sort(Comparator.comparing(RequestQueryStatsDTO::getEndpoint));
+
+        return QueryStatsDTO.builder()
+                .statements(statements)
+                .slowQueries(slowQueries.sum())
+                .slowThresholdMs(slowThresholdNanos / 1_000_000.0)
+                .requestStatementThreshold(requestStatementThreshold)
+                .connectionAcquire(connectionAcquire.snapshot("connection acquire"))
+                .queries(queries)
+                .requests(perRequest)
+                .build();
+    }
+}
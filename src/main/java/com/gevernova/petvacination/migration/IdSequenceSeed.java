@@ -0,0 +1,70 @@
+package com.gevernova.petvacination.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.Map;
+
+// pet_details and email_outbox used IDENTITY ids before moving to pooled sequences. On MySQL, Hibernate
+// emulates each sequence with a one-row table that starts at 1, so it is moved past the highest existing
+// id (plus one allocation block) to keep new ids from colliding with old rows. Runs while the context starts,
+// before the EntityManagerFactory (see IdSequenceSeedConfig), so no id is ever drawn from an unseeded
+// sequence. On the first start after the switch the sequence table does not exist yet; it is created here,
+// in the shape Hibernate expects, and schema update then leaves it alone.
+public class IdSequenceSeed implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdSequenceSeed.class);
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "pet_details", "pet_details_seq",
+            "email_outbox", "email_outbox_seq");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceSeed(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (!isMySql()) {
+            return;
+        }
+        SEQUENCES.forEach((table, sequence) -> {
+            // A database without the table yet has no old ids to step over
+            if (!tableExists(table)) {
+                return;
+            }
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long floor = maxId + ALLOCATION_SIZE + 1;
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + sequence + " (next_val bigint) engine=InnoDB");
+            int updated = jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ? WHERE next_val < ?", floor, floor);
+            if (updated == 0 && jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequence, Long.class) == 0) {
+                updated = jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) VALUES (?)", floor);
+            }
+            if (updated > 0) {
+                logger.info("Moved {} past existing {} ids to {}", sequence, table, floor);
+            }
+        });
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+    }
+
+    private boolean tableExists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet tables = metaData.getTables(connection.getCatalog(), null, table, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        }));
+    }
+}
@@ -0,0 +1,24 @@
+package com.gevernova.petvacination.migration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// The seed has to finish before Hibernate hands out ids, so it is a bean the EntityManagerFactory depends on
+// rather than an ApplicationRunner, which would only run once the web server is already taking requests.
+@Configuration
+@ConditionalOnProperty(name = "pet.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class IdSequenceSeedConfig {
+
+    @Bean
+    public IdSequenceSeed idSequenceSeed(JdbcTemplate jdbcTemplate) {
+        return new IdSequenceSeed(jdbcTemplate);
+    }
+
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor idSequenceSeedDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("idSequenceSeed");
+    }
+}
@@ -0,0 +1,152 @@
+package com.gevernova.petvacination.migration;
+
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.repository.OwnerRepository;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Pets used to carry owner_name, owner_contact and owner_email themselves. Where those columns exist,
+// this links every pet without an owner_id to the pet_owner row for its email, creating owners as needed
+// from the first pet seen and never overwriting an existing owner. Runs in id order, one short transaction
+// per batch, so an interrupted run resumes where it stopped.
+//
+// The old columns are kept for rollback but made nullable first, since new pets no longer write them.
+@Component
+@ConditionalOnProperty(name = "pet.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class OwnerBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerBackfill.class);
+    private static final List<String> LEGACY_COLUMNS = List.of("owner_name", "owner_contact", "owner_email");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OwnerRepository ownerRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OwnerBackfill(JdbcTemplate jdbcTemplate,
+                         OwnerRepository ownerRepository,
+                         EntityManager entityManager,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${pet.migration.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownerRepository = ownerRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Map<String, Boolean> legacyColumns = legacyColumnNullability();
+        if (legacyColumns.size() < LEGACY_COLUMNS.size()) {
+            return;
+        }
+        legacyColumns.forEach((column, nullable) -> {
+            if (!nullable) {
+                jdbcTemplate.execute(isMySql()
+                        ? "ALTER TABLE pet_details MODIFY COLUMN " + column + " VARCHAR(255) NULL"
+                        : "ALTER TABLE pet_details ALTER COLUMN " + column + " DROP NOT NULL");
+                logger.info("Made legacy column pet_details.{} nullable", column);
+            }
+        });
+
+        long afterId = 0;
+        long total = 0;
+        List<LegacyOwner> rows;
+        do {
+            long pageAfterId = afterId;
+            rows = transactionTemplate.execute(status -> {
+                List<LegacyOwner> page = jdbcTemplate.query(
+                        "SELECT id, owner_name, owner_contact, owner_email FROM pet_details"
+                                + " WHERE owner_id IS NULL AND owner_email IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new LegacyOwner(rs.getLong(1), rs.getString(2), rs.getString(3),
+                                Owner.normalizeEmail(rs.getString(4))),
+                        pageAfterId, batchSize);
+                linkOwners(page);
+                return page;
+            });
+            if (rows == null || rows.isEmpty()) {
+                break;
+            }
+            total += rows.size();
+            afterId = rows.get(rows.size() - 1).petId();
+        } while (rows.size() == batchSize);
+
+        if (total > 0) {
+            logger.info("Linked {} pets to owners", total);
+        }
+    }
+
+    private void linkOwners(List<LegacyOwner> page) {
+        Set<String> emails = new HashSet<>();
+        for (LegacyOwner row : page) {
+            emails.add(row.email());
+        }
+        Map<String, Owner> owners = new HashMap<>();
+        for (Owner owner : ownerRepository.findByEmailIn(emails)) {
+            owners.put(owner.getEmail(), owner);
+        }
+
+        List<Object[]> links = new ArrayList<>(page.size());
+        for (LegacyOwner row : page) {
+            Owner owner = owners.get(row.email());
+            if (owner == null) {
+                owner = ownerRepository.save(new Owner(null, row.name(), row.contact(), row.email()));
+                owners.put(row.email(), owner);
+            }
+            links.add(new Object[]{owner.getId(), row.petId()});
+        }
+        entityManager.flush();
+        entityManager.clear();
+        jdbcTemplate.batchUpdate("UPDATE pet_details SET owner_id = ? WHERE id = ?", links);
+    }
+
+    // Legacy column name to whether it already accepts NULL; empty when the columns were never created
+    private Map<String, Boolean> legacyColumnNullability() {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, Boolean>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            boolean upperCase = metaData.storesUpperCaseIdentifiers();
+            Map<String, Boolean> columns = new LinkedHashMap<>();
+            for (String column : LEGACY_COLUMNS) {
+                try (ResultSet rs = metaData.getColumns(connection.getCatalog(), null,
+                        upperCase ? "PET_DETAILS" : "pet_details", upperCase ? column.toUpperCase(Locale.ROOT) : column)) {
+                    if (rs.next()) {
+                        columns.put(column, "YES".equals(rs.getString("IS_NULLABLE")));
+                    }
+                }
+            }
+            return columns;
+        });
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        return product != null && (product.contains("MySQL") || product.contains("MariaDB"));
+    }
+
+    private record LegacyOwner(long petId, String name, String contact, String email) {
+    }
+}
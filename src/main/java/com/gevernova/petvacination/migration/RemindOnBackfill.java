@@ -0,0 +1,51 @@
+package com.gevernova.petvacination.migration;
+
+import com.gevernova.petvacination.entity.VaccinationDue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+
+// Fills vaccination_due.remind_on for rows written before the column existed: the due date if it has not been
+// reminded yet, otherwise VaccinationDue.REMINDED. Until then the reminder scan does not see those rows.
+// Runs in bounded batches; every batch moves its rows off NULL, and once none are left the lookup is a single
+// empty seek on idx_vaccination_due_remind_on, so later starts cost nothing.
+@Component
+@ConditionalOnProperty(name = "pet.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class RemindOnBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RemindOnBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public RemindOnBackfill(JdbcTemplate jdbcTemplate,
+                            @Value("${pet.migration.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Date reminded = Date.valueOf(VaccinationDue.REMINDED);
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE vaccination_due SET remind_on = CASE WHEN reminded_for = next_due_date THEN ? ELSE next_due_date END"
+                            + " WHERE remind_on IS NULL LIMIT ?",
+                    reminded, batchSize);
+            total += updated;
+        } while (updated == batchSize);
+
+        if (total > 0) {
+            logger.info("Backfilled remind_on for {} vaccination_due rows", total);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gevernova.petvacination.migration;
+
+import com.gevernova.petvacination.repository.PetDetailsRepository;
+import com.gevernova.petvacination.service.VaccinationScheduleServices;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// Computes vaccination_due rows for pets registered before due dates were tracked. Walks the pets that
+// have vaccines but no rows yet in id order, one short transaction per batch, so an interrupted run resumes where
+// it stopped. Once every such pet has its rows the lookup comes back empty and later starts do nothing.
+@Component
+@ConditionalOnProperty(name = "pet.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class VaccinationDueBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaccinationDueBackfill.class);
+    private static final int PETS_PER_BATCH = 500;
+
+    private final PetDetailsRepository petDetailsRepository;
+    private final VaccinationScheduleServices vaccinationScheduleServices;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    public VaccinationDueBackfill(PetDetailsRepository petDetailsRepository,
+                                  VaccinationScheduleServices vaccinationScheduleServices,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager) {
+        this.petDetailsRepository = petDetailsRepository;
+        this.vaccinationScheduleServices = vaccinationScheduleServices;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long afterId = 0;
+        long total = 0;
+        List<Long> ids;
+        do {
+            long pageAfterId = afterId;
+            ids = transactionTemplate.execute(status -> {
+                List<Long> page = petDetailsRepository.findIdsWithoutScheduleAfter(pageAfterId, Limit.of(PETS_PER_BATCH));
+                vaccinationScheduleServices.createSchedules(petDetailsRepository.findAllWithVaccinesByIdIn(page));
+                entityManager.flush();
+                entityManager.clear();
+                return page;
+            });
+            if (ids == null || ids.isEmpty()) {
+                break;
+            }
+            total += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        } while (ids.size() == PETS_PER_BATCH);
+
+        if (total > 0) {
+            logger.info("Checked vaccination due dates for {} pets without a schedule", total);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.gevernova.petvacination.migration;
+
+import com.gevernova.petvacination.repository.PetDetailsRepository;
+import com.gevernova.petvacination.repository.VaccinationStatsRepository;
+import com.gevernova.petvacination.service.VaccinationStatsServices;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+// vaccination_stats only follows changes made after it exists, so a database that already holds pets
+// gets one full count at startup
+@Component
+@ConditionalOnProperty(name = "pet.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class VaccinationStatsSeed implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaccinationStatsSeed.class);
+
+    private final VaccinationStatsRepository vaccinationStatsRepository;
+    private final PetDetailsRepository petDetailsRepository;
+    private final VaccinationStatsServices vaccinationStatsServices;
+
+    public VaccinationStatsSeed(VaccinationStatsRepository vaccinationStatsRepository,
+                                PetDetailsRepository petDetailsRepository,
+                                VaccinationStatsServices vaccinationStatsServices) {
+        this.vaccinationStatsRepository = vaccinationStatsRepository;
+        this.petDetailsRepository = petDetailsRepository;
+        this.vaccinationStatsServices = vaccinationStatsServices;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (vaccinationStatsRepository.count() == 0 && petDetailsRepository.count() > 0) {
+            logger.info("Seeding vaccination statistics from existing pets");
+            vaccinationStatsServices.rebuild();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.gevernova.petvacination.migration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Fills pet_vaccine.name_key for rows written before the column existed. When ddl-auto adds the
+// column to a populated MySQL table the old rows get '' rather than NULL, so both are treated as missing.
+// Runs in bounded batches so a large table is never locked by one statement. Rows whose name is blank would
+// still match after the update, so they are left out; otherwise, with MySQL counting matched rather than
+// changed rows, a batch of them would keep the loop going forever.
+@Component
+@ConditionalOnProperty(name = "pet.migration.enabled", havingValue = "true", matchIfMissing = true)
+public class VaccineNameKeyBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaccineNameKeyBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public VaccineNameKeyBackfill(JdbcTemplate jdbcTemplate,
+                                  @Value("${pet.migration.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long total = 0;
+        int updated;
+        do {
+            updated = jdbcTemplate.update(
+                    "UPDATE pet_vaccine SET name_key = LOWER(TRIM(name)) WHERE (name_key IS NULL OR name_key = '') AND TRIM(name) <> '' LIMIT ?",
+                    batchSize);
+            total += updated;
+        } while (updated == batchSize);
+
+        if (total > 0) {
+            logger.info("Backfilled name_key for {} pet_vaccine rows", total);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.gevernova.petvacination.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+// Token bucket per client, kept as a single "theoretical arrival time" (GCRA): each request pushes it one
+// interval further, and a request is refused while it lies more than a burst ahead of now. That makes a
+// bucket one AtomicLong updated by CAS, so callers never lock, and the map's per-bin updates keep clients
+// from contending with each other.
+public class ClientRateLimiter {
+
+    // Clients that arrive while the map is full share this bucket, so a flood of made-up keys cannot grow memory
+    static final String OVERFLOW_CLIENT = "*";
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxClients;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong overflow;
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    public ClientRateLimiter(double requestsPerSecond, int burst, int maxClients) {
+        this(requestsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double requestsPerSecond, int burst, int maxClients, LongSupplier nanoClock) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("pet.ratelimit.requests-per-second and burst must be positive");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.burstNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+        this.nanoClock = nanoClock;
+        this.overflow = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    // 0 if the request may go ahead, otherwise how many nanoseconds until the client has a token again
+    public long tryAcquire(String client) {
+        AtomicLong bucket = bucket(client);
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                limited.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    private AtomicLong bucket(String client) {
+        AtomicLong bucket = buckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxClients) {
+            return overflow;
+        }
+        return buckets.computeIfAbsent(client, c -> new AtomicLong(nanoClock.getAsLong()));
+    }
+
+    // Drops clients whose bucket has refilled: a new one starts out full, so they lose nothing. A request racing
+    // with the removal may update the dropped bucket and so gets one request for free.
+    public int sweep() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+        return before - buckets.size();
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getLimited() {
+        return limited.sum();
+    }
+}
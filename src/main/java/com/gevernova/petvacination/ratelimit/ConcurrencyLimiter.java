@@ -0,0 +1,113 @@
+package com.gevernova.petvacination.ratelimit;
+
+import com.gevernova.petvacination.dto.EndpointLimitStatsDTO;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+// Caps the requests in flight for one group of endpoints and refuses the rest at once instead of queueing them.
+// With a target latency the cap adapts (AIMD): while the smoothed latency is above the target it shrinks by 5%
+// once per round of requests (as many completions as the cap), down to minConcurrency, and while below it grows
+// back by about one per round, up to maxConcurrency. Shrinking once per round lets the requests admitted under
+// the old cap drain before the latency is judged again. Requests refused below maxConcurrency are counted as shed.
+public class ConcurrencyLimiter {
+
+    private static final double LATENCY_WEIGHT = 0.1;
+    private static final double BACKOFF_RATIO = 0.95;
+
+    private final String name;
+    private final int maxConcurrency;
+    private final int minConcurrency;
+    private final long targetLatencyNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Doubles kept as raw bits so they can be updated without locks
+    private final AtomicLong limit;
+    private final AtomicLong latencyNanos = new AtomicLong(Double.doubleToRawLongBits(0));
+    private final AtomicLong completions = new AtomicLong();
+    // The completion count from which the next backoff may happen
+    private final AtomicLong nextBackoff = new AtomicLong();
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+
+    // targetLatency: null for a fixed cap
+    public ConcurrencyLimiter(String name, int maxConcurrency, int minConcurrency, Duration targetLatency) {
+        this.name = name;
+        this.maxConcurrency = maxConcurrency;
+        this.minConcurrency = Math.min(minConcurrency, maxConcurrency);
+        this.targetLatencyNanos = targetLatency == null ? 0 : targetLatency.toNanos();
+        this.limit = new AtomicLong(Double.doubleToRawLongBits(maxConcurrency));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= currentLimit()) {
+                if (current >= maxConcurrency) {
+                    rejected.increment();
+                } else {
+                    shed.increment();
+                }
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+        return true;
+    }
+
+    public void release(long elapsedNanos) {
+        int stillInFlight = inFlight.decrementAndGet();
+        if (targetLatencyNanos == 0) {
+            return;
+        }
+        long completed = completions.incrementAndGet();
+        double smoothed = update(latencyNanos, l -> l == 0 ? elapsedNanos : l + LATENCY_WEIGHT * (elapsedNanos - l));
+        if (smoothed > targetLatencyNanos) {
+            long backoffAt = nextBackoff.get();
+            if (completed >= backoffAt && nextBackoff.compareAndSet(backoffAt, completed + currentLimit())) {
+                update(limit, l -> Math.max(minConcurrency, l * BACKOFF_RATIO));
+            }
+        } else if (stillInFlight + 1 >= currentLimit() / 2) {
+            // Only grow while the cap is actually being used, or an idle group would creep back up unchecked
+            update(limit, l -> Math.min(maxConcurrency, l + 1 / l));
+        }
+    }
+
+    private int currentLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    private static double update(AtomicLong bits, DoubleUnaryOperator function) {
+        long previous;
+        double next;
+        do {
+            previous = bits.get();
+            next = function.applyAsDouble(Double.longBitsToDouble(previous));
+        } while (!bits.compareAndSet(previous, Double.doubleToRawLongBits(next)));
+        return next;
+    }
+
+    public EndpointLimitStatsDTO getStats() {
+        return EndpointLimitStatsDTO.builder()
+                .name(name)
+                .maxConcurrency(maxConcurrency)
+                .currentLimit(currentLimit())
+                .inFlight(inFlight.get())
+                .latencyMs(Double.longBitsToDouble(latencyNanos.get()) / 1_000_000.0)
+                .targetLatencyMs(targetLatencyNanos / 1_000_000.0)
+                .accepted(accepted.sum())
+                .rejected(rejected.sum())
+                .shed(shed.sum())
+                .build();
+    }
+}
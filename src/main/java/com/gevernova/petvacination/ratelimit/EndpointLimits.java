@@ -0,0 +1,66 @@
+package com.gevernova.petvacination.ratelimit;
+
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sorts requests into the groups of pet.ratelimit.endpoints, each with its own ConcurrencyLimiter, so a slow
+// group runs out of room without taking any from the others. Entries read NAME:METHOD /path|/path=MAX or
+// NAME:METHOD /path=MAX@TARGET_LATENCY, and the first matching entry wins; anything else shares the default group.
+public class EndpointLimits {
+
+    static final String DEFAULT_GROUP = "default";
+
+    private record Route(String method, List<PathPattern> patterns, ConcurrencyLimiter limiter) {
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+    private final ConcurrencyLimiter defaultLimiter;
+
+    public EndpointLimits(String endpoints, int defaultConcurrency, int minConcurrency) {
+        PathPatternParser parser = new PathPatternParser();
+        for (String endpoint : endpoints.split(",")) {
+            if (endpoint.isBlank()) {
+                continue;
+            }
+            String[] nameAndRest = endpoint.trim().split(":", 2);
+            int equals = nameAndRest.length == 2 ? nameAndRest[1].lastIndexOf('=') : -1;
+            String[] methodAndPaths = equals > 0 ? nameAndRest[1].substring(0, equals).trim().split("\\s+", 2) : new String[0];
+            if (methodAndPaths.length != 2) {
+                throw new IllegalArgumentException("Invalid pet.ratelimit.endpoints entry '" + endpoint
+                        + "', expected NAME:METHOD /path|/path=MAX[@TARGET_LATENCY]");
+            }
+            String[] maxAndTarget = nameAndRest[1].substring(equals + 1).trim().split("@", 2);
+            List<PathPattern> patterns = new ArrayList<>();
+            for (String path : methodAndPaths[1].split("\\|")) {
+                patterns.add(parser.parse(path.trim()));
+            }
+            routes.add(new Route(methodAndPaths[0].toUpperCase(), patterns, new ConcurrencyLimiter(nameAndRest[0].trim(),
+                    Integer.parseInt(maxAndTarget[0].trim()), minConcurrency,
+                    maxAndTarget.length == 2 ? Duration.parse(maxAndTarget[1].trim()) : null)));
+        }
+        this.defaultLimiter = new ConcurrencyLimiter(DEFAULT_GROUP, defaultConcurrency, minConcurrency, null);
+    }
+
+    // path: the request path within the application
+    public ConcurrencyLimiter forRequest(String method, String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if (route.method().equals(method) && route.patterns().stream().anyMatch(pattern -> pattern.matches(container))) {
+                return route.limiter();
+            }
+        }
+        return defaultLimiter;
+    }
+
+    public List<ConcurrencyLimiter> all() {
+        List<ConcurrencyLimiter> all = new ArrayList<>();
+        routes.forEach(route -> all.add(route.limiter()));
+        all.add(defaultLimiter);
+        return all;
+    }
+}
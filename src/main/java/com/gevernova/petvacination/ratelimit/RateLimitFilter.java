@@ -0,0 +1,166 @@
+package com.gevernova.petvacination.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.dto.RateLimitStatsDTO;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+// Turns requests away before they reach a controller: 429 once the caller has used up its rate, 503 once the
+// endpoint's group is at its concurrency limit. Metrics stay reachable so the limits can be watched under load.
+// Every request is charged to its address, and a request with a client key to the key as well. Keys are not
+// checked, so the address limit is what stops a caller from rotating keys for fresh bursts; it also bounds how
+// fast one address can add keys to the client map.
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String METRICS_PATH = "/api/metrics/";
+    // Longer keys are ignored rather than stored, so the client map stays small whatever callers send
+    private static final int MAX_KEY_LENGTH = 128;
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final ClientRateLimiter clientRateLimiter;
+    private final ClientRateLimiter addressRateLimiter;
+    private final EndpointLimits endpointLimits;
+    private final String clientHeader;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+
+    public RateLimitFilter(ClientRateLimiter clientRateLimiter, ClientRateLimiter addressRateLimiter,
+                           EndpointLimits endpointLimits, String clientHeader, ObjectMapper objectMapper) {
+        this(clientRateLimiter, addressRateLimiter, endpointLimits, clientHeader, objectMapper, System::nanoTime);
+    }
+
+    RateLimitFilter(ClientRateLimiter clientRateLimiter, ClientRateLimiter addressRateLimiter,
+                    EndpointLimits endpointLimits, String clientHeader, ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.addressRateLimiter = addressRateLimiter;
+        this.endpointLimits = endpointLimits;
+        this.clientHeader = clientHeader;
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return pathWithinApplication(request).startsWith(METRICS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = "ip:" + request.getRemoteAddr();
+        long waitNanos = addressRateLimiter.tryAcquire(client);
+        String key = clientKey(request);
+        if (waitNanos == 0 && key != null) {
+            client = "key:" + key;
+            waitNanos = clientRateLimiter.tryAcquire(client);
+        }
+        if (waitNanos > 0) {
+            logger.debug("Rate limited {} on {} {}", client, request.getMethod(), request.getRequestURI());
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)),
+                    "Too many requests; retry later");
+            return;
+        }
+
+        ConcurrencyLimiter limiter = endpointLimits.forRequest(request.getMethod(), pathWithinApplication(request));
+        if (!limiter.tryAcquire()) {
+            logger.debug("Shed {} {} at the {} limit", request.getMethod(), request.getRequestURI(), limiter.getName());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy; retry later");
+            return;
+        }
+
+        long start = nanoClock.getAsLong();
+        Release release = new Release(limiter, start);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Streamed responses finish on another thread; they hold their slot until the stream completes
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        String key = clientHeader.isEmpty() ? null : request.getHeader(clientHeader);
+        return key != null && !key.isBlank() && key.length() <= MAX_KEY_LENGTH ? key : null;
+    }
+
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ResponseDTO.builder().message(message).build());
+    }
+
+    public RateLimitStatsDTO getStats() {
+        return RateLimitStatsDTO.builder()
+                .trackedClients(clientRateLimiter.getTrackedClients())
+                .trackedAddresses(addressRateLimiter.getTrackedClients())
+                .allowed(addressRateLimiter.getAllowed() - clientRateLimiter.getLimited())
+                .rateLimited(addressRateLimiter.getLimited() + clientRateLimiter.getLimited())
+                .endpoints(endpointLimits.all().stream().map(ConcurrencyLimiter::getStats).toList())
+                .build();
+    }
+
+    private class Release implements AsyncListener, Runnable {
+
+        private final ConcurrencyLimiter limiter;
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Release(ConcurrencyLimiter limiter, long start) {
+            this.limiter = limiter;
+            this.start = start;
+        }
+
+        // Complete follows timeout and error as well, so only the first event counts
+        @Override
+        public void run() {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(nanoClock.getAsLong() - start);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.entity.EmailOutbox;
+import com.gevernova.petvacination.entity.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): rows another dispatcher is claiming are passed over, not waited for
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = SpecHints.HINT_SPEC_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT e FROM EmailOutbox e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<EmailOutbox> lockDue(@Param("status") OutboxStatus status, @Param("now") Instant now, Limit limit);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -0,0 +1,49 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.entity.IdempotencyRecord;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByEndpointAndIdempotencyKey(String endpoint, String idempotencyKey);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.statusCode = :statusCode, r.responseBody = :responseBody"
+            + " WHERE r.endpoint = :endpoint AND r.idempotencyKey = :key")
+    int complete(@Param("endpoint") String endpoint, @Param("key") String key,
+                 @Param("statusCode") int statusCode, @Param("responseBody") String responseBody);
+
+    // Conditional on the lease the caller saw, so of several retries finding the same stale claim only one takes it over
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.claimedUntil = :claimedUntil"
+            + " WHERE r.id = :id AND r.statusCode IS NULL AND r.claimedUntil = :staleUntil")
+    int takeOver(@Param("id") Long id, @Param("staleUntil") Instant staleUntil, @Param("claimedUntil") Instant claimedUntil);
+
+    // Only a claim still in progress is released; a stored response is kept for later retries
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.endpoint = :endpoint AND r.idempotencyKey = :key AND r.statusCode IS NULL")
+    int release(@Param("endpoint") String endpoint, @Param("key") String key);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.expiresAt <= :now")
+    int deleteIfExpired(@Param("id") Long id, @Param("now") Instant now);
+
+    // Served from idx_idempotency_record_expires_at
+    @Query("SELECT r.id FROM IdempotencyRecord r WHERE r.expiresAt <= :now ORDER BY r.expiresAt")
+    List<Long> findExpiredIds(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,24 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.entity.Owner;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OwnerRepository extends JpaRepository<Owner, Long> {
+
+    // Callers pass normalized emails (Owner.normalizeEmail)
+    Optional<Owner> findByEmail(String email);
+
+    List<Owner> findByEmailIn(Collection<String> emails);
+
+    // A locking read returns the latest committed row, not the one in the transaction's snapshot
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    Optional<Owner> findLockedByEmail(String email);
+}
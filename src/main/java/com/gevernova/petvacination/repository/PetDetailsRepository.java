@@ -1,14 +1,126 @@
 package com.gevernova.petvacination.repository;
 
+import com.gevernova.petvacination.dto.PetSearchCriteria;
 import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface PetDetailsRepository extends JpaRepository<PetDetails, Long> {
+public interface PetDetailsRepository extends JpaRepository<PetDetails, Long>, PetSearchRepository {
+
+    // List and search paths load in two phases: first the matching ids (so LIMIT and DISTINCT apply to
+    // pets rather than to joined vaccine rows), then the pets with their vaccines in a single join fetch.
+
+    // Keyset page like findPageAfter, so a common vaccine never turns into one huge IN list
+    default List<PetDetails> petsVaccinatedBySameDisease(String vaccineName, long afterId, int limit) {
+        return findAllWithVaccinesByIdIn(findIdsVaccinatedWith(VaccinationDetails.normalizeName(vaccineName), afterId, Limit.of(limit)));
+    }
+
+    // Keyset page: seeks past the last id the caller saw instead of using OFFSET
+    default List<PetDetails> findPageAfter(long afterId, int limit) {
+        return findAllWithVaccinesByIdIn(findIdsAfter(afterId, Limit.of(limit)));
+    }
+
+    default List<PetDetails> searchPageAfter(PetSearchCriteria criteria, long afterId, int limit) {
+        return findAllWithVaccinesByIdIn(searchIdsAfter(criteria, afterId, limit));
+    }
+
+    // Matches on the indexed name_key column; callers pass an already normalized name
+    @Query("SELECT DISTINCT p.id FROM PetDetails p JOIN p.vaccines v WHERE v.nameKey = :nameKey AND p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsVaccinatedWith(@Param("nameKey") String nameKey, @Param("afterId") long afterId, Limit limit);
+
+    @Query("SELECT p.id FROM PetDetails p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    // Pets with vaccines but no vaccination_due rows, i.e. registered before due dates were tracked. Pets without
+    // vaccines never get a row, so they are left out or every backfill run would find them again.
+    @Query("SELECT p.id FROM PetDetails p WHERE p.id > :afterId AND p.vaccines IS NOT EMPTY"
+            + " AND NOT EXISTS (SELECT 1 FROM VaccinationDue d WHERE d.petId = p.id) ORDER BY p.id")
+    List<Long> findIdsWithoutScheduleAfter(@Param("afterId") long afterId, Limit limit);
+
+    default List<PetDetails> findAllWithVaccinesByIdIn(Collection<Long> ids) {
+        return ids.isEmpty() ? List.of() : fetchWithVaccines(ids);
+    }
+
+    @EntityGraph(attributePaths = {"vaccines", "owner"})
+    @Query("SELECT p FROM PetDetails p WHERE p.id IN :ids ORDER BY p.id")
+    List<PetDetails> fetchWithVaccines(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"vaccines", "owner"})
+    @Query("SELECT p FROM PetDetails p WHERE p.id = :id")
+    Optional<PetDetails> findWithVaccinesById(@Param("id") Long id);
+
+    // An owner has a handful of pets, so they are fetched with their vaccines in one unpaged query
+    @EntityGraph(attributePaths = {"vaccines", "owner"})
+    @Query("SELECT p FROM PetDetails p WHERE p.owner.id = :ownerId ORDER BY p.id")
+    List<PetDetails> findAllWithVaccinesByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT p.id FROM PetDetails p WHERE p.owner.id IN :ownerIds")
+    List<Long> findIdsByOwnerIdIn(@Param("ownerIds") Collection<Long> ownerIds);
+
+    // A pet's representation includes its owner, so changing an owner changes the ETag of each of their pets.
+    // excludedId is a pet the caller already holds; its version is bumped through the entity instead.
+    @Modifying
+    @Query("UPDATE PetDetails p SET p.version = p.version + 1 WHERE p.owner.id IN :ownerIds AND p.id <> :excludedId")
+    int incrementVersionsOfOwners(@Param("ownerIds") Collection<Long> ownerIds, @Param("excludedId") long excludedId);
+
+    // Served from the primary key alone; lets conditional requests be answered without loading the pet
+    @Query("SELECT p.version FROM PetDetails p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Delete and restore are single conditional UPDATEs on the primary key. Native, because the entity's
+    // @SQLRestriction would hide the deleted rows restore has to reach; both bump the version, so ETags change.
+
+    @Modifying
+    @Query(value = "UPDATE pet_details SET deleted_at = :deletedAt, version = version + 1"
+            + " WHERE id = :id AND deleted_at IS NULL", nativeQuery = true)
+    int markDeleted(@Param("id") Long id, @Param("deletedAt") Instant deletedAt);
+
+    @Modifying
+    @Query(value = "UPDATE pet_details SET deleted_at = :deletedAt, version = version + 1"
+            + " WHERE id = :id AND deleted_at IS NULL AND version IN (:versions)", nativeQuery = true)
+    int markDeletedIfVersionIn(@Param("id") Long id, @Param("deletedAt") Instant deletedAt,
+                               @Param("versions") Collection<Long> versions);
+
+    // Clears the persistence context so the restored pet is loaded afresh, with its new version
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE pet_details SET deleted_at = NULL, version = version + 1"
+            + " WHERE id = :id AND deleted_at IS NOT NULL", nativeQuery = true)
+    int clearDeleted(@Param("id") Long id);
+
+    // Oldest tombstones first, locked so a restore racing the purge waits and then finds nothing to restore
+    @Query(value = "SELECT id FROM pet_details WHERE deleted_at < :cutoff ORDER BY deleted_at, id LIMIT :limit FOR UPDATE",
+            nativeQuery = true)
+    List<Long> lockDeletedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM pet_vaccine WHERE pet_id IN (:ids)", nativeQuery = true)
+    int purgeVaccines(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM pet_details WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeDeleted(@Param("ids") Collection<Long> ids);
 
-    @Query(value = "SELECT p FROM PetDetails p JOIN p.vaccines v WHERE LOWER(v.name) = LOWER(:vaccineName)")
-    java.util.List<PetDetails> petsVaccinatedBySameDisease(@Param("vaccineName") String vaccineName);
+    // Forward-only cursor over the whole table; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM PetDetails p LEFT JOIN FETCH p.owner ORDER BY p.id")
+    Stream<PetDetails> streamAllOrderedById();
 }
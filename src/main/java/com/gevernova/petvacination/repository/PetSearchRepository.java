@@ -0,0 +1,15 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+
+import java.util.List;
+
+// Search with optional, combinable filters; built with the Criteria API since no fixed
+// derived query covers every combination. Both methods page by keyset on the pet id.
+public interface PetSearchRepository {
+
+    List<PetSummaryDTO> searchSummariesAfter(PetSearchCriteria criteria, long afterId, int limit);
+
+    List<Long> searchIdsAfter(PetSearchCriteria criteria, long afterId, int limit);
+}
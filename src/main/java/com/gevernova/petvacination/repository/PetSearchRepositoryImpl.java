@@ -0,0 +1,97 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Picked up by Spring Data as the implementation of the PetSearchRepository fragment of PetDetailsRepository
+class PetSearchRepositoryImpl implements PetSearchRepository {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PetSummaryDTO> searchSummariesAfter(PetSearchCriteria criteria, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PetSummaryDTO> query = cb.createQuery(PetSummaryDTO.class);
+        Root<PetDetails> pet = query.from(PetDetails.class);
+        // Left join: pets not yet linked to an owner by OwnerBackfill are still found, with no owner fields
+        Join<PetDetails, Owner> owner = pet.join("owner", JoinType.LEFT);
+        query.select(cb.construct(PetSummaryDTO.class,
+                        pet.get("id"), pet.get("petName"), pet.get("species"), pet.get("breed"),
+                        owner.get("name"), owner.get("email")))
+                .where(predicates(cb, query, pet, owner, criteria, afterId))
+                .orderBy(cb.asc(pet.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Long> searchIdsAfter(PetSearchCriteria criteria, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<PetDetails> pet = query.from(PetDetails.class);
+        query.select(pet.get("id"))
+                .where(predicates(cb, query, pet, null, criteria, afterId))
+                .orderBy(cb.asc(pet.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    // owner: the query's owner join, or null to join only when an owner filter needs it
+    private static Predicate[] predicates(CriteriaBuilder cb, CriteriaQuery<?> query, Root<PetDetails> pet,
+                                          Join<PetDetails, Owner> owner, PetSearchCriteria criteria, long afterId) {
+        List<Predicate> predicates = new ArrayList<>(7);
+        if (owner == null && (criteria.getOwnerEmail() != null || criteria.getOwnerContact() != null)) {
+            owner = pet.join("owner");
+        }
+        predicates.add(cb.greaterThan(pet.get("id"), afterId));
+        if (criteria.getSpecies() != null) {
+            predicates.add(cb.equal(pet.get("species"), criteria.getSpecies()));
+        }
+        if (criteria.getBreedPrefix() != null) {
+            // A plain prefix LIKE so the breed index can be range-scanned; no function on the column
+            predicates.add(cb.like(pet.get("breed"), escapeLike(criteria.getBreedPrefix()) + "%", LIKE_ESCAPE));
+        }
+        if (criteria.getOwnerEmail() != null) {
+            predicates.add(cb.equal(owner.get("email"), Owner.normalizeEmail(criteria.getOwnerEmail())));
+        }
+        if (criteria.getOwnerContact() != null) {
+            predicates.add(cb.equal(owner.get("contact"), criteria.getOwnerContact()));
+        }
+        if (criteria.getVaccineName() != null || criteria.getVaccinatedAfter() != null) {
+            // EXISTS rather than a join, so a pet with several matching doses is returned once
+            Subquery<Integer> dose = query.subquery(Integer.class);
+            Root<PetDetails> correlated = dose.correlate(pet);
+            Join<PetDetails, VaccinationDetails> vaccine = correlated.join("vaccines");
+            List<Predicate> doseMatches = new ArrayList<>(2);
+            if (criteria.getVaccineName() != null) {
+                doseMatches.add(cb.equal(vaccine.get("nameKey"), VaccinationDetails.normalizeName(criteria.getVaccineName())));
+            }
+            if (criteria.getVaccinatedAfter() != null) {
+                doseMatches.add(cb.greaterThanOrEqualTo(vaccine.get("dateGiven"), criteria.getVaccinatedAfter()));
+            }
+            dose.select(cb.literal(1)).where(doseMatches.toArray(Predicate[]::new));
+            predicates.add(cb.exists(dose));
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
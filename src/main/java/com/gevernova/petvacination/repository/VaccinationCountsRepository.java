@@ -0,0 +1,72 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Counts what pets contribute to vaccination_stats straight from pet_details and pet_vaccine. Native SQL,
+// so deleted pets are included unless the filter leaves them out; that lets a delete count the pet it has
+// just marked. Each query's rows come back as VaccinationStats holding only that query's count; rows of the
+// same group are meant to be added together.
+@Repository
+@RequiredArgsConstructor
+public class VaccinationCountsRepository {
+
+    private static final Species[] SPECIES = Species.values();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    // Every pet not deleted; used by rebuild
+    public List<VaccinationStats> countLivePets() {
+        return count(" AND p.deleted_at IS NULL", new MapSqlParameterSource());
+    }
+
+    public List<VaccinationStats> countPets(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return count(" AND p.id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    private List<VaccinationStats> count(String filter, MapSqlParameterSource parameters) {
+        List<VaccinationStats> counts = new ArrayList<>();
+        jdbcTemplate.query("SELECT p.species, COUNT(*) FROM pet_details p WHERE 1 = 1" + filter
+                + " GROUP BY p.species", parameters, resultSet -> {
+            counts.add(stats(resultSet.getInt(1), VaccinationStats.ALL_VACCINES, VaccinationStats.ALL_VACCINES,
+                    VaccinationStats.ALL_MONTHS, resultSet.getLong(2), 0, 0));
+        });
+        jdbcTemplate.query("SELECT p.species, COUNT(DISTINCT p.id) FROM pet_details p JOIN pet_vaccine v ON v.pet_id = p.id"
+                + " WHERE 1 = 1" + filter + " GROUP BY p.species", parameters, resultSet -> {
+            counts.add(stats(resultSet.getInt(1), VaccinationStats.ALL_VACCINES, VaccinationStats.ALL_VACCINES,
+                    VaccinationStats.ALL_MONTHS, 0, resultSet.getLong(2), 0));
+        });
+        jdbcTemplate.query("SELECT p.species, v.name_key, MIN(TRIM(v.name)), COUNT(DISTINCT p.id)"
+                + " FROM pet_details p JOIN pet_vaccine v ON v.pet_id = p.id"
+                + " WHERE 1 = 1" + filter + " GROUP BY p.species, v.name_key", parameters, resultSet -> {
+            counts.add(stats(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                    VaccinationStats.ALL_MONTHS, resultSet.getLong(4), 0, 0));
+        });
+        jdbcTemplate.query("SELECT p.species, v.name_key, MIN(TRIM(v.name)), YEAR(v.date_given), MONTH(v.date_given), COUNT(*)"
+                + " FROM pet_details p JOIN pet_vaccine v ON v.pet_id = p.id"
+                + " WHERE 1 = 1" + filter + " GROUP BY p.species, v.name_key, YEAR(v.date_given), MONTH(v.date_given)",
+                parameters, resultSet -> {
+            counts.add(stats(resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3),
+                    LocalDate.of(resultSet.getInt(4), resultSet.getInt(5), 1), 0, 0, resultSet.getLong(6)));
+        });
+        return counts;
+    }
+
+    // species is stored as its ordinal in pet_details
+    private static VaccinationStats stats(int species, String vaccineKey, String vaccineName, LocalDate month,
+                                          long pets, long vaccinatedPets, long doses) {
+        return new VaccinationStats(SPECIES[species], vaccineKey, vaccineName, month, pets, vaccinatedPets, doses);
+    }
+}
@@ -0,0 +1,59 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.dto.VaccinationDueDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDue;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VaccinationDueRepository extends JpaRepository<VaccinationDue, Long> {
+
+    // Due-date reads are keyset pages over (next_due_date, id): each page seeks past the last row the caller
+    // saw, so a page costs the same however deep it is. The first page starts after (from, 0).
+
+    String DUE_ROW = "SELECT new com.gevernova.petvacination.dto.VaccinationDueDTO(d.id, d.petId, p.petName, d.species,"
+            + " o.name, o.email, d.vaccineName, d.lastGiven, d.nextDueDate)"
+            + " FROM VaccinationDue d JOIN PetDetails p ON p.id = d.petId JOIN p.owner o";
+
+    String AFTER_CURSOR = " AND (d.nextDueDate > :afterDate OR (d.nextDueDate = :afterDate AND d.id > :afterId))"
+            + " ORDER BY d.nextDueDate, d.id";
+
+    @Query(DUE_ROW + " WHERE d.nextDueDate BETWEEN :from AND :to" + AFTER_CURSOR)
+    List<VaccinationDueDTO> findDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to,
+                                           @Param("afterDate") LocalDate afterDate, @Param("afterId") long afterId,
+                                           Limit limit);
+
+    @Query(DUE_ROW + " WHERE d.species = :species AND d.nextDueDate BETWEEN :from AND :to" + AFTER_CURSOR)
+    List<VaccinationDueDTO> findDueBetweenForSpecies(@Param("species") Species species,
+                                                     @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                                     @Param("afterDate") LocalDate afterDate, @Param("afterId") long afterId,
+                                                     Limit limit);
+
+    // Rows due by the given date whose current due date has not been reminded yet, paged over (remind_on, id).
+    // remindOn equals nextDueDate on every row this returns, so the caller's cursor is the last row's nextDueDate.
+    @Query(DUE_ROW + " WHERE d.remindOn <= :dueBy"
+            + " AND (d.remindOn > :afterDate OR (d.remindOn = :afterDate AND d.id > :afterId)) ORDER BY d.remindOn, d.id")
+    List<VaccinationDueDTO> findUnremindedDueBy(@Param("dueBy") LocalDate dueBy,
+                                                @Param("afterDate") LocalDate afterDate, @Param("afterId") long afterId,
+                                                Limit limit);
+
+    // Moves the rows out of the reminder scan's range until a new dose re-arms them
+    @Modifying
+    @Query("UPDATE VaccinationDue d SET d.remindedFor = d.nextDueDate, d.remindOn = :reminded WHERE d.id IN :ids")
+    int markReminded(@Param("ids") Collection<Long> ids, @Param("reminded") LocalDate reminded);
+
+    List<VaccinationDue> findByPetId(Long petId);
+
+    @Modifying
+    @Query("DELETE FROM VaccinationDue d WHERE d.petId IN :petIds")
+    int deleteByPetIdIn(@Param("petIds") Collection<Long> petIds);
+}
@@ -0,0 +1,37 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.entity.VaccinationStats;
+import com.gevernova.petvacination.entity.VaccinationStatsDelta;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VaccinationStatsDeltaRepository extends JpaRepository<VaccinationStatsDelta, Long> {
+
+    String SUM_BY_GROUP = "SELECT new com.gevernova.petvacination.entity.VaccinationStats(d.species, d.vaccineKey,"
+            + " MIN(d.vaccineName), d.month, SUM(d.pets), SUM(d.vaccinatedPets), SUM(d.doses))"
+            + " FROM VaccinationStatsDelta d";
+
+    String GROUP_BY = " GROUP BY d.species, d.vaccineKey, d.month";
+
+    @Query("SELECT d.id FROM VaccinationStatsDelta d ORDER BY d.id")
+    List<Long> findPendingIds(Limit limit);
+
+    // Everything not yet folded, for reads that must include the latest writes
+    @Query(SUM_BY_GROUP + GROUP_BY)
+    List<VaccinationStats> sumPending();
+
+    @Query(SUM_BY_GROUP + " WHERE d.id IN :ids" + GROUP_BY)
+    List<VaccinationStats> sumByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM VaccinationStatsDelta d WHERE d.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,35 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationStats;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface VaccinationStatsRepository extends JpaRepository<VaccinationStats, Long> {
+
+    // Month rows in [from, to]; from must lie after ALL_MONTHS so per-species and per-vaccine totals are left out
+    @Query("SELECT s FROM VaccinationStats s WHERE s.month BETWEEN :from AND :to")
+    List<VaccinationStats> findMonthsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT s FROM VaccinationStats s WHERE s.species = :species AND s.month BETWEEN :from AND :to")
+    List<VaccinationStats> findMonthsBetweenForSpecies(@Param("species") Species species,
+                                                       @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Per-species and per-vaccine totals (month = ALL_MONTHS)
+    List<VaccinationStats> findByMonth(LocalDate month);
+
+    // Locked in id order, so folds touching the same groups add to them one after the other and a rebuild,
+    // which deletes every row, waits for them
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM VaccinationStats s WHERE s.vaccineKey IN :vaccineKeys ORDER BY s.id")
+    List<VaccinationStats> lockByVaccineKeyIn(@Param("vaccineKeys") Collection<String> vaccineKeys);
+}
@@ -0,0 +1,79 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Period;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Booster intervals per species and vaccine, keyed by the normalized vaccine name. A vaccine without a
+// species-specific entry falls back to the entry for any species, then to pet.boosters.default-interval.
+// pet.boosters.overrides adjusts the built-in table without a release, e.g. "DOG:rabies=P3Y,*:lyme=P1Y".
+@Component
+public class BoosterCatalog {
+
+    private static final String ANY_SPECIES = "*";
+
+    private final Map<Species, Map<String, Period>> bySpecies = new EnumMap<>(Species.class);
+    private final Map<String, Period> anySpecies = new HashMap<>();
+    private final Period defaultInterval;
+
+    public BoosterCatalog(@Value("${pet.boosters.default-interval:P1Y}") Period defaultInterval,
+                          @Value("${pet.boosters.overrides:}") String overrides) {
+        this.defaultInterval = defaultInterval;
+
+        put(ANY_SPECIES, "rabies", Period.ofYears(1));
+
+        put("DOG", "distemper", Period.ofYears(3));
+        put("DOG", "parvovirus", Period.ofYears(3));
+        put("DOG", "adenovirus", Period.ofYears(3));
+        put("DOG", "dhpp", Period.ofYears(3));
+        put("DOG", "leptospirosis", Period.ofYears(1));
+        put("DOG", "bordetella", Period.ofYears(1));
+        put("DOG", "lyme", Period.ofYears(1));
+        put("DOG", "canine influenza", Period.ofYears(1));
+
+        put("CAT", "fvrcp", Period.ofYears(3));
+        put("CAT", "panleukopenia", Period.ofYears(3));
+        put("CAT", "calicivirus", Period.ofYears(3));
+        put("CAT", "feline leukemia", Period.ofYears(1));
+        put("CAT", "felv", Period.ofYears(1));
+
+        put("SMALL_MAMMAL", "myxomatosis", Period.ofMonths(6));
+        put("SMALL_MAMMAL", "rhdv2", Period.ofYears(1));
+
+        for (String override : overrides.split(",")) {
+            if (override.isBlank()) {
+                continue;
+            }
+            String[] speciesAndRest = override.trim().split(":", 2);
+            String[] vaccineAndPeriod = speciesAndRest.length == 2 ? speciesAndRest[1].split("=", 2) : new String[0];
+            if (vaccineAndPeriod.length != 2) {
+                throw new IllegalArgumentException("Invalid pet.boosters.overrides entry '" + override + "', expected SPECIES:vaccine=PERIOD");
+            }
+            put(speciesAndRest[0].trim(), vaccineAndPeriod[0], Period.parse(vaccineAndPeriod[1].trim()));
+        }
+    }
+
+    private void put(String species, String vaccine, Period interval) {
+        String vaccineKey = VaccinationDetails.normalizeName(vaccine);
+        if (species.equals(ANY_SPECIES)) {
+            anySpecies.put(vaccineKey, interval);
+        } else {
+            bySpecies.computeIfAbsent(Species.valueOf(species), s -> new HashMap<>()).put(vaccineKey, interval);
+        }
+    }
+
+    public Period boosterInterval(Species species, String vaccineKey) {
+        Map<String, Period> forSpecies = bySpecies.get(species);
+        Period interval = forSpecies == null ? null : forSpecies.get(vaccineKey);
+        if (interval == null) {
+            interval = anySpecies.get(vaccineKey);
+        }
+        return interval == null ? defaultInterval : interval;
+    }
+}
@@ -0,0 +1,172 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.EmailMessageDTO;
+import com.gevernova.petvacination.dto.OutboxStatsDTO;
+import com.gevernova.petvacination.entity.EmailOutbox;
+import com.gevernova.petvacination.entity.OutboxStatus;
+import com.gevernova.petvacination.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Drains the email_outbox table in batches. Rows are read and updated in short transactions;
+// the SMTP round trip itself runs outside any transaction so it never holds a database connection.
+// Several dispatchers may share a database: each claims its batch by locking the rows, skipping locked ones,
+// and pushing their next attempt out by pet.outbox.claim-timeout, so the others leave them alone while the
+// batch is sent. A dispatcher that dies mid-batch leaves its rows to be retried once the claim runs out.
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final Notifications notifications;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration claimTimeout;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchNanos = new LongAdder();
+    private final AtomicLong maxBatchNanos = new AtomicLong();
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 Notifications notifications,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${pet.outbox.batch-size:50}") int batchSize,
+                                 @Value("${pet.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${pet.outbox.initial-backoff:PT10S}") Duration initialBackoff,
+                                 @Value("${pet.outbox.max-backoff:PT30M}") Duration maxBackoff,
+                                 @Value("${pet.outbox.claim-timeout:PT5M}") Duration claimTimeout) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.notifications = notifications;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.claimTimeout = claimTimeout;
+    }
+
+    @Scheduled(fixedDelayString = "${pet.outbox.poll-interval:PT5S}")
+    public void drain() {
+        int dispatched;
+        do {
+            dispatched = dispatchBatch();
+        } while (dispatched == batchSize);
+    }
+
+    // A message queued for delivery with the next drain
+    public static EmailOutbox outboxEntry(EmailMessageDTO message) {
+        Instant now = Instant.now();
+        return EmailOutbox.builder()
+                .recipient(message.getTo())
+                .subject(message.getSubject())
+                .body(message.getText())
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    // Sends one batch of due messages and returns how many were attempted.
+    public int dispatchBatch() {
+        List<EmailOutbox> due = transactionTemplate.execute(status -> claimDue(Instant.now()));
+        if (due == null || due.isEmpty()) {
+            return 0;
+        }
+
+        List<EmailMessageDTO> messages = new ArrayList<>(due.size());
+        for (EmailOutbox outbox : due) {
+            messages.add(new EmailMessageDTO(outbox.getRecipient(), outbox.getSubject(), outbox.getBody()));
+        }
+
+        long start = System.nanoTime();
+        boolean[] delivered;
+        try {
+            delivered = notifications.sendEmails(messages);
+        } catch (RuntimeException e) {
+            logger.warn("Email batch of {} failed: {}", messages.size(), e.getMessage());
+            delivered = new boolean[messages.size()];
+        }
+        recordLatency(System.nanoTime() - start);
+
+        boolean[] outcome = delivered;
+        transactionTemplate.executeWithoutResult(status -> applyOutcome(due, outcome));
+        return due.size();
+    }
+
+    // The row locks end with the claim's transaction; the pushed-out next attempt keeps the batch claimed until its outcome is saved
+    private List<EmailOutbox> claimDue(Instant now) {
+        List<EmailOutbox> due = emailOutboxRepository.lockDue(OutboxStatus.PENDING, now, Limit.of(batchSize));
+        Instant claimedUntil = now.plus(claimTimeout);
+        due.forEach(outbox -> outbox.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    private void applyOutcome(List<EmailOutbox> batch, boolean[] delivered) {
+        Instant now = Instant.now();
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox outbox = batch.get(i);
+            outbox.setAttempts(outbox.getAttempts() + 1);
+            if (delivered[i]) {
+                outbox.setStatus(OutboxStatus.SENT);
+                outbox.setSentAt(now);
+                outbox.setLastError(null);
+                sent.increment();
+            } else if (outbox.getAttempts() >= maxAttempts) {
+                outbox.setStatus(OutboxStatus.FAILED);
+                outbox.setLastError("Gave up after " + outbox.getAttempts() + " attempts");
+                failed.increment();
+                logger.error("Giving up on email {} to {} after {} attempts", outbox.getId(), outbox.getRecipient(), outbox.getAttempts());
+            } else {
+                outbox.setNextAttemptAt(now.plus(backoff(outbox.getAttempts())));
+                outbox.setLastError("Delivery failed on attempt " + outbox.getAttempts());
+                retried.increment();
+            }
+        }
+        emailOutboxRepository.saveAll(batch);
+    }
+
+    Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void recordLatency(long nanos) {
+        batches.increment();
+        batchNanos.add(nanos);
+        maxBatchNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public OutboxStatsDTO getStats() {
+        long batchCount = batches.sum();
+        return OutboxStatsDTO.builder()
+                .queueDepth(emailOutboxRepository.countByStatus(OutboxStatus.PENDING))
+                .sent(sent.sum())
+                .retried(retried.sum())
+                .failed(failed.sum())
+                .batches(batchCount)
+                .averageBatchLatencyMs(batchCount == 0 ? 0 : batchNanos.sum() / 1_000_000.0 / batchCount)
+                .maxBatchLatencyMs(maxBatchNanos.get() / 1_000_000.0)
+                .build();
+    }
+}
@@ -1,27 +1,93 @@
 package com.gevernova.petvacination.service;
 
+import com.gevernova.petvacination.dto.EmailMessageDTO;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
 @RequiredArgsConstructor
 @Service
 public class EmailService implements Notifications{
 
+        private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
         private final JavaMailSender emailSender;
 
+        public static EmailMessageDTO registrationMessage(String to,String name){
+                return EmailMessageDTO.builder()
+                        .to(to)
+                        .subject("Your Pet has been registered")
+                        .text(name+" your Pet has been registered for Vaccination")
+                        .build();
+        }
+
+        // One email for all pets an owner registered together
+        public static EmailMessageDTO registrationMessage(String to,List<String> names){
+                if(names.size()==1){
+                        return registrationMessage(to,names.get(0));
+                }
+                return EmailMessageDTO.builder()
+                        .to(to)
+                        .subject("Your Pets have been registered")
+                        .text(String.join(", ",names)+" your Pets have been registered for Vaccination")
+                        .build();
+        }
+
         public boolean sendRegistrationEmail(String to,String name){
-                SimpleMailMessage message=new SimpleMailMessage();
-                message.setTo(to);
-                message.setSubject("Your Pet has been registered");
-                message.setText(name+" your Pet has been registered for Vaccination");
+                return sendEmails(List.of(registrationMessage(to,name)))[0];
+        }
+
+        public boolean[] sendEmails(List<EmailMessageDTO> messages){
+                boolean[] delivered=new boolean[messages.size()];
+                MimeMessage[] mimeMessages=new MimeMessage[messages.size()];
+                try{
+                        for(int i=0;i<messages.size();i++){
+                                mimeMessages[i]=toMimeMessage(messages.get(i));
+                        }
+                }catch(MessagingException e){
+                        logger.warn("Could not build email batch: {}",e.getMessage());
+                        return delivered;
+                }
+
+                // JavaMailSender opens one transport for the whole array, so the batch shares a single SMTP session.
+                Set<Object> failed=Collections.newSetFromMap(new IdentityHashMap<>());
                 try{
-                        emailSender.send(message);
-                }catch(Exception e){
-                        return false;
+                        emailSender.send(mimeMessages);
+                }catch(MailSendException e){
+                        failed.addAll(e.getFailedMessages().keySet());
+                        if(failed.isEmpty()){
+                                return delivered;
+                        }
+                }catch(MailException e){
+                        logger.warn("Email batch of {} could not be sent: {}",messages.size(),e.getMessage());
+                        return delivered;
                 }
-                return true;
+                for(int i=0;i<mimeMessages.length;i++){
+                        delivered[i]=!failed.contains(mimeMessages[i]);
+                }
+                return delivered;
+        }
+
+        private MimeMessage toMimeMessage(EmailMessageDTO message) throws MessagingException{
+                MimeMessage mimeMessage=emailSender.createMimeMessage();
+                MimeMessageHelper helper=new MimeMessageHelper(mimeMessage);
+                helper.setTo(message.getTo());
+                helper.setSubject(message.getSubject());
+                helper.setText(message.getText());
+                return mimeMessage;
         }
 
 }
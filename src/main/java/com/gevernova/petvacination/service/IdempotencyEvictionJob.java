@@ -0,0 +1,36 @@
+package com.gevernova.petvacination.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Deletes idempotency records past their TTL, one bounded transaction per batch
+@Component
+public class IdempotencyEvictionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyEvictionJob.class);
+
+    private final IdempotencyServices idempotencyServices;
+    private final int batchSize;
+
+    public IdempotencyEvictionJob(IdempotencyServices idempotencyServices,
+                                  @Value("${pet.idempotency.eviction-batch-size:1000}") int batchSize) {
+        this.idempotencyServices = idempotencyServices;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${pet.idempotency.eviction-interval:PT10M}")
+    public void evict() {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = idempotencyServices.deleteExpired(batchSize);
+            total += deleted;
+        } while (deleted == batchSize);
+        if (total > 0) {
+            logger.debug("Evicted {} expired idempotency records", total);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.entity.IdempotencyRecord;
+import com.gevernova.petvacination.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+// Duplicates are settled by the unique key on (endpoint, idempotency_key) rather than by locks: the first
+// insert wins, and a concurrent one waits on the index only until the winner's claim commits, then fails.
+@Service
+public class IdempotencyServiceImplementation implements IdempotencyServices {
+
+    private static final int MAX_CLAIM_ATTEMPTS = 3;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration ttl;
+    private final Duration claimTimeout;
+
+    public IdempotencyServiceImplementation(IdempotencyRecordRepository idempotencyRecordRepository,
+                                            TransactionTemplate transactionTemplate,
+                                            @Value("${pet.idempotency.ttl:PT24H}") Duration ttl,
+                                            @Value("${pet.idempotency.claim-timeout:PT10M}") Duration claimTimeout) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+    }
+
+    // Each step runs in its own read-write transaction: a failed insert spoils the transaction it ran in, and
+    // the lookup after it has to see the primary rather than a replica that may not have the winner's row yet
+    @Override
+    public Optional<IdempotencyRecord> claim(String endpoint, String key, String requestHash) {
+        for (int attempt = 0; attempt < MAX_CLAIM_ATTEMPTS; attempt++) {
+            Instant now = Instant.now();
+            try {
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .endpoint(endpoint)
+                        .idempotencyKey(key)
+                        .requestHash(requestHash)
+                        .createdAt(now)
+                        .expiresAt(now.plus(ttl))
+                        .claimedUntil(now.plus(claimTimeout))
+                        .build()));
+                return Optional.empty();
+            } catch (DataIntegrityViolationException e) {
+                Optional<IdempotencyRecord> holder = transactionTemplate.execute(status ->
+                        idempotencyRecordRepository.findByEndpointAndIdempotencyKey(endpoint, key));
+                if (holder.isEmpty()) {
+                    // Released or evicted since our insert failed; the next attempt can take it
+                    continue;
+                }
+                IdempotencyRecord record = holder.get();
+                // Expired but not evicted yet: it no longer counts, so make room and try again
+                if (!record.getExpiresAt().isAfter(now)) {
+                    transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteIfExpired(record.getId(), now));
+                    continue;
+                }
+                if (isStale(record, requestHash, now)) {
+                    Integer takenOver = transactionTemplate.execute(status ->
+                            idempotencyRecordRepository.takeOver(record.getId(), record.getClaimedUntil(), now.plus(claimTimeout)));
+                    if (takenOver != null && takenOver == 1) {
+                        return Optional.empty();
+                    }
+                    // Another retry took it over first; the next attempt finds its claim
+                    continue;
+                }
+                return holder;
+            }
+        }
+        throw new ConcurrencyFailureException("Could not claim Idempotency-Key " + key + " after " + MAX_CLAIM_ATTEMPTS + " attempts");
+    }
+
+    // Still running past its lease, so its holder died or lost track of it; taken over by a retry of the same request only
+    private static boolean isStale(IdempotencyRecord holder, String requestHash, Instant now) {
+        return !holder.isCompleted() && holder.getClaimedUntil() != null && !holder.getClaimedUntil().isAfter(now)
+                && (requestHash == null || holder.getRequestHash() == null || requestHash.equals(holder.getRequestHash()));
+    }
+
+    @Override
+    @Transactional
+    public void complete(String endpoint, String key, int statusCode, String responseBody) {
+        idempotencyRecordRepository.complete(endpoint, key, statusCode, responseBody);
+    }
+
+    @Override
+    @Transactional
+    public void release(String endpoint, String key) {
+        idempotencyRecordRepository.release(endpoint, key);
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(int batchSize) {
+        List<Long> ids = idempotencyRecordRepository.findExpiredIds(Instant.now(), Limit.of(batchSize));
+        return ids.isEmpty() ? 0 : idempotencyRecordRepository.deleteByIdIn(ids);
+    }
+}
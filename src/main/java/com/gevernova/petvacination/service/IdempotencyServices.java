@@ -0,0 +1,21 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.entity.IdempotencyRecord;
+
+import java.util.Optional;
+
+public interface IdempotencyServices {
+
+    // Claims the key for the calling request: empty if the caller should go ahead, otherwise the record of
+    // the request that holds it, completed or still running. A claim left running past its lease is taken over.
+    Optional<IdempotencyRecord> claim(String endpoint, String key, String requestHash);
+
+    // Stores the response; joins the caller's transaction, so it can commit together with the request's changes
+    void complete(String endpoint, String key, int statusCode, String responseBody);
+
+    // Gives the key up after the request failed, so a retry runs again
+    void release(String endpoint, String key);
+
+    // Deletes up to batchSize expired records and returns how many were deleted
+    int deleteExpired(int batchSize);
+}
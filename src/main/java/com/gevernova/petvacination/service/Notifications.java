@@ -1,6 +1,13 @@
 package com.gevernova.petvacination.service;
 
+import com.gevernova.petvacination.dto.EmailMessageDTO;
+
+import java.util.List;
+
 public interface Notifications {
 
     public boolean sendRegistrationEmail(String to,String name);
+
+    // Sends all messages over a single connection. The returned array holds one delivery flag per message, in order.
+    public boolean[] sendEmails(List<EmailMessageDTO> messages);
 }
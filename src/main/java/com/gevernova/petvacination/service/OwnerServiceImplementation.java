@@ -0,0 +1,98 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.OwnerPetsDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.exceptionhandling.OwnerNotFoundException;
+import com.gevernova.petvacination.mapper.Mapper;
+import com.gevernova.petvacination.repository.OwnerRepository;
+import com.gevernova.petvacination.repository.PetDetailsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class OwnerServiceImplementation implements OwnerServices {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnerServiceImplementation.class);
+    private static final int MAX_CREATE_ATTEMPTS = 3;
+
+    private final OwnerRepository ownerRepository;
+    private final PetDetailsRepository petDetailsRepository;
+    private final TransactionTemplate newTransaction;
+
+    public OwnerServiceImplementation(OwnerRepository ownerRepository, PetDetailsRepository petDetailsRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.ownerRepository = ownerRepository;
+        this.petDetailsRepository = petDetailsRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OwnerPetsDTO getOwnerWithPets(Long ownerId) {
+        Owner owner = ownerRepository.findById(ownerId)
+                .orElseThrow(() -> new OwnerNotFoundException("Owner with ID: " + ownerId + " was not found."));
+        // The owner is already in the persistence context, so the pets' owner reference needs no further query
+        List<PetDetails> pets = petDetailsRepository.findAllWithVaccinesByOwnerId(ownerId);
+
+        List<PetResponseDTO> petDTOs = new ArrayList<>(pets.size());
+        for (PetDetails petDetails : pets) {
+            petDTOs.add(Mapper.mapToDTO(petDetails));
+        }
+        logger.debug("Fetched {} pets for owner ID: {}", petDTOs.size(), ownerId);
+        return OwnerPetsDTO.builder()
+                .id(owner.getId())
+                .name(owner.getName())
+                .contact(owner.getContact())
+                .email(owner.getEmail())
+                .pets(petDTOs)
+                .build();
+    }
+
+    // Two registrations bringing the same new owner are settled by uk_pet_owner_email, as idempotency keys are:
+    // the loser's insert fails once the winner commits, and its next attempt finds the winner's row. Each attempt
+    // runs in a transaction of its own, since a failed insert spoils the transaction it ran in.
+    @Override
+    public Set<String> createMissingOwners(Collection<Owner> owners) {
+        Map<String, Owner> wanted = new LinkedHashMap<>();
+        for (Owner owner : owners) {
+            wanted.putIfAbsent(Owner.normalizeEmail(owner.getEmail()), owner);
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return newTransaction.execute(status -> {
+                    Map<String, Owner> missing = new LinkedHashMap<>(wanted);
+                    for (Owner stored : ownerRepository.findByEmailIn(wanted.keySet())) {
+                        missing.remove(stored.getEmail());
+                    }
+                    List<Owner> created = new ArrayList<>(missing.size());
+                    missing.forEach((email, given) -> created.add(new Owner(null, given.getName(), given.getContact(), email)));
+                    ownerRepository.saveAllAndFlush(created);
+                    return new LinkedHashSet<>(missing.keySet());
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_CREATE_ATTEMPTS) {
+                    throw new ConcurrencyFailureException("Could not store owners after " + MAX_CREATE_ATTEMPTS + " attempts", e);
+                }
+                logger.debug("Owner stored concurrently, looking it up again: {}", e.getMessage());
+            }
+        }
+    }
+}
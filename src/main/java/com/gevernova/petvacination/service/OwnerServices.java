@@ -0,0 +1,17 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.OwnerPetsDTO;
+import com.gevernova.petvacination.entity.Owner;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface OwnerServices {
+
+    // The owner with all of their pets and vaccines, read in two statements
+    OwnerPetsDTO getOwnerWithPets(Long ownerId);
+
+    // Stores an owner for each email not stored yet, taking the name and contact of the first owner given with it,
+    // and commits before returning. Returns the normalized emails of the owners it stored.
+    Set<String> createMissingOwners(Collection<Owner> owners);
+}
@@ -1,17 +1,47 @@
 package com.gevernova.petvacination.service;
 
+import com.gevernova.petvacination.dto.BulkImportSummaryDTO;
+import com.gevernova.petvacination.dto.BulkItemResultDTO;
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetPatchDTO;
+import com.gevernova.petvacination.dto.PetRequestDTO;
 import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryPageDTO;
 import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.VaccinationDetails;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PetDetailsServices {
 
-    List<PetResponseDTO> getAllPetDetails();
+    PetPageDTO getPetDetailsPage(Long afterId, Integer limit);
+    PetSummaryPageDTO searchPetSummaries(PetSearchCriteria criteria, Long afterId, Integer limit);
+    PetPageDTO searchPetDetails(PetSearchCriteria criteria, Long afterId, Integer limit);
+    // Writes every pet in id order as newline-delimited JSON, in the shape of PetResponseDTO; leaves the stream open
+    void streamAllPetDetails(OutputStream outputStream) throws IOException;
     PetResponseDTO createPetDetails(PetDetails petDetails);
+    // beforeCommit gets the new pet inside the registration's transaction, for work that must commit with it
+    PetResponseDTO createPetDetails(PetDetails petDetails, Consumer<PetResponseDTO> beforeCommit);
+    List<BulkItemResultDTO> createPetDetailsInBulk(Iterator<PetRequestDTO> requests);
+    BulkImportSummaryDTO importPetDetails(Iterator<PetRequestDTO> requests);
     Optional<PetResponseDTO> getPetDetailsById(Long id);
-    PetResponseDTO updatePetDetails(Long id, PetDetails petDetails);
-    void deletePetDetails(Long id);
-    List<PetResponseDTO> getPetsByVaccinationName(String name);
+    Optional<Long> getPetVersion(Long id);
+    // expectedVersions: the versions the caller's If-Match accepts, or null to write unconditionally
+    PetResponseDTO updatePetDetails(Long id, PetDetails petDetails, Collection<Long> expectedVersions);
+    PetResponseDTO patchPetDetails(Long id, PetPatchDTO patch, Collection<Long> expectedVersions);
+    PetResponseDTO addVaccination(Long id, VaccinationDetails vaccination, Collection<Long> expectedVersions);
+    // Marks the pet deleted; it disappears from every read until restored or purged
+    void deletePetDetails(Long id, Collection<Long> expectedVersions);
+    PetResponseDTO restorePetDetails(Long id);
+    // Hard-deletes up to batchSize pets deleted before the given instant and returns how many were removed
+    int purgeDeleted(Instant deletedBefore, int batchSize);
+    PetPageDTO getPetsByVaccinationName(String name, Long afterId, Integer limit);
 }
@@ -0,0 +1,49 @@
+package com.gevernova.petvacination.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// Hard-deletes pets deleted longer than the retention ago, off-peak and one bounded transaction per batch,
+// so neither locks nor undo grow with the backlog. Until then a deleted pet can still be restored.
+@Component
+public class PetPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(PetPurgeJob.class);
+
+    private final PetDetailsServices petDetailsServices;
+    private final Duration retention;
+    private final int batchSize;
+
+    public PetPurgeJob(PetDetailsServices petDetailsServices,
+                       @Value("${pet.purge.retention:P7D}") Duration retention,
+                       @Value("${pet.purge.batch-size:500}") int batchSize) {
+        this.petDetailsServices = petDetailsServices;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${pet.purge.cron:0 30 3 * * *}")
+    public void scan() {
+        int purged = purge(Instant.now().minus(retention));
+        if (purged > 0) {
+            logger.info("Purged {} deleted pets", purged);
+        }
+    }
+
+    // Returns how many pets deleted before the cutoff were removed
+    public int purge(Instant cutoff) {
+        int total = 0;
+        int purged;
+        do {
+            purged = petDetailsServices.purgeDeleted(cutoff, batchSize);
+            total += purged;
+        } while (purged == batchSize);
+        return total;
+    }
+}
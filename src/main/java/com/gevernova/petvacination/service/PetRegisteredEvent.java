@@ -0,0 +1,14 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Published inside the registering transaction; listeners that push it to clients should wait for the commit
+@Getter
+@AllArgsConstructor
+public class PetRegisteredEvent {
+    private final List<PetSummaryDTO> pets;
+}
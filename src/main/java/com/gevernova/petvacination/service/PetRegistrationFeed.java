@@ -0,0 +1,60 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import org.springframework.transaction.event.TransactionalEventListener;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fans pets registered on this node out to every live subscriber once the registering transaction has committed.
+// Each subscriber keeps at most bufferPerSubscriber pending pets; one that reads slower than pets arrive loses the
+// oldest, so it can neither hold back the others nor grow the heap.
+public class PetRegistrationFeed {
+
+    private final Sinks.Many<PetSummaryDTO> sink = Sinks.many().multicast().directBestEffort();
+    private final int bufferPerSubscriber;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public PetRegistrationFeed(int bufferPerSubscriber) {
+        this.bufferPerSubscriber = bufferPerSubscriber;
+    }
+
+    @TransactionalEventListener
+    public void onPetRegistered(PetRegisteredEvent event) {
+        publish(event.getPets());
+    }
+
+    // Synchronized because a sink must not be emitted to from two threads at once
+    synchronized void publish(List<PetSummaryDTO> pets) {
+        for (PetSummaryDTO pet : pets) {
+            // Fails only when nobody is subscribed, and then there is nobody to tell
+            sink.tryEmitNext(pet);
+            published.increment();
+        }
+    }
+
+    public Flux<PetSummaryDTO> subscribe() {
+        return sink.asFlux()
+                .onBackpressureBuffer(bufferPerSubscriber, pet -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+                .doOnSubscribe(subscription -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
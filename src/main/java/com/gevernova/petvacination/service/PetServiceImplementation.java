@@ -1,16 +1,60 @@
 package com.gevernova.petvacination.service;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.gevernova.petvacination.cache.PetDetailsCache;
+import com.gevernova.petvacination.datasource.ReplicaRoutingDataSource;
+import com.gevernova.petvacination.dto.BulkImportSummaryDTO;
+import com.gevernova.petvacination.dto.BulkItemResultDTO;
+import com.gevernova.petvacination.dto.BulkItemStatus;
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetPatchDTO;
+import com.gevernova.petvacination.dto.PetRequestDTO;
 import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import com.gevernova.petvacination.dto.PetSummaryPageDTO;
+import com.gevernova.petvacination.entity.EmailOutbox;
+import com.gevernova.petvacination.entity.Owner;
 import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.VaccinationDetails;
 import com.gevernova.petvacination.exceptionhandling.PetNotFoundException;
+import com.gevernova.petvacination.exceptionhandling.PreconditionFailedException;
 import com.gevernova.petvacination.mapper.Mapper;
+import com.gevernova.petvacination.mapper.PetJsonWriter;
+import com.gevernova.petvacination.repository.EmailOutboxRepository;
+import com.gevernova.petvacination.repository.OwnerRepository;
 import com.gevernova.petvacination.repository.PetDetailsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,56 +64,500 @@ import org.slf4j.LoggerFactory;
 public class PetServiceImplementation implements PetDetailsServices {
 
     private final PetDetailsRepository petDetailsRepository;
-    private final EmailService emailService;
+    private final OwnerRepository ownerRepository;
+    private final OwnerServices ownerServices;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EntityManager entityManager;
+    private final PetDetailsCache petDetailsCache;
+    private final VaccinationScheduleServices vaccinationScheduleServices;
+    private final VaccinationStatsServices vaccinationStatsServices;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger logger = LoggerFactory.getLogger(PetServiceImplementation.class);
 
+    @Value("${pet.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pet.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Value("${pet.pagination.stream-batch-size:100}")
+    private int streamBatchSize;
+
+    private static final int MAX_REPORTED_IMPORT_PROBLEMS = 100;
+    private static final JsonFactory NDJSON = new JsonFactory();
+
+    @Value("${pet.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
     @Override
     public PetResponseDTO createPetDetails(PetDetails petDetail) {
-        PetDetails savedPetDetails = petDetailsRepository.save(petDetail);
+        return createPetDetails(petDetail, created -> { });
+    }
+
+    // A new owner is stored and committed before the pet's transaction begins (see attachOwners)
+    @Override
+    public PetResponseDTO createPetDetails(PetDetails petDetail, Consumer<PetResponseDTO> beforeCommit) {
+        Set<String> newOwnerEmails = ownerServices.createMissingOwners(List.of(petDetail.getOwner()));
+        return transactionTemplate.execute(status -> {
+            attachOwners(List.of(petDetail), newOwnerEmails);
+            PetDetails savedPetDetails = petDetailsRepository.save(petDetail);
+            vaccinationScheduleServices.createSchedules(List.of(savedPetDetails));
+            vaccinationStatsServices.recordAdded(List.of(savedPetDetails));
+
+            // The email is queued in the same transaction and sent later by EmailOutboxDispatcher
+            emailOutboxRepository.save(registrationEmail(savedPetDetails));
+            eventPublisher.publishEvent(new PetRegisteredEvent(List.of(Mapper.mapToSummary(savedPetDetails))));
+            logger.info("Pet Details Saved with registration email queued for owner");
+
+            PetResponseDTO created = Mapper.mapToDTO(savedPetDetails);
+            beforeCommit.accept(created);
+            return created;
+        });
+    }
+
+    @Override
+    public List<BulkItemResultDTO> createPetDetailsInBulk(Iterator<PetRequestDTO> requests) {
+        List<BulkItemResultDTO> results = new ArrayList<>();
+        registerInChunks(requests, true, results::add);
+        // Invalid items are reported as they are read, ahead of the chunk still being filled
+        results.sort(Comparator.comparingInt(BulkItemResultDTO::getIndex));
+        return results;
+    }
+
+    // Same path as the bulk endpoint, but only counts are kept, so memory does not grow with the input.
+    // Imports load existing records rather than new registrations, so owners are not emailed and no PetRegisteredEvent is published.
+    @Override
+    public BulkImportSummaryDTO importPetDetails(Iterator<PetRequestDTO> requests) {
+        BulkImportSummaryDTO summary = BulkImportSummaryDTO.builder().problems(new ArrayList<>()).build();
+        registerInChunks(requests, false, result -> {
+            switch (result.getStatus()) {
+                case CREATED -> summary.setCreated(summary.getCreated() + 1);
+                case INVALID -> summary.setInvalid(summary.getInvalid() + 1);
+                case FAILED -> summary.setFailed(summary.getFailed() + 1);
+            }
+            if (result.getStatus() != BulkItemStatus.CREATED && summary.getProblems().size() < MAX_REPORTED_IMPORT_PROBLEMS) {
+                summary.getProblems().add(result);
+            }
+        });
+        logger.info("Imported {} pets ({} invalid, {} failed)", summary.getCreated(), summary.getInvalid(), summary.getFailed());
+        return summary;
+    }
+
+    // Hands each item's result to the consumer once it is final
+    private void registerInChunks(Iterator<PetRequestDTO> requests, boolean notifyOwners, Consumer<BulkItemResultDTO> results) {
+        List<PetDetails> chunk = new ArrayList<>(bulkChunkSize);
+        List<BulkItemResultDTO> chunkResults = new ArrayList<>(bulkChunkSize);
+        int index = 0;
+        while (true) {
+            PetRequestDTO request;
+            try {
+                if (!requests.hasNext()) {
+                    break;
+                }
+                request = requests.next();
+            } catch (RuntimeException e) {
+                // A malformed item leaves the rest of a stream unreadable, so stop here and keep what was parsed
+                logger.warn("Stopped reading bulk request at item {}: {}", index, e.getMessage());
+                results.accept(BulkItemResultDTO.builder()
+                        .index(index)
+                        .status(BulkItemStatus.INVALID)
+                        .errors(Map.of("request", "Malformed item: " + e.getMessage()))
+                        .build());
+                break;
+            }
+
+            BulkItemResultDTO result = BulkItemResultDTO.builder().index(index++).build();
+            Map<String, String> errors = validate(request);
+            if (!errors.isEmpty()) {
+                result.setStatus(BulkItemStatus.INVALID);
+                result.setErrors(errors);
+                results.accept(result);
+                continue;
+            }
+            chunk.add(Mapper.mapToEntity(request));
+            chunkResults.add(result);
+            if (chunk.size() == bulkChunkSize) {
+                persistChunk(chunk, chunkResults, notifyOwners, results);
+            }
+        }
+        persistChunk(chunk, chunkResults, notifyOwners, results);
+    }
+
+    private Map<String, String> validate(PetRequestDTO request) {
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<PetRequestDTO> violation : validator.validate(request)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
 
-        if(emailService.sendRegistrationEmail(petDetail.getOwnerEmail(),petDetail.getPetName())){
-            logger.info("Pet Details Saved with Email Sent to owner");
+    // Each chunk commits on its own, so one bad chunk does not roll back the ones before it.
+    // With sequence ids and hibernate.jdbc.batch_size the pet_details and pet_vaccine inserts go out as JDBC batches.
+    private void persistChunk(List<PetDetails> chunk, List<BulkItemResultDTO> chunkResults, boolean notifyOwners,
+                              Consumer<BulkItemResultDTO> results) {
+        if (chunk.isEmpty()) {
+            return;
         }
+        try {
+            Set<String> newOwnerEmails = ownerServices.createMissingOwners(owners(chunk));
+            transactionTemplate.executeWithoutResult(status -> {
+                attachOwners(chunk, newOwnerEmails);
+                petDetailsRepository.saveAll(chunk);
+                vaccinationScheduleServices.createSchedules(chunk);
+                vaccinationStatsServices.recordAdded(chunk);
+                if (notifyOwners) {
+                    emailOutboxRepository.saveAll(registrationEmails(chunk));
+                    eventPublisher.publishEvent(new PetRegisteredEvent(summaries(chunk)));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int i = 0; i < chunk.size(); i++) {
+                chunkResults.get(i).setStatus(BulkItemStatus.CREATED);
+                chunkResults.get(i).setId(chunk.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            logger.error("Bulk chunk of {} pets failed and was rolled back: {}", chunk.size(), e.getMessage());
+            for (BulkItemResultDTO result : chunkResults) {
+                result.setStatus(BulkItemStatus.FAILED);
+                result.setErrors(Map.of("chunk", "Rolled back: " + e.getMessage()));
+            }
+        }
+        chunkResults.forEach(results);
+        chunk.clear();
+        chunkResults.clear();
+    }
 
-        return Mapper.mapToDTO(savedPetDetails);
+    // One email per owner, however many of their pets were registered together
+    private List<EmailOutbox> registrationEmails(List<PetDetails> pets) {
+        Map<Owner, List<String>> petNamesByOwner = new LinkedHashMap<>();
+        for (PetDetails petDetails : pets) {
+            petNamesByOwner.computeIfAbsent(petDetails.getOwner(), owner -> new ArrayList<>(1)).add(petDetails.getPetName());
+        }
+        List<EmailOutbox> emails = new ArrayList<>(petNamesByOwner.size());
+        petNamesByOwner.forEach((owner, petNames) ->
+                emails.add(EmailOutboxDispatcher.outboxEntry(EmailService.registrationMessage(owner.getEmail(), petNames))));
+        return emails;
     }
 
+    private static List<Owner> owners(List<PetDetails> pets) {
+        List<Owner> owners = new ArrayList<>(pets.size());
+        for (PetDetails petDetails : pets) {
+            owners.add(petDetails.getOwner());
+        }
+        return owners;
+    }
 
+    private static List<PetSummaryDTO> summaries(List<PetDetails> pets) {
+        List<PetSummaryDTO> summaries = new ArrayList<>(pets.size());
+        for (PetDetails petDetails : pets) {
+            summaries.add(Mapper.mapToSummary(petDetails));
+        }
+        return summaries;
+    }
+
+    private EmailOutbox registrationEmail(PetDetails petDetails) {
+        return EmailOutboxDispatcher.outboxEntry(EmailService.registrationMessage(petDetails.getOwner().getEmail(), petDetails.getPetName()));
+    }
+
+    // Updates change the loaded entity in place: with @DynamicUpdate only modified columns are written,
+    // and the vaccine set is diffed so pet_vaccine sees one INSERT or DELETE per changed dose.
+    @Override
+    @Transactional
+    public PetResponseDTO updatePetDetails(Long id, PetDetails updatedPetDetails, Collection<Long> expectedVersions) {
+        PetDetails newUpdatedPetDetails = findForUpdate(id, expectedVersions);
+        PetStatsSnapshot before = PetStatsSnapshot.of(newUpdatedPetDetails);
+        boolean scheduleChanged = newUpdatedPetDetails.getSpecies() != updatedPetDetails.getSpecies();
+        newUpdatedPetDetails.setPetName(updatedPetDetails.getPetName());
+        newUpdatedPetDetails.setSpecies(updatedPetDetails.getSpecies());
+        newUpdatedPetDetails.setBreed(updatedPetDetails.getBreed());
+        Owner requestedOwner = updatedPetDetails.getOwner();
+        assignOwner(newUpdatedPetDetails, requestedOwner.getEmail(), requestedOwner.getName(), requestedOwner.getContact());
+        scheduleChanged |= replaceVaccines(newUpdatedPetDetails, updatedPetDetails.getVaccines());
+
+        logger.info("Saving updated pet details for ID: {}", id);
+        return afterUpdate(newUpdatedPetDetails, before, scheduleChanged);
+    }
 
     @Override
-    public PetResponseDTO updatePetDetails(Long id, PetDetails updatedPetDetails) {
-        PetDetails newUpdatedPetDetails = petDetailsRepository.findById(id)
+    @Transactional
+    public PetResponseDTO patchPetDetails(Long id, PetPatchDTO patch, Collection<Long> expectedVersions) {
+        PetDetails petDetails = findForUpdate(id, expectedVersions);
+        PetStatsSnapshot before = PetStatsSnapshot.of(petDetails);
+        boolean scheduleChanged = false;
+        if (patch.getName() != null) {
+            petDetails.setPetName(patch.getName());
+        }
+        if (patch.getSpecies() != null && patch.getSpecies() != petDetails.getSpecies()) {
+            petDetails.setSpecies(patch.getSpecies());
+            scheduleChanged = true;
+        }
+        if (patch.getBreed() != null) {
+            petDetails.setBreed(patch.getBreed());
+        }
+        if (patch.getOwnerName() != null || patch.getOwnerContact() != null || patch.getOwnerEmail() != null) {
+            assignOwner(petDetails, patch.getOwnerEmail(), patch.getOwnerName(), patch.getOwnerContact());
+        }
+        if (patch.getVaccines() != null) {
+            scheduleChanged |= replaceVaccines(petDetails, Mapper.mapToEntities(patch.getVaccines()));
+        }
+
+        logger.info("Patched pet details for ID: {}", id);
+        return afterUpdate(petDetails, before, scheduleChanged);
+    }
+
+    @Override
+    @Transactional
+    public PetResponseDTO addVaccination(Long id, VaccinationDetails vaccination, Collection<Long> expectedVersions) {
+        PetDetails petDetails = findForUpdate(id, expectedVersions);
+        PetStatsSnapshot before = PetStatsSnapshot.of(petDetails);
+        // Adding a dose already on record changes nothing
+        boolean added = petDetails.getVaccines().add(vaccination);
+
+        logger.info("Added {} vaccination for pet ID: {}", added ? "a" : "no new", id);
+        return afterUpdate(petDetails, before, added);
+    }
+
+    // The version is checked here against the client's If-Match and again by Hibernate in the UPDATE's
+    // WHERE clause, so a write that raced this one fails instead of being overwritten
+    private PetDetails findForUpdate(Long id, Collection<Long> expectedVersions) {
+        PetDetails petDetails = petDetailsRepository.findWithVaccinesById(id)
                 .orElseThrow(() -> {
                     logger.error("Attempted to update non-existent pet Details with ID: {}.", id);
                     return new PetNotFoundException("Pet with ID: " + id + " was not found.");
                 });
-        newUpdatedPetDetails.setPetName(updatedPetDetails.getPetName());
-        newUpdatedPetDetails.setSpecies(updatedPetDetails.getSpecies());
-        newUpdatedPetDetails.setBreed(updatedPetDetails.getBreed());
-        newUpdatedPetDetails.setOwnerContact(updatedPetDetails.getOwnerContact());
-        newUpdatedPetDetails.setOwnerName(updatedPetDetails.getOwnerName());
-        newUpdatedPetDetails.setOwnerEmail(updatedPetDetails.getOwnerEmail());
-        newUpdatedPetDetails.setVaccines(updatedPetDetails.getVaccines());
+        checkVersion(id, petDetails.getVersion(), expectedVersions);
+        return petDetails;
+    }
 
-        PetDetails savedPetDetails = petDetailsRepository.save(newUpdatedPetDetails); // Save the updated entity
-        logger.info("Saving updated pet details for ID: {}", savedPetDetails.getId());
-        return Mapper.mapToDTO(savedPetDetails); // Return PetDTO
+    private static void checkVersion(Long id, Long currentVersion, Collection<Long> expectedVersions) {
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            throw new PreconditionFailedException("Pet with ID: " + id + " has changed; current version is " + currentVersion);
+        }
+    }
+
+    // Replaces each pet's unsaved owner with the stored owner of that email, loading them all in one query. The
+    // owners are stored beforehand by OwnerServices.createMissingOwners, in a transaction that has committed, so
+    // two registrations of the same new owner cannot collide here. Each owner takes the name and contact given;
+    // only owners stored before this registration (not in newOwnerEmails) can have other pets to update.
+    private void attachOwners(List<PetDetails> pets, Set<String> newOwnerEmails) {
+        Set<String> emails = new HashSet<>();
+        for (PetDetails petDetails : pets) {
+            emails.add(Owner.normalizeEmail(petDetails.getOwner().getEmail()));
+        }
+        Map<String, Owner> owners = new HashMap<>();
+        for (Owner owner : ownerRepository.findByEmailIn(emails)) {
+            owners.put(owner.getEmail(), owner);
+        }
+
+        Set<Long> changedOwnerIds = new HashSet<>();
+        for (PetDetails petDetails : pets) {
+            Owner given = petDetails.getOwner();
+            String email = Owner.normalizeEmail(given.getEmail());
+            Owner owner = owners.get(email);
+            if (owner == null) {
+                throw new IllegalStateException("Owner " + email + " was not stored before registering the pet");
+            }
+            if (applyOwnerDetails(owner, given.getName(), given.getContact()) && !newOwnerEmails.contains(email)) {
+                changedOwnerIds.add(owner.getId());
+            }
+            petDetails.setOwner(owner);
+        }
+        ownerDetailsChanged(changedOwnerIds, 0L);
+    }
+
+    // Points the pet at the owner with the given email (null keeps its owner), creating the owner if needed,
+    // then applies name and contact to that owner; null keeps the owner's value
+    private void assignOwner(PetDetails petDetails, String email, String name, String contact) {
+        Owner current = petDetails.getOwner();
+        Owner owner = current;
+        String normalizedEmail = Owner.normalizeEmail(email);
+        if (normalizedEmail != null && (current == null || !normalizedEmail.equals(current.getEmail()))) {
+            owner = ownerRepository.findByEmail(normalizedEmail).orElseGet(() -> newOwner(normalizedEmail,
+                    name != null || current == null ? name : current.getName(),
+                    contact != null || current == null ? contact : current.getContact()));
+            petDetails.setOwner(owner);
+        }
+        if (owner != null && applyOwnerDetails(owner, name, contact)) {
+            // Only the owner row changes, so this pet's version is bumped explicitly to change its ETag
+            entityManager.lock(petDetails, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            ownerDetailsChanged(Set.of(owner.getId()), petDetails.getId());
+        }
+    }
+
+    // Moving a pet to an email nobody has yet is rare, so the owner is stored from inside the update, on a second
+    // connection. The locking read sees that commit even where this transaction's snapshot predates it (MySQL).
+    private Owner newOwner(String email, String name, String contact) {
+        ownerServices.createMissingOwners(List.of(new Owner(null, name, contact, email)));
+        return ownerRepository.findLockedByEmail(email)
+                .orElseThrow(() -> new IllegalStateException("Owner " + email + " was not stored"));
+    }
+
+    private static boolean applyOwnerDetails(Owner owner, String name, String contact) {
+        boolean changed = false;
+        if (name != null && !name.equals(owner.getName())) {
+            owner.setName(name);
+            changed = true;
+        }
+        if (contact != null && !contact.equals(owner.getContact())) {
+            owner.setContact(contact);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // The owner's other pets now read differently: bump their versions and drop their cached copies
+    private void ownerDetailsChanged(Set<Long> ownerIds, long excludedPetId) {
+        if (ownerIds.isEmpty()) {
+            return;
+        }
+        petDetailsRepository.incrementVersionsOfOwners(ownerIds, excludedPetId);
+        for (Long petId : petDetailsRepository.findIdsByOwnerIdIn(ownerIds)) {
+            invalidateAfterCommit(petId);
+        }
+    }
+
+    // Keeps the managed collection so Hibernate can diff it; replacing the instance would rewrite every row
+    private static boolean replaceVaccines(PetDetails petDetails, Set<VaccinationDetails> wanted) {
+        Set<VaccinationDetails> target = wanted != null ? wanted : Set.of();
+        Set<VaccinationDetails> current = petDetails.getVaccines();
+        boolean changed = current.retainAll(target);
+        changed |= current.addAll(target);
+        return changed;
+    }
+
+    // Species and vaccines drive both the due dates and the statistics, so a change to neither skips both
+    private PetResponseDTO afterUpdate(PetDetails petDetails, PetStatsSnapshot before, boolean scheduleChanged) {
+        if (scheduleChanged) {
+            vaccinationScheduleServices.refreshSchedule(petDetails);
+            vaccinationStatsServices.recordChanges(List.of(before), List.of(PetStatsSnapshot.of(petDetails)));
+        }
+        invalidateAfterCommit(petDetails.getId());
+        // Flushed here so the returned DTO, and the ETag built from it, carry the incremented version
+        entityManager.flush();
+        return Mapper.mapToDTO(petDetails);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PetSummaryPageDTO searchPetSummaries(PetSearchCriteria criteria, Long afterId, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<PetSummaryDTO> pets = petDetailsRepository.searchSummariesAfter(
+                withoutBlanks(criteria), afterId == null ? 0L : afterId, pageSize);
+
+        Long nextCursor = pets.size() == pageSize ? pets.get(pets.size() - 1).getId() : null;
+        return PetSummaryPageDTO.builder()
+                .pets(pets)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PetPageDTO searchPetDetails(PetSearchCriteria criteria, Long afterId, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<PetDetails> page = petDetailsRepository.searchPageAfter(
+                withoutBlanks(criteria), afterId == null ? 0L : afterId, pageSize);
+
+        List<PetResponseDTO> pets = page.stream()
+                .map(Mapper::mapToDTO)
+                .collect(Collectors.toList());
+        Long nextCursor = page.size() == pageSize ? page.get(page.size() - 1).getId() : null;
+        return PetPageDTO.builder()
+                .pets(pets)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Empty query parameters (?breed=) mean no filter rather than matching empty values
+    private static PetSearchCriteria withoutBlanks(PetSearchCriteria criteria) {
+        return PetSearchCriteria.builder()
+                .species(criteria.getSpecies())
+                .breedPrefix(trimToNull(criteria.getBreedPrefix()))
+                .ownerEmail(trimToNull(criteria.getOwnerEmail()))
+                .ownerContact(trimToNull(criteria.getOwnerContact()))
+                .vaccineName(trimToNull(criteria.getVaccineName()))
+                .vaccinatedAfter(criteria.getVaccinatedAfter())
+                .build();
+    }
+
+    private static String trimToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
     }
 
     @Override
-    public List<PetResponseDTO> getAllPetDetails() {
-        List<PetDetails> petDetails = petDetailsRepository.findAll();
-        return petDetails.stream().
-                map(Mapper::mapToDTO)
+    @Transactional(readOnly = true)
+    public PetPageDTO getPetDetailsPage(Long afterId, Integer limit) {
+        int pageSize = pageSize(limit);
+        List<PetDetails> page = petDetailsRepository.findPageAfter(afterId == null ? 0L : afterId, pageSize);
+
+        List<PetResponseDTO> pets = page.stream()
+                .map(Mapper::mapToDTO)
                 .collect(Collectors.toList());
+        Long nextCursor = page.size() == pageSize ? page.get(page.size() - 1).getId() : null;
+        return PetPageDTO.builder()
+                .pets(pets)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllPetDetails(OutputStream outputStream) throws IOException {
+        // Pets are written in small groups so that the vaccines of a whole group are batch fetched in one query,
+        // then the persistence context is cleared so memory stays flat regardless of table size.
+        // PetJsonWriter writes each entity without building its DTO first.
+        List<PetDetails> buffer = new ArrayList<>(streamBatchSize);
+        try (JsonGenerator generator = NDJSON.createGenerator(outputStream);
+             Stream<PetDetails> pets = petDetailsRepository.streamAllOrderedById()) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            Iterator<PetDetails> iterator = pets.iterator();
+            while (iterator.hasNext()) {
+                buffer.add(iterator.next());
+                if (buffer.size() == streamBatchSize) {
+                    write(buffer, generator);
+                }
+            }
+            write(buffer, generator);
+        }
+    }
+
+    private void write(List<PetDetails> buffer, JsonGenerator generator) throws IOException {
+        for (PetDetails petDetails : buffer) {
+            PetJsonWriter.writePet(generator, petDetails);
+            generator.writeRaw('\n');
+        }
+        buffer.clear();
+        entityManager.clear();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<PetResponseDTO> getPetDetailsById(Long id) {
-        Optional<PetDetails> pet = petDetailsRepository.findById(id);
+        Optional<PetResponseDTO> cached = petDetailsCache.get(id);
+        if (cached.isPresent()) {
+            return cached;
+        }
+
+        // Read before the load, so a write committed while the pet is loaded keeps the old copy out of the cache
+        long generation = petDetailsCache.generation(id);
+        Optional<PetDetails> pet = petDetailsRepository.findWithVaccinesById(id);
         if (pet.isPresent()) {
             logger.debug("Fetched pet Details for Pet ID: {}", id);
-            return pet.map(Mapper::mapToDTO);
+            PetResponseDTO petResponseDTO = Mapper.mapToDTO(pet.get());
+            // A replica can lag behind a write that has just invalidated this entry, so only the primary's copy is
+            // cached; otherwise the old row would be served for the whole TTL, to the writer as well
+            if (!ReplicaRoutingDataSource.readingFromReplica()) {
+                petDetailsCache.put(id, petResponseDTO, generation);
+            }
+            return Optional.of(petResponseDTO);
         } else {
             logger.debug("pet with ID: {} not found in repository.", id);
             return Optional.empty();
@@ -77,20 +565,91 @@ public class PetServiceImplementation implements PetDetailsServices {
     }
 
     @Override
-    public void deletePetDetails(Long id) {
-        if (!petDetailsRepository.existsById(id)) {
-            logger.error("Cannot delete: Pet with ID: {} does not exist.", id);
-            throw new PetNotFoundException("Pet with ID: " + id + " was not found.");
+    @Transactional(readOnly = true)
+    public Optional<Long> getPetVersion(Long id) {
+        Optional<PetResponseDTO> cached = petDetailsCache.get(id);
+        if (cached.isPresent()) {
+            return Optional.ofNullable(cached.get().getVersion());
         }
-        petDetailsRepository.deleteById(id);
+        return petDetailsRepository.findVersionById(id);
     }
 
+    // One conditional UPDATE on the primary key sets the tombstone and the pet leaves the statistics; its vaccines and
+    // due rows are left for the purge. Only a failed update costs a second query, to tell a stale version from a missing pet.
     @Override
-    public List<PetResponseDTO> getPetsByVaccinationName(String vaccineName){
-        List<PetDetails> petDetailsList = petDetailsRepository.petsVaccinatedBySameDisease(vaccineName);
-        return petDetailsList.stream()
+    @Transactional
+    public void deletePetDetails(Long id, Collection<Long> expectedVersions) {
+        Instant now = Instant.now();
+        int deleted = expectedVersions == null
+                ? petDetailsRepository.markDeleted(id, now)
+                : petDetailsRepository.markDeletedIfVersionIn(id, now, expectedVersions);
+        if (deleted == 0) {
+            Long currentVersion = petDetailsRepository.findVersionById(id)
+                    .orElseThrow(() -> {
+                        logger.error("Cannot delete: Pet with ID: {} does not exist.", id);
+                        return new PetNotFoundException("Pet with ID: " + id + " was not found.");
+                    });
+            checkVersion(id, currentVersion, expectedVersions);
+        } else {
+            vaccinationStatsServices.recordDeleted(List.of(id));
+        }
+        invalidateAfterCommit(id);
+    }
+
+    @Override
+    @Transactional
+    public PetResponseDTO restorePetDetails(Long id) {
+        if (petDetailsRepository.clearDeleted(id) == 0) {
+            throw new PetNotFoundException("No deleted pet with ID: " + id + " to restore; it may have been purged.");
+        }
+        vaccinationStatsServices.recordRestored(List.of(id));
+        invalidateAfterCommit(id);
+        PetDetails petDetails = petDetailsRepository.findWithVaccinesById(id)
+                .orElseThrow(() -> new PetNotFoundException("Pet with ID: " + id + " was not found."));
+        logger.info("Pet with ID {} restored", id);
+        return Mapper.mapToDTO(petDetails);
+    }
+
+    // Rows go child tables first, all in one transaction; the statistics stopped counting the pets when they were deleted
+    @Override
+    @Transactional
+    public int purgeDeleted(Instant deletedBefore, int batchSize) {
+        List<Long> ids = petDetailsRepository.lockDeletedBefore(deletedBefore, batchSize);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        vaccinationScheduleServices.deleteSchedules(ids);
+        petDetailsRepository.purgeVaccines(ids);
+        return petDetailsRepository.purgeDeleted(ids);
+    }
+
+    // Evict now and again after commit. The second eviction drops any copy a concurrent reader cached from the pre-commit
+    // row, and moves the generation on, so a reader that loaded the pre-commit row and has not stored it yet is refused
+    private void invalidateAfterCommit(Long id) {
+        petDetailsCache.invalidate(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                petDetailsCache.invalidate(id);
+            }
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PetPageDTO getPetsByVaccinationName(String vaccineName, Long afterId, Integer limit){
+        int pageSize = pageSize(limit);
+        List<PetDetails> page = petDetailsRepository.petsVaccinatedBySameDisease(
+                vaccineName, afterId == null ? 0L : afterId, pageSize);
+
+        List<PetResponseDTO> pets = page.stream()
                 .map(Mapper::mapToDTO)
                 .collect(Collectors.toList());
+        Long nextCursor = page.size() == pageSize ? page.get(page.size() - 1).getId() : null;
+        return PetPageDTO.builder()
+                .pets(pets)
+                .nextCursor(nextCursor)
+                .build();
     }
 
 
@@ -0,0 +1,74 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.entity.VaccinationStats;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// What one pet counts towards in vaccination_stats, captured before a change so the difference can be
+// recorded afterwards. Taken from a pet whose vaccines are loaded.
+public final class PetStatsSnapshot {
+
+    private final Species species;
+    // vaccine key -> display name
+    private final Map<String, String> vaccines = new HashMap<>();
+    // (vaccine key, month) -> doses
+    private final Map<DoseGroup, Integer> doses = new HashMap<>();
+
+    private PetStatsSnapshot(PetDetails petDetails) {
+        species = petDetails.getSpecies();
+        if (petDetails.getVaccines() == null) {
+            return;
+        }
+        for (VaccinationDetails vaccine : petDetails.getVaccines()) {
+            if (vaccine.getName() == null) {
+                continue;
+            }
+            String vaccineKey = VaccinationDetails.normalizeName(vaccine.getName());
+            vaccines.putIfAbsent(vaccineKey, vaccine.getName().trim());
+            if (vaccine.getDateGiven() != null) {
+                doses.merge(new DoseGroup(vaccineKey, vaccine.getDateGiven().withDayOfMonth(1)), 1, Integer::sum);
+            }
+        }
+    }
+
+    public static PetStatsSnapshot of(PetDetails petDetails) {
+        return new PetStatsSnapshot(petDetails);
+    }
+
+    public static List<PetStatsSnapshot> of(List<PetDetails> pets) {
+        return pets.stream().map(PetStatsSnapshot::new).toList();
+    }
+
+    // Adds (sign 1) or removes (sign -1) this pet's counts, keyed by (species, vaccine key, month)
+    void addTo(Map<StatsGroup, VaccinationStats> totals, int sign) {
+        add(totals, new StatsGroup(species, VaccinationStats.ALL_VACCINES, VaccinationStats.ALL_MONTHS),
+                VaccinationStats.ALL_VACCINES, sign, vaccines.isEmpty() ? 0 : sign, 0);
+        vaccines.forEach((vaccineKey, name) ->
+                add(totals, new StatsGroup(species, vaccineKey, VaccinationStats.ALL_MONTHS), name, sign, 0, 0));
+        doses.forEach((group, count) ->
+                add(totals, new StatsGroup(species, group.vaccineKey(), group.month()), vaccines.get(group.vaccineKey()),
+                        0, 0, sign * count));
+    }
+
+    private static void add(Map<StatsGroup, VaccinationStats> totals, StatsGroup group, String vaccineName,
+                            long pets, long vaccinatedPets, long doses) {
+        totals.computeIfAbsent(group, key -> new VaccinationStats(key.species(), key.vaccineKey(), vaccineName,
+                        key.month(), 0L, 0L, 0L))
+                .add(pets, vaccinatedPets, doses);
+    }
+
+    record StatsGroup(Species species, String vaccineKey, LocalDate month) {
+        static StatsGroup of(VaccinationStats stats) {
+            return new StatsGroup(stats.getSpecies(), stats.getVaccineKey(), stats.getMonth());
+        }
+    }
+
+    private record DoseGroup(String vaccineKey, LocalDate month) {
+    }
+}
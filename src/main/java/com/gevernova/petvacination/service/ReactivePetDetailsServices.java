@@ -0,0 +1,21 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import com.gevernova.petvacination.dto.ReactiveStatsDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Non-blocking view of PetDetailsServices. JDBC still blocks, so every read runs on a bounded scheduler sized to the
+// connection pool, and streams read one keyset page at a time as the subscriber asks for more.
+public interface ReactivePetDetailsServices {
+
+    Mono<PetResponseDTO> getPetDetailsById(Long id);
+    Mono<Long> getPetVersion(Long id);
+    Flux<PetSummaryDTO> searchPetSummaries(PetSearchCriteria criteria);
+    Flux<PetResponseDTO> streamAllPetDetails();
+    // Pets registered from now on, as their transactions commit; never completes
+    Flux<PetSummaryDTO> registrations();
+    ReactiveStatsDTO getStats();
+}
@@ -0,0 +1,96 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import com.gevernova.petvacination.dto.PetSummaryPageDTO;
+import com.gevernova.petvacination.dto.ReactiveStatsDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class ReactivePetServiceImplementation implements ReactivePetDetailsServices {
+
+    private final PetDetailsServices petDetailsServices;
+    private final PetRegistrationFeed registrationFeed;
+    private final Scheduler jdbcScheduler;
+    private final int pageSize;
+    private final AtomicInteger openStreams = new AtomicInteger();
+    private final LongAdder pagesRead = new LongAdder();
+
+    public ReactivePetServiceImplementation(PetDetailsServices petDetailsServices, PetRegistrationFeed registrationFeed,
+                                            Scheduler jdbcScheduler, int pageSize) {
+        this.petDetailsServices = petDetailsServices;
+        this.registrationFeed = registrationFeed;
+        this.jdbcScheduler = jdbcScheduler;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public Mono<PetResponseDTO> getPetDetailsById(Long id) {
+        return blocking(() -> petDetailsServices.getPetDetailsById(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Mono<Long> getPetVersion(Long id) {
+        return blocking(() -> petDetailsServices.getPetVersion(id)).flatMap(Mono::justOrEmpty);
+    }
+
+    @Override
+    public Flux<PetSummaryDTO> searchPetSummaries(PetSearchCriteria criteria) {
+        return paged(after -> petDetailsServices.searchPetSummaries(criteria, after, pageSize),
+                PetSummaryPageDTO::getPets, PetSummaryPageDTO::getNextCursor);
+    }
+
+    @Override
+    public Flux<PetResponseDTO> streamAllPetDetails() {
+        return paged(after -> petDetailsServices.getPetDetailsPage(after, pageSize),
+                PetPageDTO::getPets, PetPageDTO::getNextCursor);
+    }
+
+    @Override
+    public Flux<PetSummaryDTO> registrations() {
+        return registrationFeed.subscribe();
+    }
+
+    // Page n+1 is read once page n has been handed on, and held until the subscriber asks for it, so a stream
+    // keeps at most two pages in memory and no connection or thread between pages, however slowly it is read
+    private <P, T> Flux<T> paged(Function<Long, P> readPage, Function<P, List<T>> items, Function<P, Long> nextCursor) {
+        Flux<P> pages = page(readPage, null).expand(page -> {
+            Long cursor = nextCursor.apply(page);
+            return cursor == null ? Mono.empty() : page(readPage, cursor);
+        });
+        return pages.concatMapIterable(items, 1)
+                .doOnSubscribe(subscription -> openStreams.incrementAndGet())
+                .doFinally(signal -> openStreams.decrementAndGet());
+    }
+
+    private <P> Mono<P> page(Function<Long, P> readPage, Long after) {
+        return blocking(() -> {
+            pagesRead.increment();
+            return readPage.apply(after);
+        });
+    }
+
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(jdbcScheduler);
+    }
+
+    @Override
+    public ReactiveStatsDTO getStats() {
+        return ReactiveStatsDTO.builder()
+                .openStreams(openStreams.get())
+                .pagesRead(pagesRead.sum())
+                .feedSubscribers(registrationFeed.getSubscribers())
+                .registrationsPublished(registrationFeed.getPublished())
+                .registrationsDropped(registrationFeed.getDropped())
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.EmailMessageDTO;
+import com.gevernova.petvacination.dto.VaccinationDueDTO;
+import com.gevernova.petvacination.entity.EmailOutbox;
+import com.gevernova.petvacination.entity.VaccinationDue;
+import com.gevernova.petvacination.repository.EmailOutboxRepository;
+import com.gevernova.petvacination.repository.VaccinationDueRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reminds owners of boosters due within the lead time, or already overdue. Due rows are read in keyset
+// pages, and each page is turned into one email per owner covering all of their pets' boosters in the page.
+// The emails are queued in email_outbox in the same transaction that marks the rows reminded, so
+// EmailOutboxDispatcher delivers them with its retries and backoff, and a crash never reminds twice or not at all.
+// Like EmailOutboxDispatcher, one instance per database.
+@Component
+public class VaccinationReminderJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaccinationReminderJob.class);
+
+    private final VaccinationDueRepository vaccinationDueRepository;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Period leadTime;
+    private final int batchSize;
+
+    public VaccinationReminderJob(VaccinationDueRepository vaccinationDueRepository,
+                                  EmailOutboxRepository emailOutboxRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${pet.reminders.lead-time:P7D}") Period leadTime,
+                                  @Value("${pet.reminders.batch-size:100}") int batchSize) {
+        this.vaccinationDueRepository = vaccinationDueRepository;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leadTime = leadTime;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${pet.reminders.cron:0 0 7 * * *}")
+    public void scan() {
+        int reminded = sendReminders(LocalDate.now());
+        if (reminded > 0) {
+            logger.info("Queued {} vaccination reminders", reminded);
+        }
+    }
+
+    // Returns how many due boosters were reminded, which can be more than the emails queued
+    public int sendReminders(LocalDate today) {
+        LocalDate dueBy = today.plus(leadTime);
+        LocalDate afterDate = VaccinationDue.EARLIEST_DUE_DATE;
+        long afterId = 0;
+        int reminded = 0;
+        List<VaccinationDueDTO> page;
+        do {
+            LocalDate pageAfterDate = afterDate;
+            long pageAfterId = afterId;
+            page = transactionTemplate.execute(status -> {
+                List<VaccinationDueDTO> due = vaccinationDueRepository.findUnremindedDueBy(
+                        dueBy, pageAfterDate, pageAfterId, Limit.of(batchSize));
+                if (!due.isEmpty()) {
+                    remind(due, today);
+                }
+                return due;
+            });
+            if (page == null || page.isEmpty()) {
+                break;
+            }
+            reminded += page.size();
+            VaccinationDueDTO last = page.get(page.size() - 1);
+            afterDate = last.getNextDueDate();
+            afterId = last.getId();
+        } while (page.size() == batchSize);
+        return reminded;
+    }
+
+    private void remind(List<VaccinationDueDTO> page, LocalDate today) {
+        Map<String, List<VaccinationDueDTO>> byOwner = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(page.size());
+        for (VaccinationDueDTO due : page) {
+            byOwner.computeIfAbsent(due.getOwnerEmail(), email -> new ArrayList<>(2)).add(due);
+            ids.add(due.getId());
+        }
+        List<EmailOutbox> emails = new ArrayList<>(byOwner.size());
+        for (List<VaccinationDueDTO> dues : byOwner.values()) {
+            for (EmailMessageDTO message : reminderMessages(dues, today)) {
+                emails.add(EmailOutboxDispatcher.outboxEntry(message));
+            }
+        }
+        emailOutboxRepository.saveAll(emails);
+        vaccinationDueRepository.markReminded(ids, VaccinationDue.REMINDED);
+    }
+
+    // Usually one email per owner; a long list is split so each body fits in email_outbox
+    static List<EmailMessageDTO> reminderMessages(List<VaccinationDueDTO> dues, LocalDate today) {
+        List<EmailMessageDTO> messages = new ArrayList<>(1);
+        String header = dues.get(0).getOwnerName() + ", these boosters need attention:\n";
+        List<VaccinationDueDTO> group = new ArrayList<>(dues.size());
+        int length = header.length();
+        for (VaccinationDueDTO due : dues) {
+            int lineLength = boosterLine(due, today).length() + 3;
+            if (!group.isEmpty() && length + lineLength > EmailOutbox.MAX_BODY_LENGTH) {
+                messages.add(reminderMessage(group, today));
+                group = new ArrayList<>();
+                length = header.length();
+            }
+            group.add(due);
+            length += lineLength;
+        }
+        messages.add(reminderMessage(group, today));
+        return messages;
+    }
+
+    // One email for all of an owner's due boosters
+    static EmailMessageDTO reminderMessage(List<VaccinationDueDTO> dues, LocalDate today) {
+        VaccinationDueDTO first = dues.get(0);
+        if (dues.size() == 1) {
+            return EmailMessageDTO.builder()
+                    .to(first.getOwnerEmail())
+                    .subject(first.getPetName() + "'s " + first.getVaccineName() + " booster " + when(first, today))
+                    .text(first.getOwnerName() + ", " + boosterLine(first, today))
+                    .build();
+        }
+        StringBuilder text = new StringBuilder(first.getOwnerName()).append(", these boosters need attention:\n");
+        for (VaccinationDueDTO due : dues) {
+            text.append("- ").append(boosterLine(due, today)).append('\n');
+        }
+        return EmailMessageDTO.builder()
+                .to(first.getOwnerEmail())
+                .subject(dues.size() + " vaccination boosters are due for your pets")
+                .text(text.toString())
+                .build();
+    }
+
+    private static String boosterLine(VaccinationDueDTO due, LocalDate today) {
+        return due.getPetName() + "'s " + due.getVaccineName() + " booster " + when(due, today)
+                + ". The last dose was given on " + due.getLastGiven() + ".";
+    }
+
+    private static String when(VaccinationDueDTO due, LocalDate today) {
+        return due.getNextDueDate().isBefore(today)
+                ? "was due on " + due.getNextDueDate()
+                : "is due on " + due.getNextDueDate();
+    }
+}
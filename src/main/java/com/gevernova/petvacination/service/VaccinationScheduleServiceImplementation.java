@@ -0,0 +1,148 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.VaccinationDueDTO;
+import com.gevernova.petvacination.dto.VaccinationDuePageDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.entity.VaccinationDue;
+import com.gevernova.petvacination.exceptionhandling.InvalidRequestException;
+import com.gevernova.petvacination.repository.VaccinationDueRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class VaccinationScheduleServiceImplementation implements VaccinationScheduleServices {
+
+    private final VaccinationDueRepository vaccinationDueRepository;
+    private final BoosterCatalog boosterCatalog;
+
+    @Value("${pet.pagination.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${pet.pagination.max-page-size:500}")
+    private int maxPageSize;
+
+    @Override
+    @Transactional
+    public void createSchedules(List<PetDetails> pets) {
+        List<VaccinationDue> rows = new ArrayList<>();
+        for (PetDetails petDetails : pets) {
+            rows.addAll(computeSchedule(petDetails).values());
+        }
+        vaccinationDueRepository.saveAll(rows);
+    }
+
+    @Override
+    @Transactional
+    public void refreshSchedule(PetDetails petDetails) {
+        Map<String, VaccinationDue> computed = computeSchedule(petDetails);
+        List<VaccinationDue> removed = new ArrayList<>();
+        // Rows are updated in place so an unchanged due date keeps its reminder state
+        for (VaccinationDue existing : vaccinationDueRepository.findByPetId(petDetails.getId())) {
+            VaccinationDue current = computed.remove(existing.getVaccineKey());
+            if (current == null) {
+                removed.add(existing);
+                continue;
+            }
+            existing.setVaccineName(current.getVaccineName());
+            existing.setSpecies(current.getSpecies());
+            existing.setLastGiven(current.getLastGiven());
+            if (!current.getNextDueDate().equals(existing.getNextDueDate())) {
+                existing.setNextDueDate(current.getNextDueDate());
+                existing.setRemindOn(current.getNextDueDate());
+            }
+        }
+        vaccinationDueRepository.deleteAll(removed);
+        vaccinationDueRepository.saveAll(computed.values());
+    }
+
+    @Override
+    @Transactional
+    public void deleteSchedules(Collection<Long> petIds) {
+        if (!petIds.isEmpty()) {
+            vaccinationDueRepository.deleteByPetIdIn(petIds);
+        }
+    }
+
+    // One row per vaccine, due one booster interval after the latest dose
+    private Map<String, VaccinationDue> computeSchedule(PetDetails petDetails) {
+        Map<String, VaccinationDetails> latest = new HashMap<>();
+        if (petDetails.getVaccines() != null) {
+            for (VaccinationDetails vaccine : petDetails.getVaccines()) {
+                if (vaccine.getDateGiven() == null || vaccine.getName() == null) {
+                    continue;
+                }
+                // Derived from name rather than read from name_key, which may not be backfilled yet at startup
+                latest.merge(VaccinationDetails.normalizeName(vaccine.getName()), vaccine,
+                        (a, b) -> b.getDateGiven().isAfter(a.getDateGiven()) ? b : a);
+            }
+        }
+        Map<String, VaccinationDue> schedule = new LinkedHashMap<>();
+        latest.forEach((vaccineKey, vaccine) -> {
+            LocalDate nextDueDate = vaccine.getDateGiven().plus(boosterCatalog.boosterInterval(petDetails.getSpecies(), vaccineKey));
+            schedule.put(vaccineKey, VaccinationDue.builder()
+                    .petId(petDetails.getId())
+                    .vaccineKey(vaccineKey)
+                    .vaccineName(vaccine.getName().trim())
+                    .species(petDetails.getSpecies())
+                    .lastGiven(vaccine.getDateGiven())
+                    .nextDueDate(nextDueDate)
+                    .remindOn(nextDueDate)
+                    .build());
+        });
+        return schedule;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VaccinationDuePageDTO getDueBetween(LocalDate from, LocalDate to, Species species, String after, Integer limit) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from (" + from + ") must not be after to (" + to + ")");
+        }
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        LocalDate afterDate = from;
+        long afterId = 0;
+        if (after != null) {
+            int separator = after.lastIndexOf(':');
+            try {
+                afterDate = LocalDate.parse(after.substring(0, Math.max(separator, 0)));
+                afterId = Long.parseLong(after.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new InvalidRequestException("Invalid cursor '" + after + "'");
+            }
+        }
+
+        List<VaccinationDueDTO> due = species == null
+                ? vaccinationDueRepository.findDueBetween(from, to, afterDate, afterId, Limit.of(pageSize))
+                : vaccinationDueRepository.findDueBetweenForSpecies(species, from, to, afterDate, afterId, Limit.of(pageSize));
+        String nextCursor = null;
+        if (due.size() == pageSize) {
+            VaccinationDueDTO last = due.get(due.size() - 1);
+            nextCursor = last.getNextDueDate() + ":" + last.getId();
+        }
+        return VaccinationDuePageDTO.builder()
+                .due(due)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public VaccinationDuePageDTO getOverdue(Species species, String after, Integer limit) {
+        return getDueBetween(VaccinationDue.EARLIEST_DUE_DATE, LocalDate.now().minusDays(1), species, after, limit);
+    }
+}
@@ -0,0 +1,25 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.VaccinationDuePageDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface VaccinationScheduleServices {
+
+    // Writes due rows for newly registered pets
+    void createSchedules(List<PetDetails> pets);
+
+    // Brings an existing pet's due rows in line with its current vaccines and species
+    void refreshSchedule(PetDetails petDetails);
+
+    // Removes the due rows of purged pets
+    void deleteSchedules(Collection<Long> petIds);
+
+    VaccinationDuePageDTO getDueBetween(LocalDate from, LocalDate to, Species species, String after, Integer limit);
+
+    VaccinationDuePageDTO getOverdue(Species species, String after, Integer limit);
+}
@@ -0,0 +1,44 @@
+package com.gevernova.petvacination.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Folds pending vaccination_stats changes into the summary, one transaction per batch, so reads only have
+// the changes since the last run to add up. Several instances may run it: one that loses its batch, or the first
+// insert of a group, to another rolls back and retries on its next run.
+@Component
+public class VaccinationStatsJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaccinationStatsJob.class);
+
+    private final VaccinationStatsServices vaccinationStatsServices;
+    private final int batchSize;
+
+    public VaccinationStatsJob(VaccinationStatsServices vaccinationStatsServices,
+                               @Value("${pet.stats.fold-batch-size:1000}") int batchSize) {
+        this.vaccinationStatsServices = vaccinationStatsServices;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${pet.stats.fold-interval:PT30S}")
+    public void fold() {
+        long total = 0;
+        int folded;
+        try {
+            do {
+                folded = vaccinationStatsServices.foldPending(batchSize);
+                total += folded;
+            } while (folded == batchSize);
+        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+            logger.warn("Stopped folding vaccination statistics: {}", e.getMessage());
+        }
+        if (total > 0) {
+            logger.debug("Folded {} vaccination statistics changes", total);
+        }
+    }
+}
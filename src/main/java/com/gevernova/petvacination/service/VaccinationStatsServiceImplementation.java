@@ -0,0 +1,255 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.SpeciesCoverageDTO;
+import com.gevernova.petvacination.dto.VaccinationCountDTO;
+import com.gevernova.petvacination.dto.VaccineCoverageDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.entity.VaccinationStats;
+import com.gevernova.petvacination.entity.VaccinationStatsDelta;
+import com.gevernova.petvacination.exceptionhandling.InvalidRequestException;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import com.gevernova.petvacination.repository.VaccinationStatsDeltaRepository;
+import com.gevernova.petvacination.repository.VaccinationStatsRepository;
+import com.gevernova.petvacination.service.PetStatsSnapshot.StatsGroup;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Writers append net changes to vaccination_stats_delta; foldPending moves them into vaccination_stats.
+// Reads combine the summary rows with the pending changes, so they are exact without waiting for a fold and
+// cost O(groups + pending changes), never O(vaccinations).
+@Service
+@RequiredArgsConstructor
+public class VaccinationStatsServiceImplementation implements VaccinationStatsServices {
+
+    private static final Logger logger = LoggerFactory.getLogger(VaccinationStatsServiceImplementation.class);
+
+    private final VaccinationStatsRepository vaccinationStatsRepository;
+    private final VaccinationStatsDeltaRepository vaccinationStatsDeltaRepository;
+    private final VaccinationCountsRepository vaccinationCountsRepository;
+
+    // One row per changed group, however many pets changed together
+    @Override
+    @Transactional
+    public void recordChanges(List<PetStatsSnapshot> before, List<PetStatsSnapshot> after) {
+        Map<StatsGroup, VaccinationStats> totals = new HashMap<>();
+        before.forEach(snapshot -> snapshot.addTo(totals, -1));
+        after.forEach(snapshot -> snapshot.addTo(totals, 1));
+        saveDeltas(totals.values());
+    }
+
+    @Override
+    @Transactional
+    public void recordDeleted(Collection<Long> petIds) {
+        recordCounted(petIds, -1);
+    }
+
+    @Override
+    @Transactional
+    public void recordRestored(Collection<Long> petIds) {
+        recordCounted(petIds, 1);
+    }
+
+    // The counting queries are native, so they still reach pets whose tombstone was just set
+    private void recordCounted(Collection<Long> petIds, int sign) {
+        Map<StatsGroup, VaccinationStats> totals = new HashMap<>();
+        for (VaccinationStats count : vaccinationCountsRepository.countPets(petIds)) {
+            group(totals, count.getSpecies(), count.getVaccineKey(), count.getVaccineName(), count.getMonth())
+                    .add(sign * count.getPets(), sign * count.getVaccinatedPets(), sign * count.getDoses());
+        }
+        saveDeltas(totals.values());
+    }
+
+    private void saveDeltas(Collection<VaccinationStats> totals) {
+        List<VaccinationStatsDelta> deltas = new ArrayList<>(totals.size());
+        for (VaccinationStats total : totals) {
+            if (total.isZero()) {
+                continue;
+            }
+            deltas.add(VaccinationStatsDelta.builder()
+                    .species(total.getSpecies())
+                    .vaccineKey(total.getVaccineKey())
+                    .vaccineName(total.getVaccineName())
+                    .month(total.getMonth())
+                    .pets(Math.toIntExact(total.getPets()))
+                    .vaccinatedPets(Math.toIntExact(total.getVaccinatedPets()))
+                    .doses(Math.toIntExact(total.getDoses()))
+                    .build());
+        }
+        vaccinationStatsDeltaRepository.saveAll(deltas);
+    }
+
+    @Override
+    @Transactional
+    public void recordAdded(List<PetDetails> pets) {
+        recordChanges(List.of(), PetStatsSnapshot.of(pets));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VaccinationCountDTO> getVaccinationCounts(Species species, String vaccine, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new InvalidRequestException("from (" + from + ") must not be after to (" + to + ")");
+        }
+        // Month rows only; ALL_MONTHS marks the totals
+        LocalDate fromMonth = from.atDay(1).isAfter(VaccinationStats.ALL_MONTHS) ? from.atDay(1) : VaccinationStats.ALL_MONTHS.plusMonths(1);
+        LocalDate toMonth = to.atDay(1);
+        String vaccineKey = VaccinationDetails.normalizeName(vaccine);
+        List<VaccinationStats> rows = species == null
+                ? vaccinationStatsRepository.findMonthsBetween(fromMonth, toMonth)
+                : vaccinationStatsRepository.findMonthsBetweenForSpecies(species, fromMonth, toMonth);
+
+        return withPending(rows, stats -> !stats.getMonth().isBefore(fromMonth) && !stats.getMonth().isAfter(toMonth)
+                && (species == null || stats.getSpecies() == species)).stream()
+                .filter(stats -> stats.getDoses() != 0 && (vaccineKey == null || vaccineKey.equals(stats.getVaccineKey())))
+                .sorted(Comparator.comparing(VaccinationStats::getMonth)
+                        .thenComparing(VaccinationStats::getSpecies)
+                        .thenComparing(VaccinationStats::getVaccineKey))
+                .map(stats -> VaccinationCountDTO.builder()
+                        .vaccineName(stats.getVaccineName())
+                        .species(stats.getSpecies())
+                        .month(YearMonth.from(stats.getMonth()))
+                        .doses(stats.getDoses())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SpeciesCoverageDTO> getCoverage(Species species) {
+        List<VaccinationStats> rows = vaccinationStatsRepository.findByMonth(VaccinationStats.ALL_MONTHS);
+        Collection<VaccinationStats> totals = withPending(rows, stats -> stats.getMonth().equals(VaccinationStats.ALL_MONTHS));
+
+        Map<Species, SpeciesCoverageDTO> coverage = new EnumMap<>(Species.class);
+        for (VaccinationStats stats : totals) {
+            if (stats.getVaccineKey().equals(VaccinationStats.ALL_VACCINES) && stats.getPets() > 0
+                    && (species == null || stats.getSpecies() == species)) {
+                coverage.put(stats.getSpecies(), SpeciesCoverageDTO.builder()
+                        .species(stats.getSpecies())
+                        .pets(stats.getPets())
+                        .vaccinatedPets(stats.getVaccinatedPets())
+                        .coverage((double) stats.getVaccinatedPets() / stats.getPets())
+                        .vaccines(new ArrayList<>())
+                        .build());
+            }
+        }
+        for (VaccinationStats stats : totals) {
+            SpeciesCoverageDTO speciesCoverage = coverage.get(stats.getSpecies());
+            if (speciesCoverage != null && !stats.getVaccineKey().equals(VaccinationStats.ALL_VACCINES) && stats.getPets() > 0) {
+                speciesCoverage.getVaccines().add(VaccineCoverageDTO.builder()
+                        .vaccineName(stats.getVaccineName())
+                        .pets(stats.getPets())
+                        .coverage((double) stats.getPets() / speciesCoverage.getPets())
+                        .build());
+            }
+        }
+        coverage.values().forEach(speciesCoverage -> speciesCoverage.getVaccines()
+                .sort(Comparator.comparingLong(VaccineCoverageDTO::getPets).reversed()
+                        .thenComparing(VaccineCoverageDTO::getVaccineName)));
+        return new ArrayList<>(coverage.values());
+    }
+
+    // Copies of the summary rows with the matching pending changes added
+    private Collection<VaccinationStats> withPending(List<VaccinationStats> rows, Predicate<VaccinationStats> filter) {
+        Map<StatsGroup, VaccinationStats> merged = new HashMap<>();
+        for (VaccinationStats row : rows) {
+            merged.put(StatsGroup.of(row), new VaccinationStats(row.getSpecies(), row.getVaccineKey(), row.getVaccineName(),
+                    row.getMonth(), row.getPets(), row.getVaccinatedPets(), row.getDoses()));
+        }
+        for (VaccinationStats pending : vaccinationStatsDeltaRepository.sumPending()) {
+            if (filter.test(pending)) {
+                merged.merge(StatsGroup.of(pending), pending, (summary, change) -> {
+                    summary.add(change);
+                    return summary;
+                });
+            }
+        }
+        return merged.values();
+    }
+
+    @Override
+    @Transactional
+    public int foldPending(int batchSize) {
+        List<Long> ids = vaccinationStatsDeltaRepository.findPendingIds(Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<VaccinationStats> changes = vaccinationStatsDeltaRepository.sumByIdIn(ids);
+        // Deleting first locks the rows: a second folder that read the same ids waits here, then finds them gone
+        // and rolls back instead of counting them twice
+        int deleted = vaccinationStatsDeltaRepository.deleteByIdIn(ids);
+        if (deleted != ids.size()) {
+            throw new ConcurrencyFailureException("Expected to fold " + ids.size() + " stats changes but found " + deleted);
+        }
+
+        // The summary rows are locked before they are read, so a concurrent fold or rebuild cannot overwrite the sums.
+        // Groups that are new are inserted; if another fold inserted the same group first, uk_vaccination_stats_group
+        // rejects this one and the whole batch rolls back, to be folded again on the next run.
+        Set<String> vaccineKeys = changes.stream().map(VaccinationStats::getVaccineKey).collect(Collectors.toSet());
+        Map<StatsGroup, VaccinationStats> summary = new HashMap<>();
+        for (VaccinationStats row : vaccinationStatsRepository.lockByVaccineKeyIn(vaccineKeys)) {
+            summary.put(StatsGroup.of(row), row);
+        }
+        List<VaccinationStats> created = new ArrayList<>();
+        for (VaccinationStats change : changes) {
+            VaccinationStats row = summary.get(StatsGroup.of(change));
+            if (row != null) {
+                row.add(change);
+            } else {
+                created.add(change);
+            }
+        }
+        vaccinationStatsRepository.saveAll(created);
+        return ids.size();
+    }
+
+    // Meant for repair: writes committed while it runs can be missed or counted twice, so run it when writes are quiet
+    @Override
+    @Transactional
+    public int rebuild() {
+        vaccinationStatsDeltaRepository.deleteAllInBatch();
+        vaccinationStatsRepository.deleteAllInBatch();
+
+        Map<StatsGroup, VaccinationStats> totals = new LinkedHashMap<>();
+        for (VaccinationStats count : vaccinationCountsRepository.countLivePets()) {
+            group(totals, count.getSpecies(), count.getVaccineKey(), count.getVaccineName(), count.getMonth())
+                    .add(count.getPets(), count.getVaccinatedPets(), count.getDoses());
+        }
+        // Month rows are named like the vaccine's total row, whichever spelling the month's doses used
+        for (VaccinationStats stats : totals.values()) {
+            VaccinationStats vaccineTotal = totals.get(new StatsGroup(stats.getSpecies(), stats.getVaccineKey(), VaccinationStats.ALL_MONTHS));
+            if (vaccineTotal != null) {
+                stats.setVaccineName(vaccineTotal.getVaccineName());
+            }
+        }
+        vaccinationStatsRepository.saveAll(totals.values());
+        logger.info("Rebuilt vaccination statistics: {} groups", totals.size());
+        return totals.size();
+    }
+
+    private static VaccinationStats group(Map<StatsGroup, VaccinationStats> totals, Species species, String vaccineKey,
+                                          String vaccineName, LocalDate month) {
+        return totals.computeIfAbsent(new StatsGroup(species, vaccineKey, month),
+                key -> new VaccinationStats(species, vaccineKey, vaccineName, month, 0L, 0L, 0L));
+    }
+}
@@ -0,0 +1,36 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.SpeciesCoverageDTO;
+import com.gevernova.petvacination.dto.VaccinationCountDTO;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+public interface VaccinationStatsServices {
+
+    // Records the difference between the pets' counts before and after a change in the caller's
+    // transaction; an empty before means new pets, an empty after deleted ones
+    void recordChanges(List<PetStatsSnapshot> before, List<PetStatsSnapshot> after);
+
+    void recordAdded(List<PetDetails> pets);
+
+    // Takes soft-deleted pets out of the summary, and puts restored ones back; call in the transaction that
+    // set or cleared their tombstones. A purge has nothing left to record.
+    void recordDeleted(Collection<Long> petIds);
+
+    void recordRestored(Collection<Long> petIds);
+
+    // Doses per vaccine, species and month; species and vaccine are optional filters
+    List<VaccinationCountDTO> getVaccinationCounts(Species species, String vaccine, YearMonth from, YearMonth to);
+
+    List<SpeciesCoverageDTO> getCoverage(Species species);
+
+    // Folds up to batchSize pending changes into the summary and returns how many were folded
+    int foldPending(int batchSize);
+
+    // Recounts the summary from the live pets in pet_details and pet_vaccine, discarding pending changes, and returns the number of groups
+    int rebuild();
+}
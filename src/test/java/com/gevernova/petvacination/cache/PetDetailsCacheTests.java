@@ -0,0 +1,71 @@
+package com.gevernova.petvacination.cache;
+
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PetDetailsCacheTests {
+
+    @Test
+    void countsHitsMissesAndSizeEvictions() {
+        LocalPetDetailsCache cache = new LocalPetDetailsCache(16, Duration.ofMinutes(5));
+
+        assertFalse(cache.get(1L).isPresent());
+        cache.put(1L, pet(1L), cache.generation(1L));
+        assertTrue(cache.get(1L).isPresent());
+        // 16 entries over 16 segments leaves room for one per segment; ids 1 and 17 share a segment
+        cache.put(17L, pet(17L), cache.generation(17L));
+
+        assertFalse(cache.get(1L).isPresent());
+        assertEquals(1, cache.getStats().getHits());
+        assertEquals(2, cache.getStats().getMisses());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        LocalPetDetailsCache cache = new LocalPetDetailsCache(100, Duration.ZERO);
+        cache.put(1L, pet(1L), cache.generation(1L));
+
+        assertFalse(cache.get(1L).isPresent());
+        assertEquals(1, cache.getStats().getExpirations());
+    }
+
+    @Test
+    void invalidationOnOneNodeEvictsOnEveryNode() {
+        InProcessCacheInvalidationBus bus = new InProcessCacheInvalidationBus();
+        NearPetDetailsCache nodeA = new NearPetDetailsCache(new LocalPetDetailsCache(100, Duration.ofMinutes(5)), bus);
+        NearPetDetailsCache nodeB = new NearPetDetailsCache(new LocalPetDetailsCache(100, Duration.ofMinutes(5)), bus);
+        nodeA.put(7L, pet(7L), nodeA.generation(7L));
+        nodeB.put(7L, pet(7L), nodeB.generation(7L));
+
+        nodeA.invalidate(7L);
+
+        assertFalse(nodeA.get(7L).isPresent());
+        assertFalse(nodeB.get(7L).isPresent());
+        assertEquals(1, nodeB.getStats().getInvalidations());
+    }
+
+    @Test
+    void loadThatOverlappedAnInvalidationIsNotCached() {
+        LocalPetDetailsCache cache = new LocalPetDetailsCache(100, Duration.ofMinutes(5));
+        // A reader misses and starts loading; a writer commits and invalidates before the reader stores its copy
+        long generation = cache.generation(1L);
+        cache.invalidate(1L);
+        cache.put(1L, pet(1L), generation);
+
+        assertFalse(cache.get(1L).isPresent());
+        assertEquals(1, cache.getStats().getStalePuts());
+        cache.put(1L, pet(1L), cache.generation(1L));
+        assertTrue(cache.get(1L).isPresent());
+    }
+
+    private static PetResponseDTO pet(Long id) {
+        return PetResponseDTO.builder().id(id).name("Pet" + id).build();
+    }
+}
@@ -0,0 +1,77 @@
+package com.gevernova.petvacination.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.gevernova.petvacination.dto.OwnerPetsDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.VaccinationDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.service.OwnerServices;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@WebMvcTest(OwnerController.class)
+@Import(ResponseEncodingConfig.class)
+class ResponseEncodingTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private OwnerServices ownerServices;
+
+    @BeforeEach
+    void setUp() {
+        PetResponseDTO pet = PetResponseDTO.builder()
+                .id(7L)
+                .name("Buddy")
+                .species(Species.DOG)
+                .vaccines(List.of(new VaccinationDTO("rabies", LocalDate.of(2024, 3, 1))))
+                .build();
+        when(ownerServices.getOwnerWithPets(1L)).thenReturn(OwnerPetsDTO.builder().id(1L).name("Jane").pets(List.of(pet)).build());
+    }
+
+    @Test
+    void cborCarriesTheSameDocumentAsJson() throws Exception {
+        MvcResult json = mockMvc.perform(get("/api/owners/1/pets")).andReturn();
+        MvcResult cbor = mockMvc.perform(get("/api/owners/1/pets").accept("application/cbor")).andReturn();
+
+        assertTrue(json.getResponse().getContentType().startsWith("application/json"));
+        assertEquals("application/cbor", cbor.getResponse().getContentType());
+        JsonNode fromJson = new ObjectMapper().readTree(json.getResponse().getContentAsByteArray());
+        JsonNode fromCbor = new ObjectMapper(new CBORFactory()).readTree(cbor.getResponse().getContentAsByteArray());
+        assertEquals(fromJson, fromCbor);
+        assertEquals("2024-03-01", fromCbor.at("/data/pets/0/vaccines/0/dateGiven").asText());
+        assertTrue(cbor.getResponse().getContentAsByteArray().length < json.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void preferReturnMinimalLeavesTheMessageOut() throws Exception {
+        MvcResult minimal = mockMvc.perform(get("/api/owners/1/pets").header("Prefer", "respond-async, return=minimal")).andReturn();
+        MvcResult full = mockMvc.perform(get("/api/owners/1/pets")).andReturn();
+
+        JsonNode body = new ObjectMapper().readTree(minimal.getResponse().getContentAsString());
+        assertFalse(body.has("message"));
+        assertEquals("Buddy", body.at("/data/pets/0/name").asText());
+        assertEquals("return=minimal", minimal.getResponse().getHeader("Preference-Applied"));
+        assertNull(full.getResponse().getHeader("Preference-Applied"));
+        assertTrue(new ObjectMapper().readTree(full.getResponse().getContentAsString()).has("message"));
+    }
+}
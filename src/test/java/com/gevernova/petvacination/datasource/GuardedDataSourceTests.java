@@ -0,0 +1,34 @@
+package com.gevernova.petvacination.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GuardedDataSourceTests {
+
+    @Test
+    void rejectsBorrowersBeyondTheLimitUntilAConnectionIsClosed() throws Exception {
+        ConnectionGuard guard = new ConnectionGuard("primary", 1, Duration.ofMillis(50));
+        GuardedDataSource dataSource = new GuardedDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:guarded", "sa", ""), guard);
+
+        Connection first = dataSource.getConnection();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertEquals(1, guard.getStats().getRejected());
+
+        first.close();
+        // A second close must not hand out an extra permit
+        first.close();
+        try (Connection second = dataSource.getConnection()) {
+            assertEquals(1, guard.getStats().getInUse());
+        }
+        assertEquals(0, guard.getStats().getInUse());
+        assertEquals(2, guard.getStats().getAcquired());
+    }
+}
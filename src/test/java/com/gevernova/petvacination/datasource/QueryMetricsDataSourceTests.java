@@ -0,0 +1,96 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.dto.QueryShapeStatsDTO;
+import com.gevernova.petvacination.dto.QueryStatsDTO;
+import com.gevernova.petvacination.dto.RequestQueryStatsDTO;
+import com.gevernova.petvacination.metrics.QueryMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class QueryMetricsDataSourceTests {
+
+    private final QueryMetrics queryMetrics = new QueryMetrics(Duration.ofMinutes(1), 3);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(new QueryMetricsDataSource(
+            new DriverManagerDataSource("jdbc:h2:mem:query-metrics;DB_CLOSE_DELAY=-1", "sa", ""), queryMetrics));
+
+    @Test
+    void statementsAreGroupedByShapeWithTheirRows() {
+        jdbcTemplate.execute("CREATE TABLE pet (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+        jdbcTemplate.batchUpdate("INSERT INTO pet (id, name) VALUES (?, ?)", List.of(
+                new Object[]{1, "Buddy"}, new Object[]{2, "Rex"}, new Object[]{3, "Tom"}));
+
+        queryMetrics.beginRequest();
+        jdbcTemplate.queryForList("SELECT name FROM pet WHERE id IN (1, 2)", String.class);
+        jdbcTemplate.queryForList("SELECT   name FROM pet\n WHERE id IN (3)", String.class);
+        jdbcTemplate.queryForList("SELECT name FROM pet WHERE name = 'Buddy''s'", String.class);
+        queryMetrics.endRequest("GET /api/pets");
+
+        QueryStatsDTO stats = queryMetrics.snapshot();
+        QueryShapeStatsDTO insert = shape(stats, "INSERT INTO pet (id, name) VALUES (?, ?)");
+        assertEquals(1, insert.getCount());
+        assertEquals(3, insert.getRows());
+
+        QueryShapeStatsDTO inList = shape(stats, "SELECT name FROM pet WHERE id IN (?, ...)");
+        assertEquals(1, inList.getCount());
+        assertEquals(2, inList.getRows());
+        assertEquals(1, shape(stats, "SELECT name FROM pet WHERE id IN (?)").getRows());
+        assertEquals(1, shape(stats, "SELECT name FROM pet WHERE name = ?").getCount());
+        assertEquals(0, stats.getSlowQueries());
+        assertTrue(stats.getConnectionAcquire().getCount() >= 5);
+
+        RequestQueryStatsDTO request = stats.getRequests().get(0);
+        assertEquals("GET /api/pets", request.getEndpoint());
+        assertEquals(3, request.getMaxStatements());
+        assertEquals(0, request.getOverThreshold());
+    }
+
+    @Test
+    void requestsOverTheStatementThresholdAndSlowStatementsAreCounted() {
+        QueryMetrics strict = new QueryMetrics(Duration.ZERO, 1);
+        JdbcTemplate template = new JdbcTemplate(new QueryMetricsDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:query-metrics-strict", "sa", ""), strict));
+
+        strict.beginRequest();
+        for (int id = 0; id < 3; id++) {
+            template.queryForObject("SELECT " + id, Integer.class);
+        }
+        strict.endRequest("GET /api/pets/{id}");
+        // Outside a request, statements are timed but not counted against any endpoint
+        template.queryForObject("SELECT 1", Integer.class);
+
+        QueryStatsDTO stats = strict.snapshot();
+        assertEquals(4, shape(stats, "SELECT ?").getCount());
+        assertEquals(4, stats.getSlowQueries());
+        assertEquals(1, stats.getRequests().get(0).getOverThreshold());
+        assertEquals(3, stats.getRequests().get(0).getStatements());
+    }
+
+    @Test
+    void endpointsBeyondTheCapShareOneEntry() {
+        QueryMetrics metrics = new QueryMetrics(Duration.ofSeconds(1), 100);
+        for (int i = 0; i < 300; i++) {
+            metrics.beginRequest();
+            metrics.endRequest("GET /api/made-up-" + i);
+        }
+
+        List<RequestQueryStatsDTO> requests = metrics.snapshot().getRequests();
+        assertEquals(201, requests.size());
+        assertEquals(100, requests.stream()
+                .filter(request -> request.getEndpoint().equals("(other endpoints)"))
+                .findFirst().orElseThrow().getRequests());
+    }
+
+    private static QueryShapeStatsDTO shape(QueryStatsDTO stats, String sql) {
+        return stats.getQueries().stream()
+                .filter(query -> query.getSql().equals(sql))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No shape " + sql + " in " + stats.getQueries().stream().map(QueryShapeStatsDTO::getSql).toList()));
+    }
+}
@@ -0,0 +1,87 @@
+package com.gevernova.petvacination.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Two H2 databases stand in for the primary and a replica; each names itself in a one-row table
+class ReplicaRoutingDataSourceTests {
+
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource dataSource;
+    private ReadYourWrites readYourWrites;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writes;
+    private TransactionTemplate reads;
+
+    @BeforeEach
+    void setUp() {
+        HikariDataSource primary = database("primary");
+        replica = database("replica");
+        readYourWrites = new ReadYourWrites(Duration.ofMinutes(1));
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replica), readYourWrites);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        writes = new TransactionTemplate(transactionManager);
+        reads = new TransactionTemplate(transactionManager);
+        reads.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        readYourWrites.end();
+        dataSource.close();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaUntilItIsDown() {
+        assertEquals("replica", reads.execute(status -> node()));
+        assertEquals("primary", writes.execute(status -> node()));
+        assertEquals("primary", node());
+
+        replica.close();
+        assertEquals("primary", reads.execute(status -> node()));
+        assertEquals(0, dataSource.getStats().getHealthyReplicas());
+        assertEquals(1, dataSource.getStats().getFailovers());
+    }
+
+    @Test
+    void callerReadsFromThePrimaryAfterItsOwnWrite() {
+        readYourWrites.begin(0, null);
+        assertEquals("replica", reads.execute(status -> node()));
+
+        writes.executeWithoutResult(status -> jdbcTemplate.update("UPDATE node SET name = name"));
+        assertEquals("primary", reads.execute(status -> node()));
+        assertEquals(1, dataSource.getStats().getStickyReads());
+
+        // Another caller, or the same one once the window has passed
+        readYourWrites.begin(System.currentTimeMillis() - 1, null);
+        assertEquals("replica", reads.execute(status -> node()));
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static HikariDataSource database(String name) {
+        HikariDataSource database = new HikariDataSource();
+        database.setJdbcUrl("jdbc:h2:mem:routing-" + name);
+        database.setUsername("sa");
+        database.setMaximumPoolSize(2);
+        database.setConnectionTimeout(250);
+        JdbcTemplate setup = new JdbcTemplate(database);
+        setup.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        setup.update("DELETE FROM node");
+        setup.update("INSERT INTO node VALUES (?)", name);
+        return database;
+    }
+}
@@ -0,0 +1,138 @@
+package com.gevernova.petvacination.datasource;
+
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.dto.PetPatchDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.ReplicaRoutingStatsDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import com.gevernova.petvacination.service.BoosterCatalog;
+import com.gevernova.petvacination.service.OwnerServiceImplementation;
+import com.gevernova.petvacination.service.PetDetailsServices;
+import com.gevernova.petvacination.service.PetServiceImplementation;
+import com.gevernova.petvacination.service.VaccinationScheduleServiceImplementation;
+import com.gevernova.petvacination.service.VaccinationStatsServiceImplementation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The routing under JpaTransactionManager, as the services use it. The replica is a second H2 database that
+// only changes when the test copies the primary into it, so it lags every write made after the last copy.
+@DataJpaTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingJpaTests.PRIMARY_URL,
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "pet.datasource.replica.urls=" + ReplicaRoutingJpaTests.REPLICA_URL})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({ReplicaRoutingConfig.class, PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class,
+        VaccinationStatsServiceImplementation.class, VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingJpaTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-jpa-primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-jpa-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private ReadYourWrites readYourWrites;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long petId;
+
+    @BeforeEach
+    void setUp() {
+        petId = petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName("Buddy")
+                .species(Species.DOG)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>(List.of(new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 1)))))
+                .build()).getId();
+        catchUpReplica();
+    }
+
+    @AfterEach
+    void tearDown() {
+        readYourWrites.end();
+    }
+
+    @Test
+    void readOnlyServiceCallsGoToTheReplicaAndWritesToThePrimary() throws SQLException {
+        ReplicaRoutingStatsDTO before = stats();
+        assertEquals(1, petDetailsServices.getPetDetailsPage(null, 10).getPets().size());
+        assertEquals(before.getReplicaConnections() + 1, stats().getReplicaConnections());
+        assertEquals(before.getPrimaryConnections(), stats().getPrimaryConnections());
+
+        // A read and then a write, as one request would make them: each transaction gets its own connection
+        petDetailsServices.getPetDetailsById(petId);
+        petDetailsServices.patchPetDetails(petId, breed("Beagle"), null);
+        assertEquals(before.getReplicaConnections() + 2, stats().getReplicaConnections());
+        assertEquals(before.getPrimaryConnections() + 1, stats().getPrimaryConnections());
+    }
+
+    @Test
+    void writerSeesItsUpdateAfterAnotherCallerReadTheLaggingReplica() {
+        Long oldVersion = petDetailsServices.getPetDetailsById(petId).orElseThrow().getVersion();
+
+        readYourWrites.begin(0, null);
+        Long newVersion = petDetailsServices.patchPetDetails(petId, breed("Beagle"), null).getVersion();
+
+        // Another caller is served the replica's copy, which must not be cached
+        readYourWrites.begin(0, null);
+        PetResponseDTO lagging = petDetailsServices.getPetDetailsById(petId).orElseThrow();
+        assertEquals(oldVersion, lagging.getVersion());
+
+        // The writer's next request carries its cookie
+        readYourWrites.begin(System.currentTimeMillis() + 60_000, null);
+        PetResponseDTO seenByWriter = petDetailsServices.getPetDetailsById(petId).orElseThrow();
+        assertEquals(newVersion, seenByWriter.getVersion());
+        assertEquals("Beagle", seenByWriter.getBreed());
+        assertEquals(newVersion, petDetailsServices.getPetVersion(petId).orElseThrow());
+    }
+
+    private ReplicaRoutingStatsDTO stats() throws SQLException {
+        return dataSource.unwrap(ReplicaRoutingDataSource.class).getStats();
+    }
+
+    private static PetPatchDTO breed(String breed) {
+        PetPatchDTO patch = new PetPatchDTO();
+        patch.setBreed(breed);
+        return patch;
+    }
+
+    // Replaces the replica's contents with a copy of the primary as it is now
+    private static void catchUpReplica() {
+        List<String> script = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""))
+                .queryForList("SCRIPT", String.class);
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("DROP ALL OBJECTS");
+        script.forEach(replica::execute);
+    }
+}
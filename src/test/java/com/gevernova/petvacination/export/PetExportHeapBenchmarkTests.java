@@ -0,0 +1,118 @@
+package com.gevernova.petvacination.export;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exports a registry of two million pet_vaccine rows and checks the heap still in use after a GC stays
+// within a fixed budget while the export runs, i.e. nothing grows with the number of rows. Uses a file
+// database so the data itself is not on the heap.
+// Excluded from the default build; run with: mvn test -Pbenchmark -Dbenchmark.export-pets=1000000
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:file:./target/export-benchmark",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "GMAIL_USERNAME=benchmark",
+        "GMAIL_APP_PASSWORD=benchmark",
+        "pet.outbox.poll-interval=PT1H",
+        "pet.reminders.cron=-"
+})
+class PetExportHeapBenchmarkTests {
+
+    private static final int PETS = Integer.getInteger("benchmark.export-pets", 1_000_000);
+    private static final long HEAP_BUDGET_BYTES = 64L * 1024 * 1024;
+    private static final long SAMPLE_EVERY_BYTES = 16L * 1024 * 1024;
+
+    @Autowired
+    private PetExporter petExporter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void exportHeapStaysFlatAsRowsGrow() throws IOException {
+        seed();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long baseline = usedAfterGc(memory);
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream(memory);
+
+        for (ExportFormat format : ExportFormat.values()) {
+            long start = System.nanoTime();
+            long exported = petExporter.export(format, out);
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            assertEquals(PETS, exported);
+            System.out.printf("Exported %d pets as %s in %.1fs (%.0f pets/s)%n", exported, format, seconds, exported / seconds);
+        }
+
+        long growth = out.peakUsed - baseline;
+        System.out.printf("Wrote %d MB; heap after GC: baseline %d MB, peak %d MB over %d samples%n",
+                out.written >> 20, baseline >> 20, out.peakUsed >> 20, out.samples);
+        assertTrue(out.samples > 4);
+        assertTrue(growth < HEAP_BUDGET_BYTES, "Heap grew by " + (growth >> 20) + " MB during the export");
+    }
+
+    // Two vaccinations per pet, one owner per pet
+    private void seed() {
+        jdbcTemplate.execute("DELETE FROM vaccination_due");
+        jdbcTemplate.execute("DELETE FROM pet_vaccine");
+        jdbcTemplate.execute("DELETE FROM pet_details");
+        jdbcTemplate.execute("DELETE FROM pet_owner");
+        jdbcTemplate.update("INSERT INTO pet_owner (id, name, contact, email)"
+                + " SELECT X, 'Owner ' || X, '9876543210', 'owner' || X || '@example.com' FROM SYSTEM_RANGE(1, ?)", PETS);
+        jdbcTemplate.update("INSERT INTO pet_details (id, version, pet_name, species, breed, owner_id)"
+                + " SELECT X, 0, 'Pet ' || X, 0, 'Beagle', X FROM SYSTEM_RANGE(1, ?)", PETS);
+        for (String vaccine : new String[]{"Rabies", "Parvovirus"}) {
+            jdbcTemplate.update("INSERT INTO pet_vaccine (pet_id, name, name_key, date_given)"
+                    + " SELECT X, ?, ?, DATE '2025-01-10' FROM SYSTEM_RANGE(1, ?)", vaccine, vaccine.toLowerCase(), PETS);
+        }
+    }
+
+    private static long usedAfterGc(MemoryMXBean memory) {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    // Discards the export, sampling the heap every SAMPLE_EVERY_BYTES
+    private static final class HeapSamplingOutputStream extends OutputStream {
+        private final MemoryMXBean memory;
+        private long written;
+        private long nextSample = SAMPLE_EVERY_BYTES;
+        private long peakUsed;
+        private int samples;
+
+        HeapSamplingOutputStream(MemoryMXBean memory) {
+            this.memory = memory;
+        }
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int bytes) {
+            written += bytes;
+            if (written >= nextSample) {
+                nextSample += SAMPLE_EVERY_BYTES;
+                peakUsed = Math.max(peakUsed, usedAfterGc(memory));
+                samples++;
+            }
+        }
+    }
+}
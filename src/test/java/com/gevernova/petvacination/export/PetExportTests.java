@@ -0,0 +1,144 @@
+package com.gevernova.petvacination.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.dto.BulkImportSummaryDTO;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import com.gevernova.petvacination.service.BoosterCatalog;
+import com.gevernova.petvacination.service.OwnerServiceImplementation;
+import com.gevernova.petvacination.service.PetDetailsServices;
+import com.gevernova.petvacination.service.PetServiceImplementation;
+import com.gevernova.petvacination.service.VaccinationScheduleServiceImplementation;
+import com.gevernova.petvacination.service.VaccinationStatsServiceImplementation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Exports the registry, imports the export into the same database and checks the copies read back the same:
+// quoting, pets without vaccinations or breed, and vaccinations grouped back under their pet.
+@DataJpaTest
+@ImportAutoConfiguration({ValidationAutoConfiguration.class, JacksonAutoConfiguration.class})
+@Import({PetExporter.class, PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class,
+        VaccinationStatsServiceImplementation.class, VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+class PetExportTests {
+
+    @Autowired
+    private PetExporter petExporter;
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @BeforeEach
+    void setUp() {
+        petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName("Buddy, \"the Brave\"")
+                .species(Species.DOG)
+                .breed("Beagle")
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>(List.of(
+                        new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 1)),
+                        new VaccinationDetails("Parvovirus", LocalDate.of(2024, 2, 1)))))
+                .build());
+        petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName("Tom")
+                .species(Species.CAT)
+                .owner(new Owner(null, "Sam Roe", "1234567890", "sam@example.com"))
+                .vaccines(new LinkedHashSet<>())
+                .build());
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void csvExportImportsBackUnchanged() throws IOException {
+        String exported = export(ExportFormat.CSV);
+        assertTrue(exported.startsWith(PetExporter.CSV_HEADER + "\r\n"));
+        assertTrue(exported.contains(",\"Buddy, \"\"the Brave\"\"\",DOG,Beagle,"), exported);
+        List<PetRequestDTO> pets = readCsv(exported);
+
+        BulkImportSummaryDTO summary = petDetailsServices.importPetDetails(pets.iterator());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertEquals(2, summary.getCreated());
+        assertTrue(summary.getProblems().isEmpty());
+        List<PetRequestDTO> reexported = readCsv(export(ExportFormat.CSV));
+        assertEquals(describe(pets) + describe(pets), describe(reexported));
+    }
+
+    @Test
+    void ndjsonExportImportsBackUnchanged() throws IOException {
+        String exported = export(ExportFormat.NDJSON);
+        assertEquals(2, exported.lines().count());
+        List<PetRequestDTO> pets = readNdjson(exported);
+
+        BulkImportSummaryDTO summary = petDetailsServices.importPetDetails(pets.iterator());
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertEquals(2, summary.getCreated());
+        assertEquals(describe(pets) + describe(pets), describe(readNdjson(export(ExportFormat.NDJSON))));
+        assertEquals(describe(pets), describe(readCsv(export(ExportFormat.CSV)).subList(0, 2)));
+    }
+
+    private String export(ExportFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        petExporter.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static List<PetRequestDTO> readCsv(String csv) {
+        List<PetRequestDTO> pets = new ArrayList<>();
+        new PetCsvReader(new StringReader(csv)).forEachRemaining(pets::add);
+        return pets;
+    }
+
+    private List<PetRequestDTO> readNdjson(String ndjson) throws IOException {
+        return objectMapper.readerFor(PetRequestDTO.class).<PetRequestDTO>readValues(ndjson).readAll();
+    }
+
+    // Export order is by id, so the imported copies follow the originals
+    private static String describe(List<PetRequestDTO> pets) {
+        StringBuilder description = new StringBuilder();
+        for (PetRequestDTO pet : pets) {
+            description.append(pet.getName()).append('|').append(pet.getSpecies()).append('|').append(pet.getBreed())
+                    .append('|').append(pet.getOwnerName()).append('|').append(pet.getOwnerContact())
+                    .append('|').append(pet.getOwnerEmail());
+            pet.getVaccines().stream()
+                    .sorted(Comparator.comparing(vaccine -> vaccine.getName()))
+                    .forEach(vaccine -> description.append('|').append(vaccine.getName()).append('@').append(vaccine.getDateGiven()));
+            description.append('\n');
+        }
+        return description.toString();
+    }
+}
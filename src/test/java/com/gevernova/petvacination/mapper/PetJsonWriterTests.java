@@ -0,0 +1,47 @@
+package com.gevernova.petvacination.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PetJsonWriterTests {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Test
+    void writesTheSameJsonAsTheResponseDto() throws Exception {
+        Set<VaccinationDetails> vaccines = new LinkedHashSet<>();
+        vaccines.add(new VaccinationDetails("Rabies", LocalDate.of(2025, 1, 10)));
+        vaccines.add(new VaccinationDetails("Parvo \"booster\"", LocalDate.of(2025, 3, 2)));
+        PetDetails pet = PetDetails.builder()
+                .id(42L)
+                .petName("Buddy")
+                .species(Species.SMALL_MAMMAL)
+                .owner(new Owner(7L, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(vaccines)
+                .version(3L)
+                .build();
+
+        StringWriter direct = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(direct)) {
+            PetJsonWriter.writePet(generator, pet);
+        }
+
+        assertEquals(objectMapper.writeValueAsString(Mapper.mapToDTO(pet)), direct.toString());
+    }
+}
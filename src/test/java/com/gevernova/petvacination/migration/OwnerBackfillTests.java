@@ -0,0 +1,61 @@
+package com.gevernova.petvacination.migration;
+
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.repository.OwnerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Recreates the pre-owner schema by adding the old NOT NULL owner columns, then checks the backfill
+// links each pet to one owner per email. Not transactional: the ALTER TABLE statements commit.
+@DataJpaTest(properties = "pet.migration.batch-size=2")
+@Import(OwnerBackfill.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OwnerBackfillTests {
+
+    @Autowired
+    private OwnerBackfill ownerBackfill;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void linksLegacyPetsToOneOwnerPerEmail() {
+        for (String column : List.of("owner_name", "owner_contact", "owner_email")) {
+            jdbcTemplate.execute("ALTER TABLE pet_details ADD COLUMN " + column + " VARCHAR(255) DEFAULT '' NOT NULL");
+        }
+        insertLegacyPet(1, "Jane Doe", "9876543210", "Jane@Example.com");
+        insertLegacyPet(2, "Sam Roe", "1234567890", "sam@example.com");
+        insertLegacyPet(3, "Jane D.", "9876543211", "jane@example.com");
+
+        ownerBackfill.run(null);
+
+        List<Owner> owners = ownerRepository.findAll();
+        assertEquals(2, owners.size());
+        Owner jane = ownerRepository.findByEmail("jane@example.com").orElseThrow();
+        // The first registration's details are kept
+        assertEquals("Jane Doe", jane.getName());
+        assertEquals(List.of(jane.getId(), jane.getId()), jdbcTemplate.queryForList(
+                "SELECT owner_id FROM pet_details WHERE id IN (1, 3) ORDER BY id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pet_details WHERE owner_id IS NULL", Integer.class));
+
+        // New pets no longer write the old columns
+        jdbcTemplate.update("INSERT INTO pet_details (id, version, pet_name, species, owner_id) VALUES (4, 0, 'New', 0, ?)", jane.getId());
+    }
+
+    private void insertLegacyPet(long id, String ownerName, String ownerContact, String ownerEmail) {
+        jdbcTemplate.update("INSERT INTO pet_details (id, version, pet_name, species, owner_name, owner_contact, owner_email)"
+                + " VALUES (?, 0, ?, 0, ?, ?, ?)", id, "Pet" + id, ownerName, ownerContact, ownerEmail);
+    }
+}
@@ -0,0 +1,130 @@
+package com.gevernova.petvacination.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTests {
+
+    private static final String ENDPOINTS = "list:GET /api/pets|/api/pets/search=2@PT0.5S, by-id:GET /api/pets/{id:[0-9]+}=4";
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void clientOverItsRateGets429WithoutSlowingOthers() throws Exception {
+        RateLimitFilter filter = filter(new ClientRateLimiter(1, 3, 100, clock::get));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, call(filter, "GET", "/api/pets/1", "key-a").getStatus());
+        }
+        MockHttpServletResponse limited = call(filter, "GET", "/api/pets/1", "key-a");
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertEquals(200, call(filter, "GET", "/api/pets/1", "key-b").getStatus());
+        assertEquals(200, call(filter, "GET", "/api/metrics/ratelimit", "key-a").getStatus());
+
+        clock.addAndGet(1_000_000_000L);
+        assertEquals(200, call(filter, "GET", "/api/pets/1", "key-a").getStatus());
+        assertEquals(1, filter.getStats().getRateLimited());
+    }
+
+    @Test
+    void rotatingKeysFromOneAddressGetNoFreshBursts() throws Exception {
+        RateLimitFilter filter = new RateLimitFilter(new ClientRateLimiter(1, 3, 100, clock::get),
+                new ClientRateLimiter(1, 5, 100, clock::get), new EndpointLimits(ENDPOINTS, 8, 1), "X-API-Key",
+                new ObjectMapper(), clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, call(filter, "GET", "/api/pets/1", "key-" + i).getStatus());
+        }
+        assertEquals(429, call(filter, "GET", "/api/pets/1", "key-5").getStatus());
+        assertEquals(5, filter.getStats().getTrackedClients());
+        assertEquals(1, filter.getStats().getTrackedAddresses());
+    }
+
+    @Test
+    void fullListGroupIsRefusedWhileLookupsByIdGoThrough() throws Exception {
+        EndpointLimits limits = new EndpointLimits(ENDPOINTS, 8, 1);
+        ConcurrencyLimiter list = limits.forRequest("GET", "/api/pets");
+        assertSame(list, limits.forRequest("GET", "/api/pets/search"));
+        assertEquals("by-id", limits.forRequest("GET", "/api/pets/42").getName());
+        assertEquals(EndpointLimits.DEFAULT_GROUP, limits.forRequest("POST", "/api/pets/create").getName());
+
+        // One list request is held elsewhere and a second is still running when the others arrive
+        RateLimitFilter filter = new RateLimitFilter(new ClientRateLimiter(1000, 1000, 100, clock::get),
+                new ClientRateLimiter(1000, 1000, 100, clock::get), limits, "X-API-Key", new ObjectMapper(), clock::get);
+        assertTrue(list.tryAcquire());
+        FilterChain running = (request, response) -> {
+            assertEquals(503, call(filter, "GET", "/api/pets", "key-b").getStatus());
+            assertEquals(200, call(filter, "GET", "/api/pets/7", "key-b").getStatus());
+        };
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("GET", "/api/pets", "key-a"), response, running);
+        assertEquals(200, response.getStatus());
+
+        list.release(0);
+        assertEquals(0, list.getStats().getInFlight());
+        assertEquals(1, list.getStats().getRejected());
+    }
+
+    @Test
+    void slowResponsesLowerTheLimitAndFastOnesRaiseItAgain() {
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("list", 16, 2, Duration.ofMillis(500));
+
+        // Backs off once per round, so the first round of slow responses costs 5% rather than 5% each
+        for (int i = 0; i < 16; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(Duration.ofSeconds(2).toNanos());
+        }
+        assertEquals(15, limiter.getStats().getCurrentLimit());
+        for (int i = 0; i < 400; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(Duration.ofSeconds(2).toNanos());
+        }
+        assertEquals(2, limiter.getStats().getCurrentLimit());
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(1, limiter.getStats().getShed());
+        limiter.release(Duration.ofSeconds(2).toNanos());
+        limiter.release(Duration.ofSeconds(2).toNanos());
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(Duration.ofMillis(10).toNanos());
+        }
+        assertTrue(limiter.getStats().getCurrentLimit() > 2);
+    }
+
+    private RateLimitFilter filter(ClientRateLimiter clientRateLimiter) {
+        return new RateLimitFilter(clientRateLimiter, new ClientRateLimiter(1000, 1000, 100, clock::get),
+                new EndpointLimits(ENDPOINTS, 8, 1), "X-API-Key", new ObjectMapper(), clock::get);
+    }
+
+    private static MockHttpServletResponse call(RateLimitFilter filter, String method, String path, String key)
+            throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path, key), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String key) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.addHeader("X-API-Key", key);
+        return request;
+    }
+}
@@ -0,0 +1,170 @@
+package com.gevernova.petvacination.repository;
+
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSearchCriteria;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.mapper.Mapper;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Asserts the number of SQL statements issued by the list/search paths, including the lazy
+// vaccine access done by Mapper.mapToDTO, so N+1 regressions fail here.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class PetDetailsRepositoryTests {
+
+    private static final int PETS = 30;
+
+    @Autowired
+    private PetDetailsRepository petDetailsRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < PETS; i++) {
+            Set<VaccinationDetails> vaccines = new LinkedHashSet<>();
+            vaccines.add(new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 1)));
+            vaccines.add(new VaccinationDetails("Parvo", LocalDate.of(2024, 2, 1)));
+            vaccines.add(new VaccinationDetails("Rabies", LocalDate.of(2025, 1, 1)));
+            Owner owner = testEntityManager.persist(new Owner(null, "Owner" + i, "1234567890", "owner" + i + "@example.com"));
+            testEntityManager.persist(PetDetails.builder()
+                    .petName("Pet" + i)
+                    .species(Species.DOG)
+                    .owner(owner)
+                    .vaccines(vaccines)
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        statistics = testEntityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void pageLoadsPetsAndVaccinesInTwoStatements() {
+        List<PetResponseDTO> page = petDetailsRepository.findPageAfter(0L, 20).stream().map(Mapper::mapToDTO).toList();
+
+        assertEquals(20, page.size());
+        assertEquals(3, page.get(0).getVaccines().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void vaccineSearchReturnsEachPetOnceInTwoStatementsPerPage() {
+        List<PetResponseDTO> first = petDetailsRepository.petsVaccinatedBySameDisease("rabies", 0L, 20).stream().map(Mapper::mapToDTO).toList();
+        List<PetResponseDTO> second = petDetailsRepository.petsVaccinatedBySameDisease("rabies", first.get(first.size() - 1).getId(), 20)
+                .stream().map(Mapper::mapToDTO).toList();
+
+        assertEquals(20, first.size());
+        assertEquals(PETS - 20, second.size());
+        assertEquals(PETS, Stream.concat(first.stream(), second.stream()).map(PetResponseDTO::getId).distinct().count());
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summarySearchCombinesFiltersAndPagesInOneStatementPerPage() {
+        PetSearchCriteria criteria = PetSearchCriteria.builder()
+                .species(Species.DOG)
+                .vaccineName("RABIES")
+                .vaccinatedAfter(LocalDate.of(2024, 6, 1))
+                .build();
+
+        List<PetSummaryDTO> first = petDetailsRepository.searchSummariesAfter(criteria, 0L, 20);
+        List<PetSummaryDTO> second = petDetailsRepository.searchSummariesAfter(criteria, first.get(19).getId(), 20);
+
+        assertEquals(20, first.size());
+        assertEquals(PETS - 20, second.size());
+        assertEquals(PETS, Stream.concat(first.stream(), second.stream()).map(PetSummaryDTO::getId).distinct().count());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        criteria.setOwnerEmail("owner7@example.com");
+        assertEquals(List.of("Pet7"), petDetailsRepository.searchSummariesAfter(criteria, 0L, 20).stream().map(PetSummaryDTO::getName).toList());
+        criteria.setVaccinatedAfter(LocalDate.of(2025, 6, 1));
+        assertEquals(0, petDetailsRepository.searchIdsAfter(criteria, 0L, 20).size());
+    }
+
+    @Test
+    void searchFindsPetsWithoutAnOwner() {
+        // As left by the move to the owner table until OwnerBackfill links the pet
+        Long id = testEntityManager.persistAndFlush(PetDetails.builder()
+                .petName("Stray")
+                .species(Species.CAT)
+                .vaccines(new LinkedHashSet<>())
+                .build()).getId();
+        PetSearchCriteria criteria = PetSearchCriteria.builder().species(Species.CAT).build();
+
+        List<PetSummaryDTO> summaries = petDetailsRepository.searchSummariesAfter(criteria, 0L, 20);
+        assertEquals(List.of("Stray"), summaries.stream().map(PetSummaryDTO::getName).toList());
+        assertNull(summaries.get(0).getOwnerName());
+        assertEquals(List.of(id), petDetailsRepository.searchIdsAfter(criteria, 0L, 20));
+
+        criteria.setOwnerEmail("owner1@example.com");
+        assertEquals(0, petDetailsRepository.searchSummariesAfter(criteria, 0L, 20).size());
+        assertEquals(0, petDetailsRepository.searchIdsAfter(criteria, 0L, 20).size());
+    }
+
+    @Test
+    void ownerPetsLoadWithOwnerAndVaccinesInOneStatement() {
+        Long ownerId = petDetailsRepository.findAllWithVaccinesByIdIn(List.of(petDetailsRepository.findIdsAfter(0L, Limit.of(1)).get(0)))
+                .get(0).getOwner().getId();
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<PetResponseDTO> pets = petDetailsRepository.findAllWithVaccinesByOwnerId(ownerId).stream().map(Mapper::mapToDTO).toList();
+
+        assertEquals(1, pets.size());
+        assertEquals("owner0@example.com", pets.get(0).getOwnerEmail());
+        assertEquals(3, pets.get(0).getVaccines().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void singlePetLoadsWithVaccinesInOneStatement() {
+        Long id = petDetailsRepository.findIdsAfter(0L, Limit.of(1)).get(0);
+        statistics.clear();
+
+        PetResponseDTO pet = Mapper.mapToDTO(petDetailsRepository.findWithVaccinesById(id).orElseThrow());
+
+        assertEquals(3, pet.getVaccines().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void backfillLookupSkipsPetsWithoutVaccines() {
+        Owner owner = testEntityManager.persist(new Owner(null, "No Vaccines", "1234567890", "none@example.com"));
+        testEntityManager.persist(PetDetails.builder()
+                .petName("Unvaccinated")
+                .species(Species.CAT)
+                .owner(owner)
+                .vaccines(new LinkedHashSet<>())
+                .build());
+        testEntityManager.flush();
+
+        // None of the pets has vaccination_due rows here; only the vaccinated ones need them
+        assertEquals(PETS, petDetailsRepository.findIdsWithoutScheduleAfter(0L, Limit.of(PETS + 10)).size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.BulkItemResultDTO;
+import com.gevernova.petvacination.dto.BulkItemStatus;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.VaccinationRequestDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.mapper.Mapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Throughput of the bulk endpoint's service path against one createPetDetails call per pet.
+// Excluded from the default build; run with: mvn test -Pbenchmark -Dbenchmark.pets=20000
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk-benchmark",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.show-sql=false",
+        "GMAIL_USERNAME=benchmark",
+        "GMAIL_APP_PASSWORD=benchmark",
+        "pet.outbox.poll-interval=PT1H"
+})
+class BulkRegistrationBenchmarkTests {
+
+    private static final int PETS = Integer.getInteger("benchmark.pets", 5000);
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Test
+    void bulkRegistrationOutpacesSingleInserts() {
+        // Warm up both paths before timing
+        registerOneByOne(requests(500, "warmup-single"));
+        petDetailsServices.createPetDetailsInBulk(requests(500, "warmup-bulk").iterator());
+
+        List<PetRequestDTO> singles = requests(PETS, "single");
+        long singleStart = System.nanoTime();
+        registerOneByOne(singles);
+        long singleNanos = System.nanoTime() - singleStart;
+
+        List<PetRequestDTO> bulk = requests(PETS, "bulk");
+        long bulkStart = System.nanoTime();
+        List<BulkItemResultDTO> results = petDetailsServices.createPetDetailsInBulk(bulk.iterator());
+        long bulkNanos = System.nanoTime() - bulkStart;
+
+        assertEquals(PETS, results.stream().filter(result -> result.getStatus() == BulkItemStatus.CREATED).count());
+        System.out.printf("Registered %d pets: single %.0f pets/s, bulk %.0f pets/s (%.1fx)%n",
+                PETS, perSecond(singleNanos), perSecond(bulkNanos), (double) singleNanos / bulkNanos);
+        assertTrue(bulkNanos < singleNanos);
+    }
+
+    private void registerOneByOne(List<PetRequestDTO> requests) {
+        for (PetRequestDTO request : requests) {
+            petDetailsServices.createPetDetails(Mapper.mapToEntity(request));
+        }
+    }
+
+    private static double perSecond(long nanos) {
+        return PETS / (nanos / 1_000_000_000.0);
+    }
+
+    private static List<PetRequestDTO> requests(int count, String prefix) {
+        List<PetRequestDTO> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            PetRequestDTO request = new PetRequestDTO();
+            request.setName(prefix + i);
+            request.setSpecies(Species.DOG);
+            request.setBreed("Beagle");
+            request.setOwnerName("Owner " + i);
+            request.setOwnerContact("9876543210");
+            request.setOwnerEmail(prefix + i + "@example.com");
+            request.setVaccines(List.of(
+                    new VaccinationRequestDTO("Rabies", LocalDate.of(2025, 1, 10)),
+                    new VaccinationRequestDTO("Parvo", LocalDate.of(2025, 3, 2))));
+            requests.add(request);
+        }
+        return requests;
+    }
+}
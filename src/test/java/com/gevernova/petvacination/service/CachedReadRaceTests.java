@@ -0,0 +1,131 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.cache.LocalPetDetailsCache;
+import com.gevernova.petvacination.cache.PetDetailsCache;
+import com.gevernova.petvacination.dto.CacheStatsDTO;
+import com.gevernova.petvacination.dto.PetPatchDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// A read that loads the pet, then a write that commits and invalidates, then the read storing what it loaded:
+// the stored copy would be a version behind for the whole TTL. Not transactional, so the write commits as it
+// would in production; the context is closed afterwards so the committed pet does not show up in other tests.
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class,
+        VaccinationStatsServiceImplementation.class, VaccinationCountsRepository.class, BoosterCatalog.class,
+        CachedReadRaceTests.InterleavingCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class CachedReadRaceTests {
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private InterleavingCache cache;
+
+    @Test
+    void readThatOverlapsACommittedWriteIsNotCached() throws Exception {
+        Long petId = petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName("Buddy")
+                .species(Species.DOG)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>())
+                .build()).getId();
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            cache.beforePut = () -> writer.submit(() -> petDetailsServices.patchPetDetails(petId, breed("Beagle"), null)).get();
+            PetResponseDTO loaded = petDetailsServices.getPetDetailsById(petId).orElseThrow();
+            assertNull(loaded.getBreed());
+        } finally {
+            writer.shutdown();
+        }
+
+        assertEquals("Beagle", petDetailsServices.getPetDetailsById(petId).orElseThrow().getBreed());
+        assertEquals("Beagle", petDetailsServices.getPetDetailsById(petId).orElseThrow().getBreed());
+    }
+
+    private static PetPatchDTO breed(String breed) {
+        PetPatchDTO patch = new PetPatchDTO();
+        patch.setBreed(breed);
+        return patch;
+    }
+
+    interface Step {
+        void run() throws Exception;
+    }
+
+    // Runs beforePut once, between the reader's load and its put
+    static class InterleavingCache implements PetDetailsCache {
+
+        private final LocalPetDetailsCache delegate = new LocalPetDetailsCache(100, Duration.ofMinutes(5));
+        volatile Step beforePut;
+
+        @Override
+        public Optional<PetResponseDTO> get(Long id) {
+            return delegate.get(id);
+        }
+
+        @Override
+        public long generation(Long id) {
+            return delegate.generation(id);
+        }
+
+        @Override
+        public void put(Long id, PetResponseDTO pet, long generation) {
+            Step step = beforePut;
+            beforePut = null;
+            if (step != null) {
+                try {
+                    step.run();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            delegate.put(id, pet, generation);
+        }
+
+        @Override
+        public void invalidate(Long id) {
+            delegate.invalidate(id);
+        }
+
+        @Override
+        public CacheStatsDTO getStats() {
+            return delegate.getStats();
+        }
+    }
+
+    @TestConfiguration
+    static class InterleavingCacheConfig {
+        @Bean
+        InterleavingCache interleavingCache() {
+            return new InterleavingCache();
+        }
+    }
+}
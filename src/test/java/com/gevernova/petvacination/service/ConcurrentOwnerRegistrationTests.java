@@ -0,0 +1,131 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.dto.BulkItemResultDTO;
+import com.gevernova.petvacination.dto.BulkItemStatus;
+import com.gevernova.petvacination.dto.PetRequestDTO;
+import com.gevernova.petvacination.dto.VaccinationRequestDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.repository.OwnerRepository;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Registrations that bring the same new owner at the same moment: all of them succeed and share one owner.
+// Not transactional, so each registration commits as it would in production; the context is closed afterwards so
+// the committed pets do not show up in other tests.
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class,
+        VaccinationStatsServiceImplementation.class, VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class ConcurrentOwnerRegistrationTests {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Test
+    void concurrentFirstRegistrationsShareOneNewOwner() throws Exception {
+        for (int round = 0; round < 5; round++) {
+            String email = "single" + round + "@example.com";
+            List<Long> petIds = concurrently(thread -> petDetailsServices.createPetDetails(PetDetails.builder()
+                    .petName("Pet" + thread)
+                    .species(Species.DOG)
+                    .owner(new Owner(null, "Jane Doe", "9876543210", email))
+                    .vaccines(new LinkedHashSet<>())
+                    .build()).getId());
+
+            Owner owner = ownerRepository.findByEmail(email).orElseThrow();
+            for (Long petId : petIds) {
+                assertEquals(owner.getId(), petDetailsServices.getPetDetailsById(petId).orElseThrow().getOwnerId());
+            }
+        }
+    }
+
+    @Test
+    void concurrentBulkChunksWithTheSameNewOwnersAllCommit() throws Exception {
+        List<List<BulkItemResultDTO>> results = concurrently(thread -> {
+            List<PetRequestDTO> requests = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                requests.add(request("Bulk" + thread + "-" + i, "bulk" + i + "@example.com"));
+            }
+            return petDetailsServices.createPetDetailsInBulk(requests.iterator());
+        });
+
+        for (List<BulkItemResultDTO> threadResults : results) {
+            for (BulkItemResultDTO result : threadResults) {
+                assertEquals(BulkItemStatus.CREATED, result.getStatus(), String.valueOf(result.getErrors()));
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            ownerRepository.findByEmail("bulk" + i + "@example.com").orElseThrow();
+        }
+    }
+
+    private interface Registration<T> {
+        T register(int thread) throws Exception;
+    }
+
+    // Starts every registration at once and returns their results
+    private static <T> List<T> concurrently(Registration<T> registration) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                int index = thread;
+                Callable<T> task = () -> {
+                    start.await();
+                    return registration.register(index);
+                };
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static PetRequestDTO request(String name, String ownerEmail) {
+        PetRequestDTO request = new PetRequestDTO();
+        request.setName(name);
+        request.setSpecies(Species.CAT);
+        request.setOwnerName("Sam Roe");
+        request.setOwnerContact("1234567890");
+        request.setOwnerEmail(ownerEmail);
+        request.setVaccines(List.of(new VaccinationRequestDTO("Rabies", LocalDate.of(2024, 1, 1))));
+        return request;
+    }
+}
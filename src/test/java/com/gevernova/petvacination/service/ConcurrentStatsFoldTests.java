@@ -0,0 +1,97 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.dto.VaccinationCountDTO;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationStatsDelta;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import com.gevernova.petvacination.repository.VaccinationStatsDeltaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Several folders working through the same groups at once, as two instances of VaccinationStatsJob would:
+// every change is counted exactly once. Not transactional, so each fold commits; the context is closed
+// afterwards so the committed rows do not show up in other tests.
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class,
+        VaccinationStatsServiceImplementation.class, VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class ConcurrentStatsFoldTests {
+
+    private static final int THREADS = 8;
+    private static final int CHANGES = 200;
+    private static final LocalDate MONTH = LocalDate.of(2024, 3, 1);
+
+    @Autowired
+    private VaccinationStatsServices vaccinationStatsServices;
+
+    @Autowired
+    private VaccinationStatsDeltaRepository vaccinationStatsDeltaRepository;
+
+    @Test
+    void concurrentFoldsCountEveryChangeOnce() throws Exception {
+        List<VaccinationStatsDelta> deltas = new ArrayList<>();
+        for (int i = 0; i < CHANGES; i++) {
+            deltas.add(VaccinationStatsDelta.builder()
+                    .species(i % 2 == 0 ? Species.DOG : Species.CAT)
+                    .vaccineKey("rabies")
+                    .vaccineName("Rabies")
+                    .month(MONTH)
+                    .doses(1)
+                    .build());
+        }
+        vaccinationStatsDeltaRepository.saveAll(deltas);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    while (vaccinationStatsDeltaRepository.count() > 0) {
+                        try {
+                            vaccinationStatsServices.foldPending(5);
+                        } catch (ConcurrencyFailureException | DataIntegrityViolationException e) {
+                            // Lost the batch or the first insert of a group to another folder, as the job would
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(List.of(CHANGES / 2L, CHANGES / 2L), vaccinationStatsServices
+                .getVaccinationCounts(null, "rabies", YearMonth.from(MONTH), YearMonth.from(MONTH)).stream()
+                .map(VaccinationCountDTO::getDoses)
+                .toList());
+    }
+}
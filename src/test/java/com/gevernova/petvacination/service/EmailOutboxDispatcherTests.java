@@ -0,0 +1,123 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.EmailMessageDTO;
+import com.gevernova.petvacination.entity.EmailOutbox;
+import com.gevernova.petvacination.entity.OutboxStatus;
+import com.gevernova.petvacination.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@Import({EmailOutboxDispatcher.class, EmailOutboxDispatcherTests.InMemoryNotificationsConfig.class})
+class EmailOutboxDispatcherTests {
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private InMemoryNotifications notifications;
+
+    @Test
+    void deliversPendingMessagesInOneBatch() {
+        emailOutboxRepository.save(pending("a@example.com"));
+        emailOutboxRepository.save(pending("b@example.com"));
+
+        assertEquals(2, emailOutboxDispatcher.dispatchBatch());
+
+        assertEquals(1, notifications.batches.size());
+        assertEquals(2, notifications.batches.get(0).size());
+        assertEquals(0, emailOutboxRepository.countByStatus(OutboxStatus.PENDING));
+        assertEquals(2, emailOutboxRepository.countByStatus(OutboxStatus.SENT));
+    }
+
+    @Test
+    void failedMessageIsRescheduledWithBackoff() {
+        notifications.failFor = "down@example.com";
+        EmailOutbox outbox = emailOutboxRepository.save(pending("down@example.com"));
+        Instant before = Instant.now();
+
+        emailOutboxDispatcher.dispatchBatch();
+
+        EmailOutbox reloaded = emailOutboxRepository.findById(outbox.getId()).orElseThrow();
+        assertEquals(OutboxStatus.PENDING, reloaded.getStatus());
+        assertEquals(1, reloaded.getAttempts());
+        assertTrue(reloaded.getNextAttemptAt().isAfter(before));
+        assertEquals(0, emailOutboxDispatcher.dispatchBatch());
+    }
+
+    @Test
+    void batchBeingSentIsNotClaimedAgain() {
+        emailOutboxRepository.save(pending("a@example.com"));
+        List<Integer> claimedMeanwhile = new ArrayList<>();
+        notifications.duringSend = () -> claimedMeanwhile.add(emailOutboxDispatcher.dispatchBatch());
+        int batchesBefore = notifications.batches.size();
+
+        assertEquals(1, emailOutboxDispatcher.dispatchBatch());
+
+        // A second dispatcher polling while the first is still sending finds nothing due
+        assertEquals(List.of(0), claimedMeanwhile);
+        assertEquals(batchesBefore + 1, notifications.batches.size());
+        assertEquals(1, emailOutboxRepository.countByStatus(OutboxStatus.SENT));
+    }
+
+    private static EmailOutbox pending(String recipient) {
+        Instant now = Instant.now();
+        return EmailOutbox.builder()
+                .recipient(recipient)
+                .subject("subject")
+                .body("body")
+                .status(OutboxStatus.PENDING)
+                .createdAt(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+
+    static class InMemoryNotifications implements Notifications {
+
+        final List<List<EmailMessageDTO>> batches = new ArrayList<>();
+        String failFor;
+        Runnable duringSend;
+
+        @Override
+        public boolean sendRegistrationEmail(String to, String name) {
+            return sendEmails(List.of(EmailService.registrationMessage(to, name)))[0];
+        }
+
+        @Override
+        public boolean[] sendEmails(List<EmailMessageDTO> messages) {
+            batches.add(List.copyOf(messages));
+            if (duringSend != null) {
+                Runnable action = duringSend;
+                duringSend = null;
+                action.run();
+            }
+            boolean[] delivered = new boolean[messages.size()];
+            for (int i = 0; i < messages.size(); i++) {
+                delivered[i] = !messages.get(i).getTo().equals(failFor);
+            }
+            return delivered;
+        }
+    }
+
+    @TestConfiguration
+    static class InMemoryNotificationsConfig {
+        @Bean
+        InMemoryNotifications inMemoryNotifications() {
+            return new InMemoryNotifications();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.controller.IdempotentRequests;
+import com.gevernova.petvacination.dto.ResponseDTO;
+import com.gevernova.petvacination.entity.IdempotencyRecord;
+import com.gevernova.petvacination.exceptionhandling.IdempotencyConflictException;
+import com.gevernova.petvacination.exceptionhandling.IdempotencyKeyMismatchException;
+import com.gevernova.petvacination.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Not transactional: each claim must commit on its own, as it does behind a controller
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({IdempotencyServiceImplementation.class, IdempotentRequests.class})
+class IdempotencyTests {
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private IdempotencyServices idempotencyServices;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void retryGetsTheFirstResponseWithoutRunningAgain() throws Exception {
+        ResponseEntity<ResponseDTO> first = register("key-1", Map.of("name", "Buddy"));
+        ResponseEntity<ResponseDTO> retry = register("key-1", Map.of("name", "Buddy"));
+
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+        assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+        assertEquals(Map.of("id", 1), retry.getBody().getData());
+
+        assertThrows(IdempotencyKeyMismatchException.class, () -> register("key-1", Map.of("name", "Rex")));
+        register("key-2", Map.of("name", "Buddy"));
+        register(null, Map.of("name", "Buddy"));
+        assertEquals(3, runs.get());
+    }
+
+    @Test
+    void failedRequestGivesTheKeyUpAndARunningOneBlocksRetries() throws Exception {
+        assertThrows(IllegalStateException.class, () -> idempotentRequests.execute("test", "key-1", null, completion -> {
+            throw new IllegalStateException("database down");
+        }));
+        register("key-1", Map.of("name", "Buddy"));
+        assertEquals(1, runs.get());
+
+        assertTrue(idempotencyServices.claim("test", "key-2", null).isEmpty());
+        assertThrows(IdempotencyConflictException.class, () -> register("key-2", Map.of("name", "Buddy")));
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void expiredRecordsAreReplacedAndEvicted() throws Exception {
+        register("key-1", Map.of("name", "Buddy"));
+        register("key-2", Map.of("name", "Buddy"));
+        for (IdempotencyRecord record : idempotencyRecordRepository.findAll()) {
+            record.setExpiresAt(Instant.now().minusSeconds(1));
+            idempotencyRecordRepository.save(record);
+        }
+
+        register("key-1", Map.of("name", "Buddy"));
+        assertEquals(3, runs.get());
+        assertEquals(1, idempotencyServices.deleteExpired(10));
+        assertEquals(1, idempotencyRecordRepository.count());
+    }
+
+    @Test
+    void responseStoredWithTheCommitIsReplayedAfterTheRequestDied() throws Exception {
+        // The registration commits with its response, then the request fails before answering
+        assertThrows(IllegalStateException.class, () -> idempotentRequests.execute("test", "key-1", Map.of("name", "Buddy"), completion -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                runs.incrementAndGet();
+                completion.complete(created());
+            });
+            throw new IllegalStateException("connection reset");
+        }));
+
+        ResponseEntity<ResponseDTO> retry = register("key-1", Map.of("name", "Buddy"));
+        assertEquals(1, runs.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+    }
+
+    @Test
+    void claimLeftRunningPastItsLeaseIsTakenOver() throws Exception {
+        // The holder died between claiming the key and storing a response
+        assertTrue(idempotencyServices.claim("test", "key-1", null).isEmpty());
+        assertThrows(IdempotencyConflictException.class, () -> register("key-1", Map.of("name", "Buddy")));
+
+        IdempotencyRecord stale = idempotencyRecordRepository.findByEndpointAndIdempotencyKey("test", "key-1").orElseThrow();
+        stale.setClaimedUntil(Instant.now().minusSeconds(1));
+        idempotencyRecordRepository.save(stale);
+
+        register("key-1", Map.of("name", "Buddy"));
+        register("key-1", Map.of("name", "Buddy"));
+        assertEquals(1, runs.get());
+    }
+
+    private ResponseEntity<ResponseDTO> register(String key, Object request) throws Exception {
+        return idempotentRequests.execute("test", key, request, completion -> {
+            runs.incrementAndGet();
+            return created();
+        });
+    }
+
+    private static ResponseEntity<ResponseDTO> created() {
+        return new ResponseEntity<>(ResponseDTO.builder()
+                .message("created")
+                .data(Map.of("id", 1))
+                .build(), HttpStatus.CREATED);
+    }
+}
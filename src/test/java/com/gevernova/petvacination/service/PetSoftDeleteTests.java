@@ -0,0 +1,102 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.exceptionhandling.PetNotFoundException;
+import com.gevernova.petvacination.exceptionhandling.PreconditionFailedException;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import com.gevernova.petvacination.repository.VaccinationDueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class, VaccinationStatsServiceImplementation.class,
+        VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+class PetSoftDeleteTests {
+
+    private static final LocalDate FROM = LocalDate.of(2000, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2100, 1, 1);
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private VaccinationDueRepository vaccinationDueRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void deletedPetIsHiddenUntilRestored() {
+        PetDetails pet = register("Buddy");
+        Long id = pet.getId();
+
+        assertThrows(PreconditionFailedException.class, () -> petDetailsServices.deletePetDetails(id, List.of(pet.getVersion() + 1)));
+        petDetailsServices.deletePetDetails(id, List.of(pet.getVersion()));
+
+        assertTrue(petDetailsServices.getPetDetailsById(id).isEmpty());
+        assertTrue(petDetailsServices.getPetsByVaccinationName("rabies", null, null).getPets().isEmpty());
+        assertTrue(petDetailsServices.getPetDetailsPage(null, null).getPets().isEmpty());
+        assertTrue(vaccinationDueRepository.findDueBetween(FROM, TO, FROM, 0, Limit.of(10)).isEmpty());
+        assertThrows(PetNotFoundException.class, () -> petDetailsServices.deletePetDetails(id, null));
+
+        // The row and its vaccines are kept, so a restore brings the pet back as it was, under a new version
+        assertEquals(pet.getVersion() + 2, petDetailsServices.restorePetDetails(id).getVersion());
+        assertEquals("Buddy", petDetailsServices.getPetDetailsById(id).orElseThrow().getName());
+        assertEquals(1, petDetailsServices.getPetsByVaccinationName("rabies", null, null).getPets().size());
+        assertThrows(PetNotFoundException.class, () -> petDetailsServices.restorePetDetails(id));
+    }
+
+    @Test
+    void purgeRemovesOnlyPetsDeletedBeforeTheCutoff() {
+        Long purgedId = register("Buddy").getId();
+        Long keptId = register("Rex").getId();
+        Long liveId = register("Tom").getId();
+        petDetailsServices.deletePetDetails(purgedId, null);
+        Instant cutoff = Instant.now().plusMillis(1);
+        jdbcTemplate.update("UPDATE pet_details SET deleted_at = ? WHERE id = ?", cutoff.plusSeconds(60), keptId);
+
+        assertEquals(1, petDetailsServices.purgeDeleted(cutoff, 10));
+        assertEquals(0, petDetailsServices.purgeDeleted(cutoff, 10));
+
+        assertEquals(List.of(keptId, liveId), jdbcTemplate.queryForList("SELECT id FROM pet_details ORDER BY id", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM pet_vaccine WHERE pet_id = ?", Long.class, purgedId));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vaccination_due WHERE pet_id = ?", Long.class, purgedId));
+        assertThrows(PetNotFoundException.class, () -> petDetailsServices.restorePetDetails(purgedId));
+    }
+
+    private PetDetails register(String name) {
+        Long id = petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName(name)
+                .species(Species.DOG)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>(List.of(new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 5)))))
+                .build()).getId();
+        testEntityManager.flush();
+        testEntityManager.clear();
+        return testEntityManager.find(PetDetails.class, id);
+    }
+}
@@ -0,0 +1,179 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.dto.PetPatchDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.exceptionhandling.PreconditionFailedException;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Records the SQL of each update path so that rewriting a pet's whole vaccination history,
+// or every column of the pet row, fails here.
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.gevernova.petvacination.service.PetUpdateTests$RecordingStatementInspector")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class, VaccinationStatsServiceImplementation.class,
+        VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+class PetUpdateTests {
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Long petId;
+
+    @BeforeEach
+    void setUp() {
+        PetDetails pet = PetDetails.builder()
+                .petName("Buddy")
+                .species(Species.DOG)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>(List.of(
+                        new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 1)),
+                        new VaccinationDetails("Parvovirus", LocalDate.of(2024, 2, 1)),
+                        new VaccinationDetails("Distemper", LocalDate.of(2024, 3, 1)))))
+                .build();
+        petId = petDetailsServices.createPetDetails(pet).getId();
+        testEntityManager.flush();
+        testEntityManager.clear();
+        RecordingStatementInspector.STATEMENTS.clear();
+    }
+
+    @Test
+    void patchWritesOnlyTheChangedColumn() {
+        PetPatchDTO patch = new PetPatchDTO();
+        patch.setBreed("Beagle");
+
+        petDetailsServices.patchPetDetails(petId, patch, null);
+        testEntityManager.flush();
+
+        List<String> writes = writes();
+        assertEquals(1, writes.size(), writes.toString());
+        assertTrue(writes.get(0).startsWith("update pet_details set breed=?,version=? where"), writes.get(0));
+    }
+
+    @Test
+    void ownerChangeIsWrittenOnceAndAdvancesEveryPetOfTheOwner() {
+        Long siblingId = petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName("Milo")
+                .species(Species.CAT)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "JANE@example.com"))
+                .vaccines(new LinkedHashSet<>())
+                .build()).getId();
+        testEntityManager.flush();
+        Long siblingVersion = petDetailsServices.getPetVersion(siblingId).orElseThrow();
+        RecordingStatementInspector.STATEMENTS.clear();
+
+        PetPatchDTO patch = new PetPatchDTO();
+        patch.setOwnerContact("1234567890");
+        PetResponseDTO patched = petDetailsServices.patchPetDetails(petId, patch, null);
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        assertTrue(writes().stream().anyMatch(sql -> sql.startsWith("update pet_owner set contact=? where")), writes().toString());
+        assertTrue(writes().stream().noneMatch(sql -> sql.contains("owner_contact")), writes().toString());
+        PetResponseDTO sibling = petDetailsServices.getPetDetailsById(siblingId).orElseThrow();
+        assertEquals(patched.getOwnerId(), sibling.getOwnerId());
+        assertEquals("1234567890", sibling.getOwnerContact());
+        assertEquals(siblingVersion + 1, sibling.getVersion());
+    }
+
+    @Test
+    void addingAVaccinationInsertsOneRow() {
+        petDetailsServices.addVaccination(petId, new VaccinationDetails("Rabies", LocalDate.of(2025, 1, 1)), null);
+        testEntityManager.flush();
+
+        assertEquals(List.of("insert into pet_vaccine"), petVaccineWrites());
+        assertEquals(4, petDetailsServices.getPetDetailsById(petId).orElseThrow().getVaccines().size());
+    }
+
+    @Test
+    void putReplacingOneVaccinationDeletesAndInsertsOnlyThatRow() {
+        PetDetails replacement = PetDetails.builder()
+                .petName("Buddy")
+                .species(Species.DOG)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>(List.of(
+                        new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 1)),
+                        new VaccinationDetails("Parvovirus", LocalDate.of(2024, 2, 1)),
+                        new VaccinationDetails("Bordetella", LocalDate.of(2024, 4, 1)))))
+                .build();
+
+        petDetailsServices.updatePetDetails(petId, replacement, null);
+        testEntityManager.flush();
+
+        assertEquals(List.of("delete from pet_vaccine", "insert into pet_vaccine"), petVaccineWrites());
+        // Only the version is bumped on the pet row
+        assertTrue(writes().stream().filter(sql -> sql.startsWith("update pet_details"))
+                .allMatch(sql -> sql.startsWith("update pet_details set version=? where")), writes().toString());
+    }
+
+    @Test
+    void staleVersionIsRejectedAndCurrentVersionAdvances() {
+        Long version = petDetailsServices.getPetVersion(petId).orElseThrow();
+        PetPatchDTO patch = new PetPatchDTO();
+        patch.setOwnerContact("1234567890");
+
+        PetResponseDTO patched = petDetailsServices.patchPetDetails(petId, patch, List.of(version));
+        testEntityManager.flush();
+        assertEquals(version + 1, patched.getVersion());
+
+        PetPatchDTO stale = new PetPatchDTO();
+        stale.setOwnerContact("5555555555");
+        assertThrows(PreconditionFailedException.class,
+                () -> petDetailsServices.patchPetDetails(petId, stale, List.of(version)));
+        assertThrows(PreconditionFailedException.class,
+                () -> petDetailsServices.addVaccination(petId, new VaccinationDetails("Rabies", LocalDate.of(2025, 1, 1)), List.of(version)));
+        assertThrows(PreconditionFailedException.class,
+                () -> petDetailsServices.deletePetDetails(petId, List.of(version)));
+    }
+
+    private static List<String> writes() {
+        return RecordingStatementInspector.STATEMENTS.stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> !sql.startsWith("select"))
+                .toList();
+    }
+
+    private static List<String> petVaccineWrites() {
+        return writes().stream()
+                .filter(sql -> sql.contains("pet_vaccine"))
+                .map(sql -> sql.substring(0, sql.indexOf("pet_vaccine") + "pet_vaccine".length()))
+                .toList();
+    }
+
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.PetPageDTO;
+import com.gevernova.petvacination.dto.PetResponseDTO;
+import com.gevernova.petvacination.dto.PetSummaryDTO;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReactivePetServicesTests {
+
+    private final PetDetailsServices petDetailsServices = mock(PetDetailsServices.class);
+    private final PetRegistrationFeed feed = new PetRegistrationFeed(2);
+    // The immediate scheduler runs each page read on the requesting thread, so the reads can be counted in step
+    private final ReactivePetServiceImplementation reactiveServices =
+            new ReactivePetServiceImplementation(petDetailsServices, feed, Schedulers.immediate(), 2);
+
+    @Test
+    void streamReadsTheNextPageOnlyWhenTheSubscriberAsksForIt() {
+        when(petDetailsServices.getPetDetailsPage(isNull(), eq(2))).thenReturn(page(2L, 1, 2));
+        when(petDetailsServices.getPetDetailsPage(eq(2L), eq(2))).thenReturn(page(4L, 3, 4));
+        when(petDetailsServices.getPetDetailsPage(eq(4L), eq(2))).thenReturn(page(null, 5));
+
+        ManualSubscriber<PetResponseDTO> subscriber = new ManualSubscriber<>();
+        reactiveServices.streamAllPetDetails().subscribe(subscriber);
+        subscriber.request(1);
+        assertEquals(1, subscriber.items.size());
+        // The second page may be read ahead of demand, the third may not
+        verify(petDetailsServices, times(0)).getPetDetailsPage(eq(4L), any());
+        assertTrue(reactiveServices.getStats().getPagesRead() <= 2);
+        assertEquals(1, reactiveServices.getStats().getOpenStreams());
+
+        subscriber.request(Long.MAX_VALUE);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), subscriber.items.stream().map(PetResponseDTO::getId).toList());
+        assertTrue(subscriber.completed);
+        assertEquals(3, reactiveServices.getStats().getPagesRead());
+        assertEquals(0, reactiveServices.getStats().getOpenStreams());
+    }
+
+    @Test
+    void slowFeedSubscriberKeepsTheNewestRegistrationsWithoutHoldingBackOthers() {
+        ManualSubscriber<PetSummaryDTO> fast = new ManualSubscriber<>();
+        ManualSubscriber<PetSummaryDTO> slow = new ManualSubscriber<>();
+        reactiveServices.registrations().subscribe(fast);
+        reactiveServices.registrations().subscribe(slow);
+        fast.request(Long.MAX_VALUE);
+
+        for (long id = 1; id <= 5; id++) {
+            feed.onPetRegistered(new PetRegisteredEvent(List.of(PetSummaryDTO.builder().id(id).build())));
+        }
+        assertEquals(5, fast.items.size());
+        assertEquals(0, slow.items.size());
+
+        slow.request(Long.MAX_VALUE);
+        assertEquals(List.of(4L, 5L), slow.items.stream().map(PetSummaryDTO::getId).toList());
+        assertEquals(5, reactiveServices.getStats().getRegistrationsPublished());
+        assertEquals(3, reactiveServices.getStats().getRegistrationsDropped());
+        assertEquals(2, reactiveServices.getStats().getFeedSubscribers());
+
+        fast.dispose();
+        slow.dispose();
+        assertEquals(0, reactiveServices.getStats().getFeedSubscribers());
+    }
+
+    private static PetPageDTO page(Long nextCursor, long... ids) {
+        List<PetResponseDTO> pets = new ArrayList<>();
+        for (long id : ids) {
+            pets.add(PetResponseDTO.builder().id(id).build());
+        }
+        return PetPageDTO.builder().pets(pets).nextCursor(nextCursor).build();
+    }
+
+    // Requests nothing until told to
+    private static final class ManualSubscriber<T> extends BaseSubscriber<T> {
+        private final List<T> items = new ArrayList<>();
+        private boolean completed;
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+        }
+
+        @Override
+        protected void hookOnNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.dto.VaccinationDuePageDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.entity.OutboxStatus;
+import com.gevernova.petvacination.entity.VaccinationDue;
+import com.gevernova.petvacination.repository.EmailOutboxRepository;
+import com.gevernova.petvacination.repository.VaccinationDueRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest
+@Import({VaccinationScheduleServiceImplementation.class, BoosterCatalog.class, VaccinationReminderJob.class})
+class VaccinationScheduleTests {
+
+    @Autowired
+    private VaccinationScheduleServices vaccinationScheduleServices;
+
+    @Autowired
+    private VaccinationReminderJob vaccinationReminderJob;
+
+    @Autowired
+    private VaccinationDueRepository vaccinationDueRepository;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Owner owner;
+
+    @Test
+    void dueDateFollowsTheLatestDoseOfEachVaccine() {
+        PetDetails pet = register(Species.DOG,
+                new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 1)),
+                new VaccinationDetails("rabies ", LocalDate.of(2025, 1, 1)),
+                new VaccinationDetails("Parvovirus", LocalDate.of(2024, 2, 1)));
+
+        List<VaccinationDue> rows = schedule(pet);
+        assertEquals(2, rows.size());
+        assertEquals(LocalDate.of(2026, 1, 1), rows.get(0).getNextDueDate());
+        assertEquals(LocalDate.of(2027, 2, 1), rows.get(1).getNextDueDate());
+
+        pet.setVaccines(new LinkedHashSet<>(List.of(new VaccinationDetails("Rabies", LocalDate.of(2025, 6, 1)))));
+        vaccinationScheduleServices.refreshSchedule(pet);
+
+        rows = schedule(pet);
+        assertEquals(1, rows.size());
+        assertEquals(LocalDate.of(2026, 6, 1), rows.get(0).getNextDueDate());
+    }
+
+    @Test
+    void dueRangeFiltersBySpeciesAndPagesWithCursor() {
+        for (int i = 0; i < 3; i++) {
+            register(Species.DOG, new VaccinationDetails("Rabies", LocalDate.of(2025, 3, 1 + i)));
+        }
+        register(Species.CAT, new VaccinationDetails("Rabies", LocalDate.of(2025, 3, 2)));
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 31);
+
+        VaccinationDuePageDTO first = vaccinationScheduleServices.getDueBetween(from, to, Species.DOG, null, 2);
+        assertEquals(2, first.getDue().size());
+        VaccinationDuePageDTO second = vaccinationScheduleServices.getDueBetween(from, to, Species.DOG, first.getNextCursor(), 2);
+        assertEquals(1, second.getDue().size());
+        assertEquals(LocalDate.of(2026, 3, 3), second.getDue().get(0).getNextDueDate());
+        assertNull(second.getNextCursor());
+
+        assertEquals(4, vaccinationScheduleServices.getDueBetween(from, to, null, null, 10).getDue().size());
+    }
+
+    @Test
+    void reminderIsQueuedOncePerDueDate() {
+        PetDetails pet = register(Species.CAT, new VaccinationDetails("FVRCP", LocalDate.of(2022, 5, 1)));
+        register(Species.CAT, new VaccinationDetails("FeLV", LocalDate.of(2025, 5, 20)));
+        LocalDate today = LocalDate.of(2026, 5, 18);
+
+        // FVRCP was due 2025-05-01 (overdue) and FeLV on 2026-05-20 (within the week)
+        assertEquals(2, vaccinationReminderJob.sendReminders(today));
+        // Both pets belong to the same owner, who gets a single email
+        assertEquals(1, emailOutboxRepository.countByStatus(OutboxStatus.PENDING));
+        assertEquals(0, vaccinationReminderJob.sendReminders(today));
+
+        // Reminded rows are out of the scan's range until a new dose moves the due date
+        testEntityManager.clear();
+        assertEquals(VaccinationDue.REMINDED, schedule(pet).get(0).getRemindOn());
+        pet.setVaccines(new LinkedHashSet<>(List.of(new VaccinationDetails("FVRCP", LocalDate.of(2023, 5, 1)))));
+        vaccinationScheduleServices.refreshSchedule(pet);
+        testEntityManager.flush();
+        assertEquals(1, vaccinationReminderJob.sendReminders(today));
+        assertEquals(2, emailOutboxRepository.countByStatus(OutboxStatus.PENDING));
+    }
+
+    private PetDetails register(Species species, VaccinationDetails... vaccines) {
+        PetDetails pet = testEntityManager.persist(PetDetails.builder()
+                .petName("Pet")
+                .species(species)
+                .owner(owner())
+                .vaccines(new LinkedHashSet<>(List.of(vaccines)))
+                .build());
+        vaccinationScheduleServices.createSchedules(List.of(pet));
+        return pet;
+    }
+
+    private Owner owner() {
+        if (owner == null) {
+            owner = testEntityManager.persist(new Owner(null, "Owner", "1234567890", "owner@example.com"));
+        }
+        return owner;
+    }
+
+    private List<VaccinationDue> schedule(PetDetails pet) {
+        testEntityManager.flush();
+        List<VaccinationDue> rows = new ArrayList<>(vaccinationDueRepository.findByPetId(pet.getId()));
+        rows.sort(Comparator.comparing(VaccinationDue::getNextDueDate));
+        return rows;
+    }
+}
@@ -0,0 +1,140 @@
+package com.gevernova.petvacination.service;
+
+import com.gevernova.petvacination.cache.PetCacheConfig;
+import com.gevernova.petvacination.dto.PetPatchDTO;
+import com.gevernova.petvacination.dto.SpeciesCoverageDTO;
+import com.gevernova.petvacination.dto.VaccinationCountDTO;
+import com.gevernova.petvacination.entity.Owner;
+import com.gevernova.petvacination.entity.PetDetails;
+import com.gevernova.petvacination.entity.Species;
+import com.gevernova.petvacination.entity.VaccinationDetails;
+import com.gevernova.petvacination.repository.VaccinationCountsRepository;
+import com.gevernova.petvacination.repository.VaccinationStatsDeltaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The incrementally maintained statistics must match a full recount after creates, updates, deletes and
+// purges, whether read with changes pending, after folding them, or after a rebuild.
+@DataJpaTest
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({PetServiceImplementation.class, OwnerServiceImplementation.class, VaccinationScheduleServiceImplementation.class, VaccinationStatsServiceImplementation.class,
+        VaccinationCountsRepository.class, BoosterCatalog.class, PetCacheConfig.class})
+class VaccinationStatsTests {
+
+    private static final YearMonth FROM = YearMonth.of(2024, 1);
+    private static final YearMonth TO = YearMonth.of(2025, 12);
+
+    @Autowired
+    private PetDetailsServices petDetailsServices;
+
+    @Autowired
+    private VaccinationStatsServices vaccinationStatsServices;
+
+    @Autowired
+    private VaccinationStatsDeltaRepository vaccinationStatsDeltaRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @Test
+    void incrementalCountsMatchARebuildAcrossWrites() {
+        Long buddyId = register("Buddy", Species.DOG,
+                new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 5)),
+                new VaccinationDetails("rabies ", LocalDate.of(2025, 1, 10)),
+                new VaccinationDetails("Parvovirus", LocalDate.of(2024, 1, 20)));
+        Long tomId = register("Tom", Species.CAT);
+        register("Rex", Species.DOG, new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 28)));
+
+        assertEquals(List.of("Parvovirus DOG 2024-01 1", "Rabies DOG 2024-01 2", "Rabies DOG 2025-01 1"), counts());
+        assertEquals(List.of("DOG 2/2 [Rabies 2, Parvovirus 1]", "CAT 0/1 []"), coverage());
+
+        petDetailsServices.addVaccination(tomId, new VaccinationDetails("Rabies", LocalDate.of(2024, 1, 15)), null);
+        PetPatchDTO toCat = new PetPatchDTO();
+        toCat.setSpecies(Species.CAT);
+        petDetailsServices.patchPetDetails(buddyId, toCat, null);
+        PetPatchDTO rename = new PetPatchDTO();
+        rename.setName("Thomas");
+        petDetailsServices.patchPetDetails(tomId, rename, null);
+        petDetailsServices.deletePetDetails(tomId, null);
+        testEntityManager.flush();
+
+        List<String> expectedCounts = List.of("Rabies DOG 2024-01 1", "Parvovirus CAT 2024-01 1", "Rabies CAT 2024-01 1",
+                "Rabies CAT 2025-01 1");
+        List<String> expectedCoverage = List.of("DOG 1/1 [Rabies 1]", "CAT 1/1 [Parvovirus 1, Rabies 1]");
+        assertEquals(expectedCounts, counts());
+        assertEquals(expectedCoverage, coverage());
+
+        vaccinationStatsServices.foldPending(2);
+        vaccinationStatsServices.foldPending(1000);
+        assertEquals(0, vaccinationStatsDeltaRepository.count());
+        assertEquals(expectedCounts, counts());
+        assertEquals(expectedCoverage, coverage());
+
+        vaccinationStatsServices.rebuild();
+        assertEquals(expectedCounts, counts());
+        assertEquals(expectedCoverage, coverage());
+        assertEquals(List.of("Rabies DOG 2024-01 1"),
+                describe(vaccinationStatsServices.getVaccinationCounts(Species.DOG, "RABIES", FROM, TO)));
+
+        // A restore puts the pet back, deleting it again takes it out, and the purge has nothing left to change
+        petDetailsServices.restorePetDetails(tomId);
+        assertEquals(List.of("Rabies DOG 2024-01 1", "Parvovirus CAT 2024-01 1", "Rabies CAT 2024-01 2",
+                "Rabies CAT 2025-01 1"), counts());
+        assertEquals(List.of("DOG 1/1 [Rabies 1]", "CAT 2/2 [Rabies 2, Parvovirus 1]"), coverage());
+        petDetailsServices.deletePetDetails(tomId, null);
+        assertEquals(expectedCounts, counts());
+        assertEquals(expectedCoverage, coverage());
+        assertEquals(1, petDetailsServices.purgeDeleted(Instant.now().plusSeconds(1), 10));
+        assertEquals(expectedCounts, counts());
+        assertEquals(expectedCoverage, coverage());
+        vaccinationStatsServices.foldPending(1000);
+        assertEquals(expectedCounts, counts());
+        assertEquals(expectedCoverage, coverage());
+    }
+
+    private Long register(String name, Species species, VaccinationDetails... vaccines) {
+        return petDetailsServices.createPetDetails(PetDetails.builder()
+                .petName(name)
+                .species(species)
+                .owner(new Owner(null, "Jane Doe", "9876543210", "jane@example.com"))
+                .vaccines(new LinkedHashSet<>(List.of(vaccines)))
+                .build()).getId();
+    }
+
+    private List<String> counts() {
+        return describe(vaccinationStatsServices.getVaccinationCounts(null, null, FROM, TO));
+    }
+
+    private static List<String> describe(List<VaccinationCountDTO> counts) {
+        return counts.stream()
+                .map(count -> count.getVaccineName() + " " + count.getSpecies().name() + " " + count.getMonth() + " " + count.getDoses())
+                .toList();
+    }
+
+    private List<String> coverage() {
+        return vaccinationStatsServices.getCoverage(null).stream()
+                .map(VaccinationStatsTests::describe)
+                .toList();
+    }
+
+    private static String describe(SpeciesCoverageDTO coverage) {
+        return coverage.getSpecies().name() + " " + coverage.getVaccinatedPets() + "/" + coverage.getPets() + " "
+                + coverage.getVaccines().stream()
+                .map(vaccine -> vaccine.getVaccineName() + " " + vaccine.getPets())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}